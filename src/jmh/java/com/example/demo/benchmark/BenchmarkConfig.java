@@ -0,0 +1,35 @@
+package com.example.demo.benchmark;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.env.Environment;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.example.demo.config.HibernateConfig;
+import com.example.demo.security.BoundedPasswordEncoder;
+import com.example.demo.security.PasswordEncoderFactory;
+import com.example.demo.security.PasswordHashingExecutor;
+
+/**
+ * BenchmarkConfig 基準測試用的 Spring 設定
+ *
+ * <p>只載入資料存取與服務層（不含 Web MVC 與 Spring Security 過濾器），
+ * 資料庫與 Hibernate 設定沿用 {@link HibernateConfig}，連線資訊由 {@link BenchmarkContext} 覆寫為 H2。</p>
+ */
+@Configuration
+@EnableAspectJAutoProxy
+@Import(HibernateConfig.class)
+@ComponentScan(basePackages = { "com.example.demo.dao", "com.example.demo.service", "com.example.demo.cache",
+		"com.example.demo.search", "com.example.demo.journal", "com.example.demo.inventory", "com.example.demo.security",
+		"com.example.demo.aspect", "com.example.demo.image" })
+public class BenchmarkConfig {
+
+	/** 與 SecurityConfig 相同的密碼編碼器（依設定量測 BCrypt 強度，在密碼雜湊執行緒池中計算） */
+	@Bean
+	public PasswordEncoder passwordEncoder(Environment env, PasswordHashingExecutor passwordHashingExecutor) {
+		return new BoundedPasswordEncoder(PasswordEncoderFactory.create(env), passwordHashingExecutor);
+	}
+}
@@ -0,0 +1,48 @@
+package com.example.demo.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+/**
+ * BenchmarkContext 建立基準測試用的 Spring 容器
+ *
+ * <p>以 application.properties 為基礎，將資料庫改為獨立的 H2 記憶體資料庫（MySQL 相容模式）
+ * 並由 Hibernate 建立資料表；其餘設定（連線池、JDBC 批次、二級快取、pooled ID）維持與正式環境相同。</p>
+ */
+public final class BenchmarkContext {
+
+	private BenchmarkContext() {
+	}
+
+	/**
+	 * 建立並啟動容器，每次呼叫使用新的資料庫。
+	 */
+	public static AnnotationConfigApplicationContext start() {
+		Map<String, Object> properties = new HashMap<>();
+		properties.put("jdbc.driverClassName", "org.h2.Driver");
+		properties.put("jdbc.url", "jdbc:h2:mem:bench-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+		properties.put("jdbc.username", "sa");
+		properties.put("jdbc.password", "");
+		properties.put("jdbc.rewriteBatchedStatements", "false");
+		properties.put("jdbc.pool.statementCache.enabled", "false");
+		properties.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+		properties.put("hibernate.hbm2ddl.auto", "create");
+		properties.put("hibernate.show_sql", "false");
+		properties.put("hibernate.format_sql", "false");
+		properties.put("hibernate.cache.statistics", "false");
+		// 搜尋索引需另外重建，基準測試量測資料庫查詢路徑
+		properties.put("search.index.enabled", "false");
+		// 訂單事件日誌照常啟用，寫入暫存目錄
+		properties.put("journal.dir", System.getProperty("java.io.tmpdir") + "/eshop-bench-journal-" + UUID.randomUUID());
+
+		AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+		context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+		context.register(BenchmarkConfig.class);
+		context.refresh();
+		return context;
+	}
+}
@@ -0,0 +1,63 @@
+package com.example.demo.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.dto.CartSummary;
+import com.example.demo.service.CartService;
+
+/**
+ * CartBenchmark 購物車寫入與讀取
+ *
+ * <p>{@code addToCart} 輪流加入固定的 {@value #CART_PRODUCTS} 件商品，購物車明細數量維持穩定，
+ * 量測的是單次加入（讀取購物車、商品並寫回）的成本。</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+public class CartBenchmark {
+
+	private static final int CART_PRODUCTS = 20;
+
+	private CartService cartService;
+	private Long customerId;
+	private long[] productIds;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp(CatalogState state) {
+		cartService = state.getBean(CartService.class);
+		customerId = state.customerId;
+		int count = Math.min(CART_PRODUCTS, state.products);
+		productIds = new long[count];
+		for (int i = 0; i < count; i++) {
+			// 分散在整個商品表中
+			productIds[i] = 1L + (long) i * (state.products / count);
+		}
+	}
+
+	@Benchmark
+	public void addToCart() {
+		long productId = productIds[next++ % productIds.length];
+		cartService.addToCart(customerId, productId, 1);
+	}
+
+	@Benchmark
+	public CartSummary cartSummary() {
+		return cartService.getCartSummary(customerId);
+	}
+}
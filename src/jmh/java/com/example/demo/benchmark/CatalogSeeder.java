@@ -0,0 +1,116 @@
+package com.example.demo.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.hibernate.SessionFactory;
+import org.springframework.context.ApplicationContext;
+
+import com.example.demo.cache.CatalogCacheManager;
+import com.example.demo.config.PooledIdSeeder;
+
+/**
+ * CatalogSeeder 產生基準測試用的商品目錄
+ *
+ * <p>建立三層分類（10 × 10 × 10），商品平均分配到第三層分類。
+ * 商品名稱由固定詞彙組成，關鍵字查詢有可預期的命中比例（每個詞約 1/10）。</p>
+ *
+ * <p>大量資料直接以 JDBC 批次寫入，寫入後調整 pooled ID 產生器並清除目錄快取。</p>
+ */
+public final class CatalogSeeder {
+
+	/** 商品名稱使用的詞彙，基準測試以其中的詞作為搜尋關鍵字 */
+	static final String[] WORDS = { "手機", "耳機", "筆電", "滑鼠", "鍵盤", "螢幕", "相機", "喇叭", "手錶", "平板" };
+
+	private static final int BRANCHING = 10;
+	private static final int BATCH_SIZE = 1000;
+
+	/** 每件商品的庫存，足夠基準測試反覆下單 */
+	static final int STOCK = 1_000_000_000;
+
+	private final List<Long> rootCategoryIds = new ArrayList<>();
+	private final List<Long> leafCategoryIds = new ArrayList<>();
+
+	/**
+	 * 寫入分類與指定數量的商品。
+	 *
+	 * @param context  基準測試容器
+	 * @param products 商品數量
+	 */
+	public void seed(ApplicationContext context, int products) throws SQLException {
+		DataSource dataSource = context.getBean(DataSource.class);
+		try (Connection connection = dataSource.getConnection()) {
+			connection.setAutoCommit(false);
+			insertCategories(connection);
+			insertProducts(connection, products);
+			connection.commit();
+		}
+		new PooledIdSeeder(context.getBean(SessionFactory.class)).seed();
+		context.getBean(CatalogCacheManager.class).categoriesChanged();
+	}
+
+	private void insertCategories(Connection connection) throws SQLException {
+		long nextId = 1;
+		try (PreparedStatement ps = connection
+				.prepareStatement("INSERT INTO categories (id, name, parent_id) VALUES (?, ?, ?)")) {
+			for (int i = 0; i < BRANCHING; i++) {
+				long rootId = nextId++;
+				addCategory(ps, rootId, "分類 " + i, null);
+				rootCategoryIds.add(rootId);
+				for (int j = 0; j < BRANCHING; j++) {
+					long childId = nextId++;
+					addCategory(ps, childId, "分類 " + i + "-" + j, rootId);
+					for (int k = 0; k < BRANCHING; k++) {
+						long leafId = nextId++;
+						addCategory(ps, leafId, "分類 " + i + "-" + j + "-" + k, childId);
+						leafCategoryIds.add(leafId);
+					}
+				}
+			}
+			ps.executeBatch();
+		}
+	}
+
+	private void addCategory(PreparedStatement ps, long id, String name, Long parentId) throws SQLException {
+		ps.setLong(1, id);
+		ps.setString(2, name);
+		ps.setObject(3, parentId);
+		ps.addBatch();
+	}
+
+	private void insertProducts(Connection connection, int products) throws SQLException {
+		try (PreparedStatement ps = connection.prepareStatement(
+				"INSERT INTO products (id, name, description, price, stock, category_id) VALUES (?, ?, ?, ?, ?, ?)")) {
+			for (int i = 1; i <= products; i++) {
+				String word = WORDS[i % WORDS.length];
+				ps.setLong(1, i);
+				ps.setString(2, word + " 型號 " + i);
+				ps.setString(3, "基準測試商品 " + i + "，" + WORDS[(i / WORDS.length) % WORDS.length] + "配件");
+				ps.setBigDecimal(4, BigDecimal.valueOf(100 + (i * 37L) % 9900));
+				ps.setInt(5, STOCK);
+				ps.setLong(6, leafCategoryIds.get(i % leafCategoryIds.size()));
+				ps.addBatch();
+				if (i % BATCH_SIZE == 0) {
+					ps.executeBatch();
+				}
+			}
+			ps.executeBatch();
+		}
+	}
+
+	/** 第一層分類 ID（查詢時包含其下 110 個子分類） */
+	public List<Long> getRootCategoryIds() {
+		return rootCategoryIds;
+	}
+
+	/** 第三層分類 ID */
+	public List<Long> getLeafCategoryIds() {
+		return leafCategoryIds;
+	}
+}
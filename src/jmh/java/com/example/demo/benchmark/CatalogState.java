@@ -0,0 +1,53 @@
+package com.example.demo.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import com.example.demo.model.User;
+import com.example.demo.service.CustomerService;
+import com.example.demo.service.UserService;
+
+/**
+ * CatalogState 已寫入商品目錄與一位顧客的基準測試容器
+ *
+ * <p>每組參數（商品數量）建立一次，同一組參數的所有迭代共用。</p>
+ */
+@State(Scope.Benchmark)
+public class CatalogState {
+
+	/** 商品數量 */
+	@Param({ "1000", "100000", "1000000" })
+	public int products;
+
+	AnnotationConfigApplicationContext context;
+	CatalogSeeder catalog;
+	Long customerId;
+	Long userId;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		context = BenchmarkContext.start();
+		catalog = new CatalogSeeder();
+		catalog.seed(context, products);
+
+		CustomerService customerService = context.getBean(CustomerService.class);
+		customerService.registerCustomer("基準測試", "bench@example.com", "benchmark-password", "0912345678", "台北市");
+		User user = context.getBean(UserService.class).getUserByEmail("bench@example.com");
+		userId = user.getId();
+		customerId = customerService.getCustomerByUserId(userId).getId();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	<T> T getBean(Class<T> type) {
+		return context.getBean(type);
+	}
+}
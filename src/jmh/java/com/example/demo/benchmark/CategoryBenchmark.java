@@ -0,0 +1,68 @@
+package com.example.demo.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.cache.CatalogCacheManager;
+import com.example.demo.model.Category;
+import com.example.demo.service.CategoryService;
+
+/**
+ * CategoryBenchmark 三層分類樹
+ *
+ * <p>分類樹只與分類數量（固定 1110 個）有關，不隨商品數量變化。
+ * {@code cold} 每次呼叫前清除分類快取，量測重建分類樹的成本。</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CategoryBenchmark {
+
+	/** 分類樹與商品數量無關，只寫入少量商品 */
+	private static final int PRODUCTS = 1000;
+
+	private CatalogState state;
+	private CategoryService categoryService;
+	private CatalogCacheManager catalogCacheManager;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		state = new CatalogState();
+		state.products = PRODUCTS;
+		state.setUp();
+		categoryService = state.getBean(CategoryService.class);
+		catalogCacheManager = state.getBean(CatalogCacheManager.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		state.tearDown();
+	}
+
+	@Benchmark
+	public List<Category> warm() {
+		return categoryService.getThreeLevelCategories();
+	}
+
+	@Benchmark
+	public List<Category> cold() {
+		catalogCacheManager.categoriesChanged();
+		return categoryService.getThreeLevelCategories();
+	}
+}
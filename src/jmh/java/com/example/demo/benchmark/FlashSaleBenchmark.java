@@ -0,0 +1,84 @@
+package com.example.demo.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import com.example.demo.inventory.HotSkuStockCounter;
+import com.example.demo.service.InventoryService;
+
+/**
+ * FlashSaleBenchmark 單一商品的並行搶購
+ *
+ * <p>{@value #THREADS} 個執行緒同時對同一件商品呼叫 {@link InventoryService#reserve}，比較：</p>
+ * <ul>
+ *   <li>{@code row}：一般商品，每次預留都以條件 UPDATE 扣減同一列，所有交易排隊等待該列的鎖</li>
+ *   <li>{@code flash}：啟用搶購模式，預留在記憶體計數中完成，每 {@code inventory.hot.leaseSize}
+ *       件才向資料庫租用一次</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+@Threads(FlashSaleBenchmark.THREADS)
+public class FlashSaleBenchmark {
+
+	static final int THREADS = 16;
+
+	private static final int PRODUCTS = 1000;
+
+	/** 搶購的商品 */
+	private static final long PRODUCT_ID = 1L;
+
+	/** {@code row}：資料庫扣減；{@code flash}：搶購模式 */
+	@Param({ "row", "flash" })
+	public String mode;
+
+	private AnnotationConfigApplicationContext context;
+	private InventoryService inventoryService;
+	private HotSkuStockCounter counter;
+	private Map<Long, Integer> order;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		context = BenchmarkContext.start();
+		new CatalogSeeder().seed(context, PRODUCTS);
+		inventoryService = context.getBean(InventoryService.class);
+		counter = context.getBean(HotSkuStockCounter.class);
+		if ("flash".equals(mode)) {
+			counter.enable(PRODUCT_ID);
+		}
+		order = Map.of(PRODUCT_ID, 1);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		if (counter.isHot(PRODUCT_ID)) {
+			counter.disable(PRODUCT_ID);
+		}
+		context.close();
+	}
+
+	@Benchmark
+	public void reserve() {
+		inventoryService.reserve(order);
+	}
+}
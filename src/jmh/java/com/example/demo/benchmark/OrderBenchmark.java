@@ -0,0 +1,71 @@
+package com.example.demo.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.model.Order;
+import com.example.demo.service.CartService;
+import com.example.demo.service.OrderService;
+
+/**
+ * OrderBenchmark 由購物車建立訂單
+ *
+ * <p>每次呼叫前（不計時）將 {@code lines} 件商品放入購物車，再量測
+ * {@link OrderService#createOrder}：讀取購物車、批次扣減庫存、寫入訂單與明細、移除已下單商品。</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+public class OrderBenchmark {
+
+	/** 每筆訂單的商品數 */
+	@Param({ "1", "10" })
+	public int lines;
+
+	private CartService cartService;
+	private OrderService orderService;
+	private Long customerId;
+	private List<Long> productIds;
+	private long offset;
+	private int products;
+
+	@Setup(Level.Trial)
+	public void setUp(CatalogState state) {
+		cartService = state.getBean(CartService.class);
+		orderService = state.getBean(OrderService.class);
+		customerId = state.customerId;
+		products = state.products;
+	}
+
+	@Setup(Level.Invocation)
+	public void fillCart() {
+		productIds = new ArrayList<>(lines);
+		for (int i = 0; i < lines; i++) {
+			long productId = 1 + (offset++ % products);
+			cartService.addToCart(customerId, productId, 1);
+			productIds.add(productId);
+		}
+	}
+
+	@Benchmark
+	public Order createOrder() {
+		return orderService.createOrder(customerId, productIds);
+	}
+}
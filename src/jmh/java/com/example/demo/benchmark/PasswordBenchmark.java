@@ -0,0 +1,61 @@
+package com.example.demo.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.service.CustomerService;
+
+/**
+ * PasswordBenchmark 密碼驗證與修改（BCrypt）
+ *
+ * <p>量測 {@link CustomerService#checkPassword} 與 {@link CustomerService#updateCustomerPassword}，
+ * 兩者的成本主要來自 BCrypt 雜湊，與商品數量無關。</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordBenchmark {
+
+	private static final String PASSWORD = "benchmark-password";
+
+	private CatalogState state;
+	private CustomerService customerService;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		state = new CatalogState();
+		state.products = 0;
+		state.setUp();
+		customerService = state.getBean(CustomerService.class);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		state.tearDown();
+	}
+
+	@Benchmark
+	public boolean checkPassword() {
+		return customerService.checkPassword(state.userId, PASSWORD);
+	}
+
+	@Benchmark
+	public void updatePassword() {
+		customerService.updateCustomerPassword(state.userId, PASSWORD);
+	}
+}
@@ -0,0 +1,75 @@
+package com.example.demo.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.dto.ProductCursor;
+import com.example.demo.dto.ProductPage;
+import com.example.demo.dto.ProductSummary;
+import com.example.demo.service.ProductService;
+
+/**
+ * ProductSearchBenchmark 商品列表查詢
+ *
+ * <p>量測 {@link ProductService#searchProductsByNameAndCategoryWithPage}（LIKE 關鍵字＋分類，OFFSET 分頁）
+ * 與游標分頁 {@link ProductService#searchProductsByCursor}。</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+public class ProductSearchBenchmark {
+
+	private static final int PAGE_SIZE = 12;
+
+	private ProductService productService;
+	private Long rootCategoryId;
+	private int lastPage;
+
+	@Setup(Level.Trial)
+	public void setUp(CatalogState state) {
+		productService = state.getBean(ProductService.class);
+		rootCategoryId = state.catalog.getRootCategoryIds().get(0);
+		// 關鍵字約命中 1/10 商品，取其中間頁量測 OFFSET 成本
+		lastPage = Math.max(1, state.products / CatalogSeeder.WORDS.length / PAGE_SIZE / 2);
+	}
+
+	@Benchmark
+	public List<ProductSummary> keywordFirstPage() {
+		return productService.searchProductsByNameAndCategoryWithPage("耳機", null, 1, PAGE_SIZE);
+	}
+
+	@Benchmark
+	public List<ProductSummary> keywordDeepPage() {
+		return productService.searchProductsByNameAndCategoryWithPage("耳機", null, lastPage, PAGE_SIZE);
+	}
+
+	@Benchmark
+	public List<ProductSummary> keywordInCategoryTree() {
+		return productService.searchProductsByNameAndCategoryWithPage("耳機", rootCategoryId, 1, PAGE_SIZE);
+	}
+
+	@Benchmark
+	public List<ProductSummary> categoryTreeOnly() {
+		return productService.searchProductsByNameAndCategoryWithPage(null, rootCategoryId, 1, PAGE_SIZE);
+	}
+
+	@Benchmark
+	public ProductPage cursorByPrice() {
+		return productService.searchProductsByCursor(null, rootCategoryId, ProductCursor.Sort.PRICE_ASC, null, PAGE_SIZE);
+	}
+}
@@ -12,7 +12,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import com.example.demo.model.User;
+import com.example.demo.dto.CustomerIdentity;
+import com.example.demo.dto.UserCredentials;
 import com.example.demo.security.CustomUserDetails;
 
 @Component
@@ -31,7 +32,11 @@ public class OrderLoggingAspect {
 
 		String userName = extractUserName(args);
 
-		logger.info("[Order Log] 方法 {} 被呼叫, 使用者: {}, 參數: {}", methodName, userName, Arrays.toString(args));
+		logger.info("[Order Log] 方法 {} 被呼叫, 使用者: {}", methodName, userName);
+		// 參數（含 Model 等物件）轉字串成本高，只在開啟 DEBUG 時才格式化
+		if (logger.isDebugEnabled()) {
+			logger.debug("[Order Log] 方法 {} 參數: {}", methodName, Arrays.toString(args));
+		}
 	}
 
 	// 後置通知：方法成功執行後
@@ -52,9 +57,13 @@ public class OrderLoggingAspect {
 	private String extractUserName(Object[] args) {
 		for (Object arg : args) {
 			if (arg instanceof CustomUserDetails) {
-				User user = ((CustomUserDetails) arg).getUser();
+				UserCredentials user = ((CustomUserDetails) arg).getUser();
 				return user.getEmail(); // 或 getEmail() / getId()
 			}
+			if (arg instanceof CustomerIdentity) {
+				CustomerIdentity customer = (CustomerIdentity) arg;
+				return customer.getName() + "（顧客ID " + customer.getId() + "）";
+			}
 		}
 		return "匿名";
 	}
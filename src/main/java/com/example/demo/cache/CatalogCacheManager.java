@@ -0,0 +1,240 @@
+package com.example.demo.cache;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.dao.impl.CategoryDAOImpl;
+import com.example.demo.model.Category;
+import com.example.demo.model.Product;
+import com.example.demo.util.TransactionCallbacks;
+
+/**
+ * CatalogCacheManager 商品目錄快取管理
+ *
+ * <p>負責在商品（{@link Product}）與分類（{@link Category}）異動時，
+ * 於交易提交後清除對應的 Hibernate 二級快取與查詢快取，並提供各快取區域的統計。</p>
+ *
+ * <p>Hibernate 本身會維護透過 Session 寫入的快取資料，
+ * 此處的清除另外涵蓋原生 SQL 與批次更新等繞過 Session 的寫入。</p>
+ *
+ * <p>同時維護商品目錄版本與庫存版本，供頁面快取產生 ETag：商品或分類內容異動時遞增目錄版本，
+ * 只有庫存異動時遞增庫存版本（商品列表不顯示庫存，不受影響）。
+ * 版本以啟動時間（毫秒）為起點，重新啟動後不會與之前發出的版本重複。</p>
+ */
+@Component
+public class CatalogCacheManager {
+
+	private static final Logger logger = LoggerFactory.getLogger(CatalogCacheManager.class);
+
+	/** 後台統計頁面顯示的快取區域 */
+	private static final String[] REGIONS = {
+			Product.CACHE_REGION,
+			Category.CACHE_REGION,
+			CategoryDAOImpl.QUERY_CACHE_REGION,
+			"default-query-results-region",
+			"default-update-timestamps-region" };
+
+	private final AtomicLong catalogVersion = new AtomicLong(System.currentTimeMillis());
+	private final AtomicLong stockVersion = new AtomicLong(System.currentTimeMillis());
+	private volatile long catalogChangedAt = System.currentTimeMillis();
+	private volatile long stockChangedAt = catalogChangedAt;
+
+	@Autowired
+	private SessionFactory sessionFactory;
+
+	@Autowired
+	private CategoryTreeCache categoryTreeCache;
+
+	@Autowired
+	private ProductCountCache productCountCache;
+
+	/**
+	 * 商品新增、修改或刪除後呼叫。
+	 *
+	 * @param productId 異動的商品 ID；為 {@code null} 時清除整個商品快取
+	 */
+	public void productChanged(Long productId) {
+		TransactionCallbacks.afterCommit(() -> {
+			if (productId != null) {
+				sessionFactory.getCache().evictEntityData(Product.class, productId);
+			} else {
+				sessionFactory.getCache().evictEntityData(Product.class);
+			}
+			sessionFactory.getCache().evictDefaultQueryRegion();
+			productCountCache.invalidateAll();
+			catalogChanged();
+			logger.debug("已清除商品快取，商品 ID：{}", productId);
+		});
+	}
+
+	/**
+	 * 多項商品庫存以批次 SQL 更新後呼叫（庫存不影響商品數量，不清除數量快取）。
+	 *
+	 * @param productIds 異動的商品 ID
+	 */
+	public void productsChanged(Collection<Long> productIds) {
+		List<Long> ids = new ArrayList<>(productIds);
+		TransactionCallbacks.afterCommit(() -> {
+			for (Long id : ids) {
+				sessionFactory.getCache().evictEntityData(Product.class, id);
+			}
+			sessionFactory.getCache().evictDefaultQueryRegion();
+			stockChanged();
+			logger.debug("已清除商品快取，商品 ID：{}", ids);
+		});
+	}
+
+	/**
+	 * 分類新增、修改或刪除後呼叫，清除分類實體快取、分類查詢快取與分類樹快照。
+	 */
+	public void categoriesChanged() {
+		TransactionCallbacks.afterCommit(() -> {
+			sessionFactory.getCache().evictEntityData(Category.class);
+			sessionFactory.getCache().evictQueryRegion(CategoryDAOImpl.QUERY_CACHE_REGION);
+			sessionFactory.getCache().evictDefaultQueryRegion();
+			categoryTreeCache.invalidate();
+			productCountCache.invalidateAll();
+			catalogChanged();
+			logger.debug("已清除分類快取");
+		});
+	}
+
+	/**
+	 * 商品目錄（商品內容、分類）版本，商品或分類異動提交後遞增。
+	 */
+	public long getCatalogVersion() {
+		return catalogVersion.get();
+	}
+
+	/**
+	 * 庫存版本，任何商品的庫存以批次 SQL 異動提交後遞增。
+	 */
+	public long getStockVersion() {
+		return stockVersion.get();
+	}
+
+	/**
+	 * 商品目錄最後異動時間（毫秒）。
+	 */
+	public long getCatalogChangedAt() {
+		return catalogChangedAt;
+	}
+
+	/**
+	 * 庫存最後異動時間（毫秒）。
+	 */
+	public long getStockChangedAt() {
+		return stockChangedAt;
+	}
+
+	private void catalogChanged() {
+		catalogChangedAt = System.currentTimeMillis();
+		catalogVersion.incrementAndGet();
+		// 商品內容異動也可能包含庫存
+		stockChanged();
+	}
+
+	private void stockChanged() {
+		stockChangedAt = System.currentTimeMillis();
+		stockVersion.incrementAndGet();
+	}
+
+	/**
+	 * 取得各快取區域的命中、未命中、寫入與淘汰次數。
+	 *
+	 * @return 快取區域統計清單；未啟用統計時回傳空集合
+	 */
+	public List<RegionStatistics> getRegionStatistics() {
+		Statistics statistics = sessionFactory.getStatistics();
+		List<RegionStatistics> result = new ArrayList<>();
+		if (!statistics.isStatisticsEnabled()) {
+			return result;
+		}
+		for (String region : REGIONS) {
+			CacheRegionStatistics stats;
+			try {
+				stats = statistics.getCacheRegionStatistics(region);
+			} catch (RuntimeException e) {
+				stats = null; // 未啟用二級快取時區域不存在
+			}
+			if (stats != null) {
+				result.add(new RegionStatistics(region, stats.getHitCount(), stats.getMissCount(),
+						stats.getPutCount(), evictionCount(region)));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * 從 JCache 統計 MBean 讀取淘汰次數（Hibernate 統計不含此項）。
+	 *
+	 * @return 淘汰次數；取不到時回傳 -1
+	 */
+	private long evictionCount(String region) {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			Set<ObjectName> names = server.queryNames(
+					new ObjectName("javax.cache:type=CacheStatistics,Cache=" + ObjectName.quote(region) + ",*"), null);
+			if (names.isEmpty()) {
+				names = server.queryNames(
+						new ObjectName("javax.cache:type=CacheStatistics,Cache=" + region + ",*"), null);
+			}
+			long total = 0;
+			for (ObjectName name : names) {
+				total += ((Number) server.getAttribute(name, "CacheEvictions")).longValue();
+			}
+			return names.isEmpty() ? -1 : total;
+		} catch (Exception e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * 單一快取區域的統計快照。
+	 */
+	public static class RegionStatistics {
+		private final String region;
+		private final long hitCount;
+		private final long missCount;
+		private final long putCount;
+		private final long evictionCount;
+
+		RegionStatistics(String region, long hitCount, long missCount, long putCount, long evictionCount) {
+			this.region = region;
+			this.hitCount = hitCount;
+			this.missCount = missCount;
+			this.putCount = putCount;
+			this.evictionCount = evictionCount;
+		}
+
+		public String getRegion() { return region; }
+
+		public long getHitCount() { return hitCount; }
+
+		public long getMissCount() { return missCount; }
+
+		public long getPutCount() { return putCount; }
+
+		public long getEvictionCount() { return evictionCount; }
+
+		public double getHitRatio() {
+			long total = hitCount + missCount;
+			return total == 0 ? 0.0 : (double) hitCount / total;
+		}
+	}
+}
@@ -0,0 +1,186 @@
+package com.example.demo.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.demo.model.Category;
+
+/**
+ * CategoryTree 分類樹快照
+ *
+ * <p>由一次查詢取得的全部分類建立的不可變結構：</p>
+ * <ul>
+ *   <li>以陣列索引保存父 → 子的鄰接關係</li>
+ *   <li>預先計算每個分類（含自己）的所有子孫分類 ID</li>
+ *   <li>預先組好三層分類（大 → 中 → 小）供頁面顯示</li>
+ * </ul>
+ *
+ * <p>建立後不再修改，多執行緒可直接共用；分類異動時整份替換（見 {@link CategoryTreeCache}）。</p>
+ */
+public final class CategoryTree {
+
+	/** 顯示的分類層數（大、中、小） */
+	private static final int DISPLAY_DEPTH = 3;
+
+	private final long[] ids;
+
+	/** 每個分類的子分類索引 */
+	private final int[][] children;
+
+	/** 分類 ID → 陣列索引 */
+	private final Map<Long, Integer> indexById;
+
+	/** 每個分類（含自己）的子孫分類 ID，依前序走訪排列 */
+	private final List<List<Long>> descendantIds;
+
+	private final List<Category> threeLevel;
+
+	private final long version;
+
+	/**
+	 * 由全部分類建立快照。
+	 *
+	 * <p>只讀取分類的 ID、名稱、描述與父分類 ID，不觸發延遲載入的集合。
+	 * 同層分類依 ID 排序。</p>
+	 *
+	 * @param source     全部分類
+	 * @param version    快照版本，分類每次異動遞增
+	 */
+	public CategoryTree(List<Category> source, long version) {
+		this.version = version;
+		List<Category> categories = new ArrayList<>(source);
+		categories.sort(Comparator.comparing(Category::getId));
+		int n = categories.size();
+		this.ids = new long[n];
+		this.indexById = new HashMap<>(n * 2);
+		for (int i = 0; i < n; i++) {
+			ids[i] = categories.get(i).getId();
+			indexById.put(ids[i], i);
+		}
+
+		// 建立鄰接陣列：先計算每個節點的子節點數，再一次填滿
+		int[] parent = new int[n];
+		int[] childCount = new int[n];
+		List<Integer> roots = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			Category p = categories.get(i).getParent();
+			Integer pi = p != null ? indexById.get(p.getId()) : null;
+			parent[i] = pi != null ? pi : -1;
+			if (pi != null) {
+				childCount[pi]++;
+			} else {
+				roots.add(i);
+			}
+		}
+		this.children = new int[n][];
+		for (int i = 0; i < n; i++) {
+			children[i] = new int[childCount[i]];
+		}
+		int[] filled = new int[n];
+		for (int i = 0; i < n; i++) {
+			if (parent[i] >= 0) {
+				children[parent[i]][filled[parent[i]]++] = i;
+			}
+		}
+
+		// 預先計算子孫 ID：由大分類往下走訪；每個分類只有一個父分類，從根可達的部分必為樹狀。
+		// 父子關係形成循環而無法從根走到的分類，只包含自己
+		List<List<Long>> descendants = new ArrayList<>(Collections.nCopies(n, null));
+		for (int root : roots) {
+			collect(root, descendants);
+		}
+		for (int i = 0; i < n; i++) {
+			if (descendants.get(i) == null) {
+				descendants.set(i, List.of(ids[i]));
+			}
+		}
+		this.descendantIds = descendants;
+
+		// 組出三層分類，使用新建立的 Category 物件，與 Hibernate Session 無關
+		List<Category> top = new ArrayList<>(roots.size());
+		for (int root : roots) {
+			top.add(copy(categories, root, 1));
+		}
+		this.threeLevel = Collections.unmodifiableList(top);
+	}
+
+	private List<Long> collect(int index, List<List<Long>> descendants) {
+		List<Long> result = new ArrayList<>();
+		result.add(ids[index]);
+		for (int child : children[index]) {
+			result.addAll(collect(child, descendants));
+		}
+		List<Long> immutable = Collections.unmodifiableList(result);
+		descendants.set(index, immutable);
+		return immutable;
+	}
+
+	private Category copy(List<Category> categories, int index, int depth) {
+		Category source = categories.get(index);
+		Category copy = new Category();
+		copy.setId(source.getId());
+		copy.setName(source.getName());
+		copy.setDescription(source.getDescription());
+		List<Category> copiedChildren = new ArrayList<>();
+		if (depth < DISPLAY_DEPTH) {
+			for (int child : children[index]) {
+				Category c = copy(categories, child, depth + 1);
+				c.setParent(copy);
+				copiedChildren.add(c);
+			}
+		}
+		copy.setChildren(Collections.unmodifiableList(copiedChildren));
+		return copy;
+	}
+
+	/**
+	 * 取得分類及其所有子孫分類的 ID（包含自己）。
+	 *
+	 * @param categoryId 分類 ID
+	 * @return 不可修改的 ID 清單；分類不存在時只包含傳入的 ID
+	 */
+	public List<Long> getDescendantIds(Long categoryId) {
+		Integer index = indexById.get(categoryId);
+		return index != null ? descendantIds.get(index) : List.of(categoryId);
+	}
+
+	/**
+	 * 取得指定分類的直接子分類 ID。
+	 *
+	 * @param categoryId 分類 ID
+	 * @return 子分類 ID；分類不存在或沒有子分類時回傳空陣列
+	 */
+	public long[] getChildIds(Long categoryId) {
+		Integer index = indexById.get(categoryId);
+		if (index == null) {
+			return new long[0];
+		}
+		int[] c = children[index];
+		long[] result = new long[c.length];
+		for (int i = 0; i < c.length; i++) {
+			result[i] = ids[c[i]];
+		}
+		return result;
+	}
+
+	/**
+	 * 取得三層分類（大分類 → 中分類 → 小分類）。
+	 *
+	 * <p>回傳的清單與子分類清單皆不可修改，可由多個請求共用。</p>
+	 */
+	public List<Category> getThreeLevelCategories() {
+		return threeLevel;
+	}
+
+	public int size() {
+		return ids.length;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+}
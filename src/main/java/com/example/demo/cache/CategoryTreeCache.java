@@ -0,0 +1,74 @@
+package com.example.demo.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.dao.CategoryDAO;
+
+/**
+ * CategoryTreeCache 分類樹快照持有者
+ *
+ * <p>保存目前的 {@link CategoryTree}。分類異動時只遞增版本號，
+ * 下一次讀取時以一次查詢重建，再以原子操作替換；替換前的讀取者仍使用舊快照，不需加鎖。</p>
+ *
+ * <p>重建在另一個讀寫交易中查詢，一律讀主庫：快照以遞增後的版本保存，
+ * 若讀到尚未複寫的副本，舊的分類樹會一直使用到下一次分類異動。</p>
+ */
+@Component
+public class CategoryTreeCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(CategoryTreeCache.class);
+
+	@Autowired
+	private CategoryDAO categoryDAO;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final AtomicReference<CategoryTree> current = new AtomicReference<>();
+
+	private final AtomicLong version = new AtomicLong();
+
+	/**
+	 * 取得目前的分類樹；快照過期時重新查詢建立。
+	 *
+	 * @return 分類樹快照
+	 */
+	public CategoryTree getTree() {
+		CategoryTree tree = current.get();
+		long v = version.get();
+		if (tree != null && tree.getVersion() == v) {
+			return tree;
+		}
+		TransactionTemplate primary = new TransactionTemplate(transactionManager);
+		primary.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		CategoryTree rebuilt = primary.execute(status -> new CategoryTree(categoryDAO.findAll(), v));
+		// 多個執行緒同時重建時，保留版本較新的快照
+		current.accumulateAndGet(rebuilt,
+				(old, fresh) -> old != null && old.getVersion() >= fresh.getVersion() ? old : fresh);
+		logger.debug("已重建分類樹快照，版本：{}，分類數：{}", v, rebuilt.size());
+		return rebuilt;
+	}
+
+	/**
+	 * 分類異動（交易提交後）呼叫，讓目前的快照失效。
+	 */
+	public void invalidate() {
+		version.incrementAndGet();
+	}
+
+	/**
+	 * 目前的快照版本，可作為分類相關輸出快取的鍵值。
+	 */
+	public long getVersion() {
+		return version.get();
+	}
+}
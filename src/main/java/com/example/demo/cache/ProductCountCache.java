@@ -0,0 +1,54 @@
+package com.example.demo.cache;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * ProductCountCache 商品數量快取
+ *
+ * <p>商品列表每次換頁都需要顯示符合條件的商品總數，
+ * 以（關鍵字, 分類）為鍵快取 COUNT 結果，換頁時不再重新計算。</p>
+ *
+ * <p>商品或分類異動後由 {@link CatalogCacheManager} 清除；
+ * 另設有存活時間，作為批次匯入等未經服務層寫入時的保險。</p>
+ */
+@Component
+public class ProductCountCache {
+
+	private final Cache<String, Integer> counts;
+
+	@Autowired
+	public ProductCountCache(Environment env) {
+		this.counts = Caffeine.newBuilder()
+				.maximumSize(env.getProperty("product.count.cache.maxSize", Long.class, 1000L))
+				.expireAfterWrite(Duration.ofSeconds(env.getProperty("product.count.cache.ttlSeconds", Long.class, 60L)))
+				.build();
+	}
+
+	/**
+	 * 取得快取的商品數量；沒有快取時呼叫 loader 計算並存入。
+	 *
+	 * @param keyword     搜尋關鍵字，可為 null
+	 * @param categoryId  分類 ID（含子分類），可為 null
+	 * @param loader      實際查詢數量的方法
+	 * @return 商品數量
+	 */
+	public int get(String keyword, Long categoryId, Supplier<Integer> loader) {
+		String key = (keyword != null ? keyword.trim() : "") + "|" + (categoryId != null ? categoryId : "");
+		return counts.get(key, k -> loader.get());
+	}
+
+	/**
+	 * 清除所有快取的商品數量。
+	 */
+	public void invalidateAll() {
+		counts.invalidateAll();
+	}
+}
@@ -1,11 +1,22 @@
 package com.example.demo.config;
 
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.ComponentScan.Filter;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.web.servlet.HandlerInterceptor;
 
+/**
+ * 根 context 設定：資料存取、服務、快取、安全等應用程式元件。
+ *
+ * <p>Web 層（controller、view、aspect 套件與攔截器）由 DispatcherServlet context 的
+ * {@link WebMvcConfig} 載入，這裡排除，避免同一元件在兩個 context 各建立一份。</p>
+ */
 @Configuration
-@ComponentScan(basePackages = "com.example.demo")
+@ComponentScan(basePackages = "com.example.demo", excludeFilters = {
+		@Filter(type = FilterType.REGEX, pattern = "com\\.example\\.demo\\.(controller|view|aspect)\\..*"),
+		@Filter(type = FilterType.ASSIGNABLE_TYPE, classes = { WebMvcConfig.class, HandlerInterceptor.class }) })
 @EnableTransactionManagement
 public class AppConfig {
-}
\ No newline at end of file
+}
@@ -4,44 +4,29 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
-import com.example.demo.model.Customer;
-import com.example.demo.model.User;
-import com.example.demo.security.CustomUserDetails;
-import com.example.demo.service.CustomerService;
+import com.example.demo.dto.CustomerIdentity;
+import com.example.demo.security.CustomerIdentityArgumentResolver;
 
 @Component
 public class CustomerInterceptor implements HandlerInterceptor {
 
     @Autowired
-    private CustomerService customerService;
+    private CustomerIdentityArgumentResolver customerIdentityResolver;
 
     @Override
     public boolean preHandle(HttpServletRequest request,
                              HttpServletResponse response,
                              Object handler) throws Exception {
-    	Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (auth == null || !auth.isAuthenticated() || auth.getPrincipal() instanceof String) {
-            // 沒登入或匿名使用者
-            response.sendRedirect(request.getContextPath() + "/login");
-            return false;
-        }
-
-        CustomUserDetails userDetails = (CustomUserDetails) auth.getPrincipal();
-        User user = userDetails.getUser();
-
-        Customer customer = customerService.getCustomerByUserId(user.getId());
+        // 解析結果會存在 request 中，controller 的 CustomerIdentity 參數直接沿用
+        CustomerIdentity customer = customerIdentityResolver.resolve(request);
         if (customer == null) {
+            // 沒登入、匿名使用者或沒有顧客資料
             response.sendRedirect(request.getContextPath() + "/login");
             return false;
         }
-
-        request.getSession().setAttribute("loggedInCustomer", customer);
         return true;
     }
 }
-
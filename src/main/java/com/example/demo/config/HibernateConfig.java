@@ -12,44 +12,199 @@ import org.springframework.orm.hibernate5.HibernateTransactionManager;
 import org.springframework.orm.hibernate5.LocalSessionFactoryBean;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
+import com.example.demo.dao.OrderSummaryDAO;
+import com.example.demo.metrics.ConnectionPoolMetrics;
+import com.github.benmanes.caffeine.jcache.configuration.TypesafeConfigurator;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.typesafe.config.ConfigFactory;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
 @Configuration
 @PropertySource("classpath:application.properties")
 @EnableTransactionManagement
 public class HibernateConfig {
 
+    /** pooled ID 模式使用的主鍵產生器覆寫設定 */
+    private static final String POOLED_ID_MAPPING = "orm-pooled-ids.xml";
+
     @Autowired
     private Environment env;
 
+    /**
+     * 建立資料來源。
+     *
+     * <p>當 {@code jdbc.pool.enabled=true} 時使用 HikariCP 連線池，
+     * 否則沿用每次交易都開新連線的 {@link DriverManagerDataSource}。</p>
+     *
+     * <p>當 {@code jdbc.replica.enabled=true} 時另建一個連到 {@code jdbc.replica.*} 的資料來源，
+     * 唯讀交易改用副本（見 {@link ReadOnlyRoutingDataSource}）；
+     * 依版本號快取的資料（分類樹、頁面快取）仍讀主庫，副本讀到的資料也不回填二級快取。</p>
+     */
     @Bean
     public DataSource dataSource() {
+        DataSource primary = createDataSource("jdbc", env.getProperty("jdbc.pool.name", "eshop-primary"));
+        if (!isReplicaEnabled()) {
+            return primary;
+        }
+        DataSource replica = createDataSource("jdbc.replica", env.getProperty("jdbc.replica.pool.name", "eshop-replica"));
+        return new ReadOnlyRoutingDataSource(primary, replica);
+    }
+
+    /**
+     * 依 {@code <prefix>.url}、{@code <prefix>.username}、{@code <prefix>.password} 建立資料來源。
+     */
+    private DataSource createDataSource(String prefix, String poolName) {
+        if (env.getProperty("jdbc.pool.enabled", Boolean.class, false)) {
+            return pooledDataSource(prefix, poolName);
+        }
         DriverManagerDataSource dataSource = new DriverManagerDataSource();
         dataSource.setDriverClassName(env.getRequiredProperty("jdbc.driverClassName"));
-        dataSource.setUrl(env.getRequiredProperty("jdbc.url"));
-        dataSource.setUsername(env.getRequiredProperty("jdbc.username"));
-        dataSource.setPassword(env.getRequiredProperty("jdbc.password"));
+        dataSource.setUrl(env.getRequiredProperty(prefix + ".url"));
+        dataSource.setUsername(env.getRequiredProperty(prefix + ".username"));
+        dataSource.setPassword(env.getRequiredProperty(prefix + ".password"));
+        dataSource.setConnectionProperties(driverProperties());
         return dataSource;
     }
 
+    /**
+     * 連線池統計，由 HikariCP 在建立連線池時回呼註冊。
+     */
+    @Bean
+    public ConnectionPoolMetrics connectionPoolMetrics() {
+        return new ConnectionPoolMetrics();
+    }
+
+    /**
+     * 依 application.properties 的 {@code jdbc.pool.*} 設定建立 HikariCP 連線池。
+     *
+     * <p>包含連線池大小、閒置逾時、連線洩漏偵測，
+     * 以及 MySQL Driver 端的 PreparedStatement 快取。
+     * 副本的連線池沿用相同設定，只有大小可另以 {@code jdbc.replica.pool.maximumPoolSize} 指定。</p>
+     */
+    private HikariDataSource pooledDataSource(String prefix, String poolName) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setDriverClassName(env.getRequiredProperty("jdbc.driverClassName"));
+        config.setJdbcUrl(env.getRequiredProperty(prefix + ".url"));
+        config.setUsername(env.getRequiredProperty(prefix + ".username"));
+        config.setPassword(env.getRequiredProperty(prefix + ".password"));
+
+        // 連線池大小與逾時
+        int maximumPoolSize = env.getProperty("jdbc.pool.maximumPoolSize", Integer.class, 10);
+        config.setMaximumPoolSize(env.getProperty(prefix + ".pool.maximumPoolSize", Integer.class, maximumPoolSize));
+        config.setMinimumIdle(env.getProperty("jdbc.pool.minimumIdle", Integer.class, 2));
+        config.setConnectionTimeout(env.getProperty("jdbc.pool.connectionTimeoutMs", Long.class, 30000L));
+        config.setIdleTimeout(env.getProperty("jdbc.pool.idleTimeoutMs", Long.class, 600000L));
+        config.setMaxLifetime(env.getProperty("jdbc.pool.maxLifetimeMs", Long.class, 1800000L));
+        config.setKeepaliveTime(env.getProperty("jdbc.pool.keepaliveTimeMs", Long.class, 0L));
+
+        // 連線借出超過門檻未歸還時記錄警告（0 表示關閉）
+        config.setLeakDetectionThreshold(env.getProperty("jdbc.pool.leakDetectionThresholdMs", Long.class, 0L));
+
+        // MySQL Connector/J 的 PreparedStatement 快取
+        config.setDataSourceProperties(driverProperties());
+        if (env.getProperty("jdbc.pool.statementCache.enabled", Boolean.class, true)) {
+            config.addDataSourceProperty("cachePrepStmts", "true");
+            config.addDataSourceProperty("useServerPrepStmts", "true");
+            config.addDataSourceProperty("prepStmtCacheSize",
+                    env.getProperty("jdbc.pool.statementCache.size", "250"));
+            config.addDataSourceProperty("prepStmtCacheSqlLimit",
+                    env.getProperty("jdbc.pool.statementCache.sqlLimit", "2048"));
+        }
+
+        config.setMetricsTrackerFactory(connectionPoolMetrics());
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * 兩種資料來源共用的 Driver 連線參數。
+     *
+     * <p>{@code rewriteBatchedStatements} 讓 MySQL Driver 將 JDBC 批次改寫為
+     * 多值 INSERT 或單一封包的多筆敘述，減少往返次數。</p>
+     */
+    private Properties driverProperties() {
+        Properties properties = new Properties();
+        if (env.getProperty("jdbc.rewriteBatchedStatements", Boolean.class, false)) {
+            properties.setProperty("rewriteBatchedStatements", "true");
+        }
+        return properties;
+    }
+
     @Bean
     public LocalSessionFactoryBean sessionFactory() {
         LocalSessionFactoryBean sessionFactory = new LocalSessionFactoryBean();
         sessionFactory.setDataSource(dataSource());
         sessionFactory.setPackagesToScan("com.example.demo.model");
+        if (isPooledIdEnabled()) {
+            // 以 orm.xml 覆寫大量寫入實體的主鍵產生方式，實體類別不需修改
+            sessionFactory.setMappingResources(POOLED_ID_MAPPING);
+        }
         sessionFactory.setHibernateProperties(hibernateProperties());
         return sessionFactory;
     }
 
+    /**
+     * pooled ID 模式下，啟動時依既有資料調整 ID 產生器的起始值。
+     */
+    @Bean(initMethod = "seed")
+    public PooledIdSeeder pooledIdSeeder() {
+        return new PooledIdSeeder(sessionFactory().getObject());
+    }
+
+    /**
+     * 啟動時為既有訂單補上訂單列表使用的摘要。
+     */
+    @Bean(initMethod = "backfill")
+    public OrderSummaryBackfill orderSummaryBackfill(OrderSummaryDAO orderSummaryDAO) {
+        return new OrderSummaryBackfill(orderSummaryDAO, transactionManager());
+    }
+
+    private boolean isReplicaEnabled() {
+        return env.getProperty("jdbc.replica.enabled", Boolean.class, false);
+    }
+
+    private boolean isPooledIdEnabled() {
+        return env.getProperty("hibernate.id.pooled", Boolean.class, false);
+    }
+
     private Properties hibernateProperties() {
         Properties properties = new Properties();
         properties.put("hibernate.dialect", env.getRequiredProperty("hibernate.dialect"));
         properties.put("hibernate.show_sql", env.getRequiredProperty("hibernate.show_sql"));
         properties.put("hibernate.format_sql", env.getRequiredProperty("hibernate.format_sql"));
         properties.put("hibernate.hbm2ddl.auto", env.getRequiredProperty("hibernate.hbm2ddl.auto"));
+
+        // JDBC 批次：同類型的 INSERT / UPDATE 排序後合併送出（IDENTITY 主鍵的 INSERT 無法批次）
+        properties.put("hibernate.jdbc.batch_size", env.getProperty("hibernate.jdbc.batch_size", "0"));
+        properties.put("hibernate.order_inserts", env.getProperty("hibernate.order_inserts", "false"));
+        properties.put("hibernate.order_updates", env.getProperty("hibernate.order_updates", "false"));
+        properties.put("hibernate.jdbc.batch_versioned_data", "true");
+
+        // 二級快取與查詢快取（Product、Category 與分類查詢）
+        boolean cacheEnabled = env.getProperty("hibernate.cache.enabled", Boolean.class, false);
+        properties.put("hibernate.cache.use_second_level_cache", String.valueOf(cacheEnabled));
+        properties.put("hibernate.cache.use_query_cache", String.valueOf(cacheEnabled));
+        if (cacheEnabled) {
+            TypesafeConfigurator.setConfigSource(() -> ConfigFactory.load(
+                    env.getProperty("hibernate.cache.config", "catalog-cache")));
+            properties.put("hibernate.cache.region.factory_class", "jcache");
+            properties.put("hibernate.javax.cache.provider", CaffeineCachingProvider.class.getName());
+            properties.put("hibernate.javax.cache.missing_cache_strategy", "create-warn");
+        }
+        properties.put("hibernate.generate_statistics", env.getProperty("hibernate.cache.statistics", "false"));
         return properties;
     }
 
+    /**
+     * 交易管理器；啟用唯讀副本時改用 {@link ReadOnlyRoutingTransactionManager}，
+     * 從副本讀到的資料不寫入二級快取。
+     */
     @Bean
     public HibernateTransactionManager transactionManager() {
+        if (isReplicaEnabled()) {
+            return new ReadOnlyRoutingTransactionManager(sessionFactory().getObject());
+        }
         HibernateTransactionManager transactionManager = new HibernateTransactionManager();
         transactionManager.setSessionFactory(sessionFactory().getObject());
         return transactionManager;
@@ -0,0 +1,37 @@
+package com.example.demo.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.dao.OrderSummaryDAO;
+
+/**
+ * OrderSummaryBackfill 訂單摘要初始化
+ *
+ * <p>{@code order_summary} 由 hbm2ddl 建立時是空的，之後的訂單才會在建立時寫入摘要。
+ * 啟動時為還沒有摘要的既有訂單補上摘要，已有摘要的訂單不受影響，可重複執行。</p>
+ */
+public class OrderSummaryBackfill {
+
+	private static final Logger logger = LoggerFactory.getLogger(OrderSummaryBackfill.class);
+
+	private final OrderSummaryDAO orderSummaryDAO;
+	private final PlatformTransactionManager transactionManager;
+
+	public OrderSummaryBackfill(OrderSummaryDAO orderSummaryDAO, PlatformTransactionManager transactionManager) {
+		this.orderSummaryDAO = orderSummaryDAO;
+		this.transactionManager = transactionManager;
+	}
+
+	/**
+	 * 補齊缺少的訂單摘要。
+	 */
+	public void backfill() {
+		Integer created = new TransactionTemplate(transactionManager).execute(status -> orderSummaryDAO.backfillMissing());
+		if (created != null && created > 0) {
+			logger.info("已為 {} 筆既有訂單建立訂單摘要", created);
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package com.example.demo.config;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.enhanced.TableGenerator;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * PooledIdSeeder pooled ID 產生器初始化
+ *
+ * <p>由 IDENTITY 切換為 TABLE 產生器（見 {@code orm-pooled-ids.xml}）時，
+ * 資料表中已有以 AUTO_INCREMENT 產生的資料，產生器若從 1 開始會與既有主鍵衝突。</p>
+ *
+ * <p>啟動時針對每個使用 {@link TableGenerator} 的實體，確保產生器的下一個值
+ * 大於目前最大主鍵加上一次配置的數量；只會往上調整，不會降低已使用的值。</p>
+ */
+public class PooledIdSeeder {
+
+	private static final Logger logger = LoggerFactory.getLogger(PooledIdSeeder.class);
+
+	private final SessionFactory sessionFactory;
+
+	public PooledIdSeeder(SessionFactory sessionFactory) {
+		this.sessionFactory = sessionFactory;
+	}
+
+	/**
+	 * 檢查並調整所有 TABLE 產生器的起始值。
+	 */
+	public void seed() {
+		SessionFactoryImplementor factory = sessionFactory.unwrap(SessionFactoryImplementor.class);
+		try (Session session = sessionFactory.openSession()) {
+			session.beginTransaction();
+			for (EntityPersister persister : factory.getMetamodel().entityPersisters().values()) {
+				IdentifierGenerator generator = persister.getIdentifierGenerator();
+				if (generator instanceof TableGenerator) {
+					seed(session, persister.getEntityName(), (TableGenerator) generator);
+				}
+			}
+			session.getTransaction().commit();
+		}
+	}
+
+	private void seed(Session session, String entityName, TableGenerator generator) {
+		Number max = session.createQuery("SELECT MAX(e.id) FROM " + entityName + " e", Number.class).uniqueResult();
+		// pooled 最佳化取得的值 V 代表區段 (V - incrementSize, V]，需大於目前最大主鍵
+		long required = (max != null ? max.longValue() : 0L) + generator.getIncrementSize() + 1;
+
+		String table = generator.getTableName();
+		String segmentColumn = generator.getSegmentColumnName();
+		String valueColumn = generator.getValueColumnName();
+		String segment = generator.getSegmentValue();
+
+		session.doWork(connection -> {
+			Long current = null;
+			try (PreparedStatement ps = connection.prepareStatement(
+					"SELECT " + valueColumn + " FROM " + table + " WHERE " + segmentColumn + " = ?")) {
+				ps.setString(1, segment);
+				try (ResultSet rs = ps.executeQuery()) {
+					if (rs.next()) {
+						current = rs.getLong(1);
+					}
+				}
+			}
+			if (current == null) {
+				try (PreparedStatement ps = connection.prepareStatement(
+						"INSERT INTO " + table + " (" + segmentColumn + ", " + valueColumn + ") VALUES (?, ?)")) {
+					ps.setString(1, segment);
+					ps.setLong(2, required);
+					ps.executeUpdate();
+				}
+				logger.info("已初始化 ID 產生器 {}，起始值：{}", segment, required);
+			} else if (current < required) {
+				try (PreparedStatement ps = connection.prepareStatement(
+						"UPDATE " + table + " SET " + valueColumn + " = ? WHERE " + segmentColumn + " = ? AND "
+								+ valueColumn + " < ?")) {
+					ps.setLong(1, required);
+					ps.setString(2, segment);
+					ps.setLong(3, required);
+					ps.executeUpdate();
+				}
+				logger.info("已調整 ID 產生器 {}：{} → {}", segment, current, required);
+			}
+		});
+	}
+}
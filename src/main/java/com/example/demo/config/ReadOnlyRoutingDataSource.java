@@ -0,0 +1,116 @@
+package com.example.demo.config;
+
+import java.io.Closeable;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * ReadOnlyRoutingDataSource 依交易是否唯讀選擇主庫或唯讀副本
+ *
+ * <p>{@code @Transactional(readOnly = true)} 的交易使用副本，其餘（含交易外的連線，
+ * 例如啟動時的 schema 更新）一律使用主庫。</p>
+ *
+ * <p>交易管理器在交易開始時就會向資料來源取得連線，此時交易的唯讀標記尚未設定，
+ * 因此外層包一層 {@link LazyConnectionDataSourceProxy}：實際連線延後到第一個 SQL 執行時才取得，
+ * 那時才依唯讀標記決定連到哪個資料庫，交易開始時設定的 autoCommit、readOnly 也會在取得後套用。</p>
+ *
+ * <p>副本有複寫延遲：剛寫入的資料在唯讀交易中可能還讀不到。依版本號快取的讀取
+ * （分類樹快照、頁面快取的渲染）若讀到副本，舊資料會一直留在新版本的快取中，
+ * 因此以讀寫交易執行，或在 {@link #primaryReads()} 範圍內執行，唯讀交易也改用主庫；
+ * 二級快取則不由副本回填（見 {@link ReadOnlyRoutingTransactionManager}）。</p>
+ */
+public class ReadOnlyRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+	private static final Logger logger = LoggerFactory.getLogger(ReadOnlyRoutingDataSource.class);
+
+	private static final String PRIMARY = "primary";
+	private static final String REPLICA = "replica";
+
+	/** 目前執行緒是否要求唯讀交易也使用主庫 */
+	private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+
+	private final DataSource primary;
+	private final DataSource replica;
+
+	/**
+	 * @param primary 主庫，讀寫交易與交易外的連線使用
+	 * @param replica 唯讀副本，唯讀交易使用
+	 */
+	public ReadOnlyRoutingDataSource(DataSource primary, DataSource replica) {
+		this.primary = primary;
+		this.replica = replica;
+		AbstractRoutingDataSource router = new AbstractRoutingDataSource() {
+			@Override
+			protected Object determineCurrentLookupKey() {
+				return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !isPrimaryReads()
+						? REPLICA : PRIMARY;
+			}
+		};
+		router.setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+		router.setDefaultTargetDataSource(primary);
+		router.afterPropertiesSet();
+		setTargetDataSource(router);
+		afterPropertiesSet();
+	}
+
+	/**
+	 * 在目前執行緒開始一段唯讀交易也使用主庫的範圍，以 try-with-resources 結束。
+	 *
+	 * <p>連線在第一個 SQL 執行時才決定來源，因此只影響範圍內才取得連線的交易；
+	 * 範圍開始前已連到副本的交易不受影響。範圍可巢狀，結束時恢復原本的設定。</p>
+	 *
+	 * @return 結束範圍用的物件
+	 */
+	public static PrimaryReads primaryReads() {
+		Boolean previous = PRIMARY_READS.get();
+		PRIMARY_READS.set(Boolean.TRUE);
+		return () -> {
+			if (previous == null) {
+				PRIMARY_READS.remove();
+			} else {
+				PRIMARY_READS.set(previous);
+			}
+		};
+	}
+
+	/**
+	 * 目前執行緒是否在 {@link #primaryReads()} 的範圍內。
+	 */
+	public static boolean isPrimaryReads() {
+		return PRIMARY_READS.get() != null;
+	}
+
+	/**
+	 * 關閉主庫與副本的連線池。
+	 */
+	@Override
+	public void close() {
+		closeQuietly(replica);
+		closeQuietly(primary);
+	}
+
+	private static void closeQuietly(DataSource dataSource) {
+		if (dataSource instanceof AutoCloseable) {
+			try {
+				((AutoCloseable) dataSource).close();
+			} catch (Exception e) {
+				logger.warn("關閉資料來源失敗", e);
+			}
+		}
+	}
+
+	/**
+	 * {@link #primaryReads()} 的範圍，關閉時不會拋出例外。
+	 */
+	public interface PrimaryReads extends AutoCloseable {
+		@Override
+		void close();
+	}
+}
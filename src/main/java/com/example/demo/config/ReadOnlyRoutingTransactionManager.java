@@ -0,0 +1,37 @@
+package com.example.demo.config;
+
+import org.hibernate.CacheMode;
+import org.hibernate.SessionFactory;
+import org.springframework.orm.hibernate5.HibernateTransactionManager;
+import org.springframework.orm.hibernate5.SessionHolder;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * ReadOnlyRoutingTransactionManager 搭配唯讀副本使用的交易管理器
+ *
+ * <p>會連到副本的唯讀交易（見 {@link ReadOnlyRoutingDataSource}）將 Session 設為
+ * {@link CacheMode#GET}：仍可讀取二級快取與查詢快取，但從副本讀到的資料不寫入快取。
+ * 否則快取清除後若先由副本回填，尚未複寫的舊資料會在快取中保留到存活時間結束。</p>
+ *
+ * <p>讀寫交易與 {@link ReadOnlyRoutingDataSource#primaryReads()} 範圍內的唯讀交易讀取主庫，照常回填快取。</p>
+ */
+public class ReadOnlyRoutingTransactionManager extends HibernateTransactionManager {
+
+	private static final long serialVersionUID = 1L;
+
+	public ReadOnlyRoutingTransactionManager(SessionFactory sessionFactory) {
+		super(sessionFactory);
+	}
+
+	@Override
+	protected void doBegin(Object transaction, TransactionDefinition definition) {
+		// 交易外已綁定的 Session 會沿用到交易結束後，不修改其快取模式
+		boolean preBound = TransactionSynchronizationManager.hasResource(obtainSessionFactory());
+		super.doBegin(transaction, definition);
+		if (!preBound && definition.isReadOnly() && !ReadOnlyRoutingDataSource.isPrimaryReads()) {
+			SessionHolder holder = (SessionHolder) TransactionSynchronizationManager.getResource(obtainSessionFactory());
+			holder.getSession().setCacheMode(CacheMode.GET);
+		}
+	}
+}
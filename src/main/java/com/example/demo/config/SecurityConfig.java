@@ -1,27 +1,61 @@
 package com.example.demo.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.csrf.CsrfTokenRequestAttributeHandler;
+import org.springframework.web.servlet.handler.HandlerMappingIntrospector;
+
+import com.example.demo.security.BoundedPasswordEncoder;
+import com.example.demo.security.LoginAttemptThrottle;
+import com.example.demo.security.LoginThrottleFilter;
+import com.example.demo.security.PasswordEncoderFactory;
+import com.example.demo.security.PasswordHashingExecutor;
+import com.example.demo.security.ThrottledLoginHandler;
+
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+	@Autowired
+	private Environment env;
+
+	@Autowired
+	private PasswordHashingExecutor passwordHashingExecutor;
+
+	@Autowired
+	private LoginAttemptThrottle loginAttemptThrottle;
+
+	/**
+	 * 編碼器種類與 BCrypt 強度見 {@link PasswordEncoderFactory}；
+	 * 雜湊在密碼雜湊執行緒池中計算，見 {@link PasswordHashingExecutor}
+	 */
 	@Bean
 	public PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+		return new BoundedPasswordEncoder(PasswordEncoderFactory.create(env), passwordHashingExecutor);
+	}
+
+	/**
+	 * {@code requestMatchers(String...)} 依 Spring MVC 的路徑規則比對，需要此 bean；
+	 * Spring MVC 設定在 DispatcherServlet context，根 context 另外定義一個。
+	 */
+	@Bean(name = "mvcHandlerMappingIntrospector")
+	public HandlerMappingIntrospector mvcHandlerMappingIntrospector() {
+		return new HandlerMappingIntrospector();
 	}
 
 	@Bean
 	public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
 		 CsrfTokenRequestAttributeHandler csrfTokenRequestHandler = new CsrfTokenRequestAttributeHandler();
 	        csrfTokenRequestHandler.setCsrfRequestAttributeName("_csrf");
+		ThrottledLoginHandler loginHandler = new ThrottledLoginHandler(loginAttemptThrottle, "email", "/products");
 		http.authorizeHttpRequests(
 				auth -> auth
 						.requestMatchers("/login", "/register", "/resources/**", "/products/**", "/", "/password/**",
@@ -29,7 +63,9 @@ public class SecurityConfig {
 						.permitAll().requestMatchers("/admin/**")
 				        .hasRole("ADMIN").anyRequest().authenticated())
 				.formLogin(form -> form.loginPage("/login").usernameParameter("email").passwordParameter("password")
-						.defaultSuccessUrl("/products", false).permitAll())
+						.successHandler(loginHandler).failureHandler(loginHandler).permitAll())
+				.addFilterBefore(new LoginThrottleFilter(loginAttemptThrottle, "email"),
+						UsernamePasswordAuthenticationFilter.class)
 				.logout(logout -> logout.logoutUrl("/logout").logoutSuccessUrl("/products").permitAll())
 				.csrf(csrf -> csrf
 					    .ignoringRequestMatchers("/admin/product/add")
@@ -4,6 +4,9 @@ import javax.servlet.ServletContext;
 
 import org.springframework.security.web.context.AbstractSecurityWebApplicationInitializer;
 import org.springframework.web.filter.CharacterEncodingFilter;
+import org.springframework.web.filter.DelegatingFilterProxy;
+import org.springframework.web.servlet.FrameworkServlet;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
 
 public class SecurityWebApplicationInitializer extends AbstractSecurityWebApplicationInitializer {
 	@Override
@@ -11,6 +14,18 @@ public class SecurityWebApplicationInitializer extends AbstractSecurityWebApplic
         CharacterEncodingFilter encodingFilter = new CharacterEncodingFilter();
         encodingFilter.setEncoding("UTF-8");
         encodingFilter.setForceEncoding(true);
-        insertFilters(servletContext, encodingFilter);
+        // 模板中 @{/resources/...} 的網址改寫為帶內容雜湊的網址
+        insertFilters(servletContext, encodingFilter, new ResourceUrlEncodingFilter());
     }
+
+	/**
+	 * 未登入訪客的商品頁面快取，放在 Spring Security 之後才能判斷登入狀態。
+	 * 此過濾器屬於 Web 層，定義在 DispatcherServlet context。
+	 */
+	@Override
+	protected void afterSpringSecurityFilterChain(ServletContext servletContext) {
+		DelegatingFilterProxy pageCacheFilter = new DelegatingFilterProxy("catalogPageCacheFilter");
+		pageCacheFilter.setContextAttribute(FrameworkServlet.SERVLET_CONTEXT_PREFIX + "dispatcher");
+		appendFilters(servletContext, pageCacheFilter);
+	}
 }
@@ -1,33 +1,69 @@
 package com.example.demo.config;
 
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.ComponentScan.Filter;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.FilterType;
 import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.http.CacheControl;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.multipart.commons.CommonsMultipartResolver;
+import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.LocaleResolver;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.handler.SimpleUrlHandlerMapping;
 import org.springframework.web.servlet.i18n.CookieLocaleResolver;
 import org.springframework.web.servlet.i18n.LocaleChangeInterceptor;
+import org.springframework.web.servlet.resource.CachingResourceResolver;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
 import org.thymeleaf.spring5.SpringTemplateEngine;
 import org.thymeleaf.spring5.templateresolver.SpringResourceTemplateResolver;
 import org.thymeleaf.spring5.view.ThymeleafViewResolver;
 import org.thymeleaf.templatemode.TemplateMode;
 
+import com.example.demo.security.CustomerIdentityArgumentResolver;
+import com.example.demo.view.GzipResourceResolver;
+import com.example.demo.view.StaticResourceHandler;
+
 @Configuration
 @EnableWebMvc
 @EnableAspectJAutoProxy
-@ComponentScan(basePackages = "com.example.demo") 
+@ComponentScan(basePackages = { "com.example.demo.controller", "com.example.demo.view", "com.example.demo.aspect" })
+@ComponentScan(basePackages = "com.example.demo.config", useDefaultFilters = false,
+		includeFilters = @Filter(type = FilterType.ASSIGNABLE_TYPE, classes = HandlerInterceptor.class))
 public class WebMvcConfig implements WebMvcConfigurer {
 	@Autowired
     private CustomerInterceptor customerInterceptor;
+	@Autowired
+    private CustomerIdentityArgumentResolver customerIdentityArgumentResolver;
+	@Autowired
+	private Environment env;
+
+    /**
+     * 模板解析器。
+     *
+     * <p>{@code template.cache.enabled=true}（正式環境）時快取解析後的模板，
+     * 不再每次渲染都重新讀取並解析檔案；{@code template.cache.ttlMs} 大於 0 時快取項目逾時後重新載入。
+     * 開發時可關閉快取，或保留快取並開啟 {@code template.watch.enabled}，
+     * 由 {@link com.example.demo.view.TemplateReloadWatcher} 在檔案變更時清除。</p>
+     */
     @Bean
     public SpringResourceTemplateResolver templateResolver() {
         SpringResourceTemplateResolver templateResolver = new SpringResourceTemplateResolver();
@@ -35,7 +71,9 @@ public class WebMvcConfig implements WebMvcConfigurer {
         templateResolver.setSuffix(".html");
         templateResolver.setTemplateMode(TemplateMode.HTML);
         templateResolver.setCharacterEncoding("UTF-8");
-        templateResolver.setCacheable(false);
+        templateResolver.setCacheable(env.getProperty("template.cache.enabled", Boolean.class, true));
+        long ttlMs = env.getProperty("template.cache.ttlMs", Long.class, 0L);
+        templateResolver.setCacheTTLMs(ttlMs > 0 ? ttlMs : null);
         return templateResolver;
     }
 
@@ -55,12 +93,61 @@ public class WebMvcConfig implements WebMvcConfigurer {
         return viewResolver;
     }
     
-    @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/resources/**")
-                .addResourceLocations("/resources/");
-        registry.addResourceHandler("/uploads/**")
-        .addResourceLocations("file:/home/yiou/shop_uploads/images/products/");
+    /**
+     * 靜態檔案（{@code /resources/**}）。
+     *
+     * <p>網址加上內容雜湊（{@code style-<md5>.css}），模板中的 {@code @{/resources/...}}
+     * 經 {@link ResourceUrlEncodingFilter} 自動改寫成帶雜湊的網址，帶雜湊的網址快取
+     * {@code resources.cache.maxAgeDays} 天；未帶雜湊的舊網址每次重新驗證。
+     * CSS / JS 依 Accept-Encoding 提供 br / gzip（部署時放在檔案旁的 {@code .br}、{@code .gz} 優先，
+     * 沒有時於記憶體中壓縮一次），解析結果快取在記憶體中。</p>
+     */
+    @Bean
+    public StaticResourceHandler staticResourceHandler() {
+        StaticResourceHandler handler = new StaticResourceHandler();
+        handler.setLocationValues(List.of("/resources/"));
+        handler.setCacheControl(CacheControl.noCache());
+        handler.setVersionedCacheControl(longLivedCacheControl());
+        handler.setSendfileMinBytes(env.getProperty("resources.sendfile.minBytes", Long.class, 64 * 1024L));
+        handler.setResourceResolvers(List.of(
+                new CachingResourceResolver(new ConcurrentMapCache("staticResources")),
+                new GzipResourceResolver(),
+                new EncodedResourceResolver(),
+                new VersionResourceResolver().addContentVersionStrategy("/**"),
+                new PathResourceResolver()));
+        return handler;
+    }
+
+    /**
+     * 上傳的商品圖片（{@code /uploads/**}）。
+     *
+     * <p>檔名是內容的 SHA-256（見 {@link com.example.demo.image.ProductImageStore}），內容不會改變，直接長期快取。</p>
+     */
+    @Bean
+    public StaticResourceHandler uploadResourceHandler() {
+        StaticResourceHandler handler = new StaticResourceHandler();
+        String uploadDir = env.getProperty("upload.dir", "/home/yiou/shop_uploads/images/products/");
+        handler.setLocationValues(List.of("file:" + (uploadDir.endsWith("/") ? uploadDir : uploadDir + "/")));
+        handler.setCacheControl(longLivedCacheControl());
+        handler.setSendfileMinBytes(env.getProperty("resources.sendfile.minBytes", Long.class, 64 * 1024L));
+        return handler;
+    }
+
+    /**
+     * 靜態檔案的對應，順序與 {@code addResourceHandlers} 註冊的相同（在所有 Controller 之後）。
+     * {@link org.springframework.web.servlet.resource.ResourceUrlProvider} 會從這裡找到處理器來產生帶雜湊的網址。
+     */
+    @Bean
+    public SimpleUrlHandlerMapping staticResourceHandlerMapping() {
+        Map<String, Object> urlMap = new LinkedHashMap<>();
+        urlMap.put("/resources/**", staticResourceHandler());
+        urlMap.put("/uploads/**", uploadResourceHandler());
+        return new SimpleUrlHandlerMapping(urlMap, Ordered.LOWEST_PRECEDENCE - 1);
+    }
+
+    private CacheControl longLivedCacheControl() {
+        return CacheControl.maxAge(env.getProperty("resources.cache.maxAgeDays", Long.class, 365L), TimeUnit.DAYS)
+                .cachePublic();
     }
     // ------------------------------
     // 國際化 (i18n) 設定
@@ -93,7 +180,13 @@ public class WebMvcConfig implements WebMvcConfigurer {
         registry.addInterceptor(localeChangeInterceptor());
             
         registry.addInterceptor(customerInterceptor)
-        .addPathPatterns("/cart/**", "/order/**", "/user/**"); // 只有需要會員資料的功能
+        .addPathPatterns("/cart/**", "/orders/**", "/user/**"); // 只有需要會員資料的功能
+    }
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        // controller 方法可直接宣告 CustomerIdentity 參數取得目前登入顧客
+        resolvers.add(customerIdentityArgumentResolver);
     }
     @Bean
     public CommonsMultipartResolver multipartResolver() {
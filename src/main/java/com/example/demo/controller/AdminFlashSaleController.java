@@ -0,0 +1,67 @@
+package com.example.demo.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import com.example.demo.service.FlashSaleService;
+
+/**
+ * AdminFlashSaleController
+ * 管理員後台用於管理限時搶購商品的控制器。
+ *
+ * 功能：
+ *  - 顯示搶購中的商品與記憶體庫存統計（剩餘、售出、拒絕、租用次數）
+ *  - 啟用指定商品的搶購模式
+ *  - 關閉搶購模式並歸還記憶體中剩餘的庫存
+ */
+@Controller
+public class AdminFlashSaleController {
+	@Autowired
+	private FlashSaleService flashSaleService;
+
+	/**
+	 * 顯示搶購管理頁面。
+	 *
+	 * @param model 用於傳遞資料到前端
+	 * @return 返回模板 "admin-flash-sales"
+	 */
+	@GetMapping("/admin/flash-sales")
+	public String showFlashSales(Model model) {
+		model.addAttribute("sales", flashSaleService.getActiveFlashSales());
+		return "admin-flash-sales";
+	}
+
+	/**
+	 * 啟用商品的搶購模式。
+	 */
+	@PostMapping("/admin/flash-sales/start")
+	public String start(@RequestParam Long productId, RedirectAttributes redirectAttributes) {
+		try {
+			flashSaleService.startFlashSale(productId);
+			redirectAttributes.addFlashAttribute("message", "商品 " + productId + " 已啟用搶購模式");
+		} catch (RuntimeException e) {
+			redirectAttributes.addFlashAttribute("error", "無法啟用搶購模式：" + e.getMessage());
+		}
+		return "redirect:/admin/flash-sales";
+	}
+
+	/**
+	 * 關閉商品的搶購模式。
+	 */
+	@PostMapping("/admin/flash-sales/stop")
+	public String stop(@RequestParam Long productId, RedirectAttributes redirectAttributes) {
+		try {
+			int returned = flashSaleService.stopFlashSale(productId);
+			redirectAttributes.addFlashAttribute("message",
+					"商品 " + productId + " 已關閉搶購模式，歸還庫存 " + returned + " 件");
+		} catch (RuntimeException e) {
+			redirectAttributes.addFlashAttribute("error", "無法關閉搶購模式：" + e.getMessage());
+		}
+		return "redirect:/admin/flash-sales";
+	}
+}
@@ -0,0 +1,57 @@
+package com.example.demo.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+
+import com.example.demo.cache.CatalogCacheManager;
+import com.example.demo.metrics.AsyncLogMetrics;
+import com.example.demo.metrics.ConnectionPoolMetrics;
+import com.example.demo.security.LoginAttemptThrottle;
+import com.example.demo.security.PasswordHashingExecutor;
+
+/**
+ * AdminMetricsController
+ * 管理員後台用於檢視系統執行統計的控制器。
+ *
+ * 功能：
+ *  - 顯示資料庫連線池狀態（使用中、閒置、等待中）
+ *  - 顯示取得連線、使用連線、建立連線的耗時分布
+ *  - 顯示商品目錄二級快取各區域的命中率
+ *  - 顯示非同步記錄佇列的深度與丟棄次數
+ *  - 顯示密碼雜湊執行緒池的佇列深度、耗時與拒絕次數，以及登入失敗限制的統計
+ */
+@Controller
+public class AdminMetricsController {
+	@Autowired
+	private ConnectionPoolMetrics connectionPoolMetrics;
+
+	@Autowired
+	private CatalogCacheManager catalogCacheManager;
+
+	@Autowired
+	private AsyncLogMetrics asyncLogMetrics;
+
+	@Autowired
+	private PasswordHashingExecutor passwordHashingExecutor;
+
+	@Autowired
+	private LoginAttemptThrottle loginAttemptThrottle;
+
+	/**
+	 * 顯示系統統計頁面。
+	 *
+	 * @param model 用於傳遞統計資料到前端
+	 * @return 返回模板 "admin-metrics"
+	 */
+	@GetMapping("/admin/metrics")
+	public String showMetrics(Model model) {
+		model.addAttribute("pools", connectionPoolMetrics.getPools());
+		model.addAttribute("cacheRegions", catalogCacheManager.getRegionStatistics());
+		model.addAttribute("logAppenders", asyncLogMetrics.getAppenders());
+		model.addAttribute("hashing", passwordHashingExecutor);
+		model.addAttribute("loginThrottle", loginAttemptThrottle);
+		return "admin-metrics";
+	}
+}
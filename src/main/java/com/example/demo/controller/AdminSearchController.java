@@ -0,0 +1,70 @@
+package com.example.demo.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import com.example.demo.search.ProductSearchIndex;
+import com.example.demo.search.SearchBenchmark;
+import com.example.demo.service.ProductService;
+
+/**
+ * AdminSearchController
+ * 管理員後台用於管理商品搜尋索引的控制器。
+ *
+ * 功能：
+ *  - 顯示搜尋索引狀態（目錄、商品數、是否已建立）
+ *  - 重建搜尋索引
+ *  - 比較資料庫 LIKE 查詢與搜尋索引的耗時
+ */
+@Controller
+public class AdminSearchController {
+	/** 效能比較的執行次數上限 */
+	private static final int MAX_ITERATIONS = 1000;
+
+	@Autowired
+	private ProductSearchIndex productSearchIndex;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private SearchBenchmark searchBenchmark;
+
+	/**
+	 * 顯示搜尋索引管理頁面；帶有關鍵字時一併執行效能比較。
+	 *
+	 * @param keyword    比較用的關鍵字，可為 null
+	 * @param iterations 每種方式執行次數
+	 * @param model      用於傳遞資料到前端
+	 * @return 返回模板 "admin-search"
+	 */
+	@GetMapping("/admin/search")
+	public String showSearchIndex(@RequestParam(required = false) String keyword,
+			@RequestParam(defaultValue = "20") int iterations, Model model) {
+		model.addAttribute("index", productSearchIndex);
+		if (keyword != null && !keyword.isBlank()) {
+			int runs = Math.max(1, Math.min(iterations, MAX_ITERATIONS));
+			model.addAttribute("benchmark", searchBenchmark.run(keyword.trim(), runs));
+		}
+		return "admin-search";
+	}
+
+	/**
+	 * 重建搜尋索引。
+	 */
+	@PostMapping("/admin/search/rebuild")
+	public String rebuild(RedirectAttributes redirectAttributes) {
+		try {
+			int count = productService.rebuildSearchIndex();
+			redirectAttributes.addFlashAttribute("message", "搜尋索引重建完成，共 " + count + " 筆商品");
+		} catch (RuntimeException e) {
+			redirectAttributes.addFlashAttribute("error", "搜尋索引重建失敗：" + e.getMessage());
+		}
+		return "redirect:/admin/search";
+	}
+}
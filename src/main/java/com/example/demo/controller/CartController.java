@@ -1,14 +1,10 @@
 package com.example.demo.controller;
 
-import com.example.demo.model.Cart;
-import com.example.demo.model.Customer;
-import com.example.demo.model.User;
-import com.example.demo.security.CustomUserDetails;
+import com.example.demo.dto.CartSummary;
+import com.example.demo.dto.CustomerIdentity;
 import com.example.demo.service.CartService;
-import com.example.demo.service.CustomerService;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
@@ -28,37 +24,27 @@ public class CartController {
 
 	@Autowired
 	private CartService cartService;
-	@Autowired
-	private CustomerService customerSecvice;
 	
 	/**
      * 顯示目前使用者的購物車內容。
      * 若使用者未登入，則會導向登入頁面。
      *
-     * @param userDetails  用來取得目前登入的使用者資訊
+     * @param customer  目前登入的顧客
      * @param model    用來將購物車資料傳遞給前端頁面
      * @return         回傳到 cart.html 顯示購物車畫面
      */
 	@GetMapping
-	public String viewCart(@AuthenticationPrincipal CustomUserDetails userDetails, Model model) {
-		// 從 Session 取得目前登入的使用者	
-		
-		User user = (User) userDetails.getUser();
-		// 根據使用者 ID 查找對應的顧客資料
-		Customer customer = customerSecvice.getCustomerByUserId(user.getId());
+	public String viewCart(CustomerIdentity customer, Model model) {
 		if (customer == null) {
 			return "redirect:/login";
 		}
-		// 取得顧客的購物車
-		Cart cart = cartService.getCartByCustomerId(customer.getId());
-		if (cart == null) {
-			cart = new Cart();
-		}
+		// 以一次查詢取得購物車明細、是否為空與總金額
+		CartSummary cart = cartService.getCartSummary(customer.getId());
 		//判斷購物車內是否為空，若為空回傳false
-		model.addAttribute("isEmpty", cartService.isCartEmpty(customer.getId()));
+		model.addAttribute("isEmpty", cart.isEmpty());
 		model.addAttribute("cart", cart);
 		//取得購物車內總金額
-		model.addAttribute("total", cartService.getCartTotal(customer.getId()));
+		model.addAttribute("total", cart.getTotal());
 		return "cart";
 	}
 
@@ -68,16 +54,12 @@ public class CartController {
      *
      * @param productId 商品 ID
      * @param quantity  購買數量
-     * @param userDetails   用於取得登入的使用者
+     * @param customer   目前登入的顧客
      * @param redirectAttributes 用於給予錯誤訊息
      * @return	導回產品列表頁面
      */
 	@PostMapping("/add")
-	public String addToCart(@AuthenticationPrincipal CustomUserDetails userDetails,@RequestParam Long productId, @RequestParam int quantity, RedirectAttributes redirectAttributes) {
-		// 從 Session 取得目前登入的使用者
-		User user = (User) userDetails.getUser();
-		// 根據使用者 ID 查找對應的顧客資料
-		Customer customer = customerSecvice.getCustomerByUserId(user.getId());
+	public String addToCart(CustomerIdentity customer,@RequestParam Long productId, @RequestParam int quantity, RedirectAttributes redirectAttributes) {
 		//判斷購買數量是否符合庫存
 	    boolean success = cartService.checkStockBeforeAdd(productId, quantity);
 	    if (!success) {
@@ -94,18 +76,14 @@ public class CartController {
      *
      * @param productId 商品 ID
      * @param quantity  新數量
-     * @param userDetails   用於取得登入的使用者
+     * @param customer   目前登入的顧客
      * @param redirectAttributes 用於給予錯誤訊息
      * @return 導回購物車頁面
      */
 	// 更新商品數量
 	@PostMapping("/update")
-	public String updateQuantity(@AuthenticationPrincipal CustomUserDetails userDetails,@RequestParam("productId") Long productId, @RequestParam("quantity") int quantity,
+	public String updateQuantity(CustomerIdentity customer,@RequestParam("productId") Long productId, @RequestParam("quantity") int quantity,
 			RedirectAttributes redirectAttributes) {
-		// 從 Session 取得目前登入的使用者
-		User user = (User) userDetails.getUser();
-		// 根據使用者 ID 查找對應的顧客資料
-		Customer customer = customerSecvice.getCustomerByUserId(user.getId());
 		//判斷購買數量是否符合庫存
 		boolean success = cartService.checkStockBeforeAdd(productId, quantity);
 	    if (!success) {
@@ -121,15 +99,11 @@ public class CartController {
      * 若未登入則導向登入頁面。
      *
      * @param productId 商品 ID
-     * @param userDetails   用於取得登入的使用者
+     * @param customer   目前登入的顧客
      * @return 導回購物車頁面
      */
 	@PostMapping("/remove")
-	public String removeItem(@AuthenticationPrincipal CustomUserDetails userDetails,@RequestParam("productId") Long productId) {
-		// 從 Session 取得目前登入的使用者
-		User user = (User) userDetails.getUser();
-		// 根據使用者 ID 查找對應的顧客資料
-		Customer customer = customerSecvice.getCustomerByUserId(user.getId());
+	public String removeItem(CustomerIdentity customer,@RequestParam("productId") Long productId) {
 		cartService.removeItem(customer.getId(), productId);
 		return "redirect:/cart?userId=" + customer.getId();
 	}
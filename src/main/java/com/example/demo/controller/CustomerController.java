@@ -14,8 +14,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import com.example.demo.dto.UserCredentials;
 import com.example.demo.model.Customer;
-import com.example.demo.model.User;
 import com.example.demo.security.CustomUserDetails;
 import com.example.demo.service.CustomerService;
 /**
@@ -42,7 +42,7 @@ public class CustomerController {
 	 */
 	@GetMapping("/account/profile")
 	public String customerProfile(@AuthenticationPrincipal CustomUserDetails userDetails, Model model) {
-		User user = (User) userDetails.getUser();
+		UserCredentials user = userDetails.getUser();
 		Customer customer = customerService.getCustomerByUserId(user.getId());
 		model.addAttribute("customer", customer);
 		model.addAttribute("user", user);
@@ -71,7 +71,7 @@ public class CustomerController {
 	@PostMapping("/verify/password")
 	public String verifyPassword(@AuthenticationPrincipal CustomUserDetails userDetails,@RequestParam("password") String password,HttpSession session, 
 			RedirectAttributes redirectAttributes) {
-		User user = (User) userDetails.getUser();
+		UserCredentials user = userDetails.getUser();
 		if (user == null) {
 			return "redirect:/login";
 		}
@@ -110,7 +110,7 @@ public class CustomerController {
 	public String changePassword(@AuthenticationPrincipal CustomUserDetails userDetails,@RequestParam("password") String password, HttpSession session,
 			RedirectAttributes redirectAttributes) {
 
-		User user = (User) userDetails.getUser();
+		UserCredentials user = userDetails.getUser();
 		if (user == null) {
 			return "redirect:/login";
 		}
@@ -148,7 +148,7 @@ public class CustomerController {
 	@PostMapping("/update")
 	public String updateUser(@AuthenticationPrincipal CustomUserDetails userDetails,@ModelAttribute("customer") Customer customer, 
 			RedirectAttributes redirectAttributes,HttpServletRequest request) {
-		User user = (User) userDetails.getUser();
+		UserCredentials user = userDetails.getUser();
 		customerService.updateCustomerInfo(user.getId(), customer);
 		redirectAttributes.addFlashAttribute("message", "更新成功！");
 		return "redirect:/user/account/profile";
@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.RequestParam;
  * 功能包含：
  * -  顯示登入頁面
  * -  驗證登入錯誤訊息
+ * -  顯示登入失敗次數過多、系統忙碌訊息
  * -  顯示登出成功訊息
  * -  顯示密碼變更成功訊息
  *
@@ -23,16 +24,26 @@ public class LoginController {
      * @param error   當登入失敗時，Spring Security 會附帶 ?error 參數
      * @param logout  當使用者登出成功時，Spring Security 會附帶 ?logout 參數
      * @param changed 當使用者剛修改密碼時，可加上 ?changed 參數
+     * @param locked  登入失敗次數過多被暫時拒絕時附帶 ?locked 參數
+     * @param busy    密碼驗證忙碌時附帶 ?busy 參數
      * @param model   Spring MVC Model，用來傳資料到 view
      * @return 返回 login.html 
      */
 	@GetMapping("/login")
 	public String login(@RequestParam(value = "error", required = false) String error,
 			@RequestParam(value = "logout", required = false) String logout,
-			@RequestParam(value = "changed", required = false) String changed, Model model) {
+			@RequestParam(value = "changed", required = false) String changed,
+			@RequestParam(value = "locked", required = false) String locked,
+			@RequestParam(value = "busy", required = false) String busy, Model model) {
 		if (error != null) {
 			model.addAttribute("error", "帳號或密碼錯誤");
 		}
+		if (locked != null) {
+			model.addAttribute("error", "登入失敗次數過多，請稍後再試");
+		}
+		if (busy != null) {
+			model.addAttribute("error", "登入人數眾多，請稍後再試");
+		}
 		if (logout != null) {
 			model.addAttribute("message", "您已成功登出");
 		}
@@ -1,14 +1,11 @@
 package com.example.demo.controller;
 
 import com.example.demo.model.Order;
-import com.example.demo.model.User;
-import com.example.demo.security.CustomUserDetails;
-import com.example.demo.model.Customer;
-import com.example.demo.service.CustomerService;
+import com.example.demo.dto.CustomerIdentity;
+import com.example.demo.dto.OrderPage;
 import com.example.demo.service.OrderService;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
@@ -38,28 +35,25 @@ public class OrderController {
     @Autowired
     private OrderService orderService;
     
-    /** 注入 CustomerService，用於取得顧客資訊 */
-    @Autowired
-    private CustomerService customerService;
-    
     /**
-     * 顯示顧客所有訂單
+     * 顯示顧客的訂單（由新到舊，以游標分頁）
      * 若使用者為登入導回登入畫面
      *
-     * @param userDetails	用於取得已登入使用者
+     * @param customer	目前登入的顧客
+     * @param cursor 上一頁回傳的游標，第一頁不需提供
      * @param model Spring MVC Model，用於傳遞資料到模板
      * @return 返回訂單頁面
      */
     @GetMapping
-    public String viewOrders(@AuthenticationPrincipal CustomUserDetails userDetails, Model model) {
-    	User user=(User) userDetails.getUser();
-        Customer customer = customerService.getCustomerByUserId(user.getId());
-        List<Order> orders = orderService.getOrderByCustomerId(customer.getId());
-        if (orders.isEmpty()) {
+    public String viewOrders(CustomerIdentity customer, @RequestParam(required = false) String cursor, Model model) {
+        int pageSize = 10; // 每頁幾筆
+        OrderPage orderPage = orderService.getOrderHistory(customer.getId(), cursor, pageSize);
+        if (orderPage.getOrders().isEmpty() && !orderPage.isHasPrevious()) {
             model.addAttribute("message", "尚未成立訂單");
         } else {
-            model.addAttribute("orders", orders);
+            model.addAttribute("orders", orderPage.getOrders());
         }
+        model.addAttribute("orderPage", orderPage);
         return "order-list";
     }
 
@@ -68,14 +62,12 @@ public class OrderController {
      * 建立訂單時確認商品庫存並
      *
      * @param selectedProductIds 用於取得以選取商品ID
-     * @param userDetails	用於取得已登入使用者
+     * @param customer	目前登入的顧客
      * @param model Spring MVC Model，用於傳遞資料到模板
      * @return 返回成功頁面
      */
     @PostMapping("/create")
-    public String createOrder(@AuthenticationPrincipal CustomUserDetails userDetails,@RequestParam(value="selectedProducts", required=false) List<Long> selectedProductIds,HttpSession session, Model model,RedirectAttributes redirectAttributes) {
-    	User user = (User) userDetails.getUser();
-        Customer customer = customerService.getCustomerByUserId(user.getId());
+    public String createOrder(CustomerIdentity customer,@RequestParam(value="selectedProducts", required=false) List<Long> selectedProductIds,HttpSession session, Model model,RedirectAttributes redirectAttributes) {
 
         // 如果沒有選擇任何商品
         if (selectedProductIds == null || selectedProductIds.isEmpty()) {
@@ -99,14 +91,12 @@ public class OrderController {
      *
      *
      * @param id 訂單 ID
-     * @param userDetails	用於取得已登入使用者
+     * @param customer	目前登入的顧客
      * @param model Spring MVC Model，用於傳遞資料到模板
      * @return 返回訂單詳情頁面 "order-detail"，或訂單不屬於該客戶時導向 "/orders"
      */
     @GetMapping("/{id}")
-    public String viewOrderDetail(@AuthenticationPrincipal CustomUserDetails userDetails,@PathVariable("id") Long id, HttpSession session, Model model) {
-    	User user = (User) userDetails.getUser();
-        Customer customer = customerService.getCustomerByUserId(user.getId());
+    public String viewOrderDetail(CustomerIdentity customer,@PathVariable("id") Long id, HttpSession session, Model model) {
         Order order = orderService.getOrderById(id);
         if (order == null || !order.getCustomer().getId().equals(customer.getId())) {
             return "redirect:/orders";
@@ -118,14 +108,12 @@ public class OrderController {
     /**
      * 對訂單進行付款
      * @param id 訂單 ID
-     * @param userDetails	用於取得已登入使用者
+     * @param customer	目前登入的顧客
      * @param model Spring MVC Model，用於傳遞資料到模板
      * @return 訂單成立後返回訂單列表
      */
     @PostMapping("/{id}/pay")
-    public String payOrder(@AuthenticationPrincipal CustomUserDetails userDetails,@PathVariable("id") Long id, HttpSession session, Model model) {
-        User user = (User) userDetails.getUser();
-        Customer customer = customerService.getCustomerByUserId(user.getId());
+    public String payOrder(CustomerIdentity customer,@PathVariable("id") Long id, HttpSession session, Model model,RedirectAttributes redirectAttributes) {
         Order order = orderService.getOrderById(id);
 
         if (order == null || !order.getCustomer().getId().equals(customer.getId())) {
@@ -133,7 +121,12 @@ public class OrderController {
         }
 
         // 模擬付款成功
-        orderService.payOrder(order.getId());
+        try {
+            orderService.payOrder(order.getId());
+        } catch (RuntimeException e) {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+            return "redirect:/orders/" + id; // 訂單狀態已變更，回到訂單詳情顯示錯誤
+        }
 
         model.addAttribute("order", order);
         model.addAttribute("message", "付款成功！");
@@ -142,21 +135,24 @@ public class OrderController {
     /**
      * 對訂單進行取消
      * @param id 訂單 ID
-     * @param userDetails	用於取得已登入使用者
+     * @param customer	目前登入的顧客
      * @param model Spring MVC Model，用於傳遞資料到模板
      * @return 訂單取消後返回訂單列表
      */
     @PostMapping("/{id}/cancel")
-    public String cancelOrder(@AuthenticationPrincipal CustomUserDetails userDetails,@PathVariable("id") Long id, HttpSession session, Model model) {
-        User user = (User) userDetails.getUser();
-        Customer customer = customerService.getCustomerByUserId(user.getId());
+    public String cancelOrder(CustomerIdentity customer,@PathVariable("id") Long id, HttpSession session, Model model,RedirectAttributes redirectAttributes) {
         Order order = orderService.getOrderById(id);
         
         if (order == null || !order.getCustomer().getId().equals(customer.getId())) {
             return "redirect:/orders";
         }
         
-        orderService.cancelOrder(order.getId());
+        try {
+            orderService.cancelOrder(order.getId());
+        } catch (RuntimeException e) {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
+            return "redirect:/orders/" + id;
+        }
         model.addAttribute("message", "訂單已取消");
         return "redirect:/orders";
     }
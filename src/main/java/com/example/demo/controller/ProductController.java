@@ -1,13 +1,14 @@
 package com.example.demo.controller;
 
-import com.example.demo.model.Category;
-import com.example.demo.model.Customer;
+import com.example.demo.dto.CustomerIdentity;
+import com.example.demo.dto.ProductCursor;
+import com.example.demo.dto.ProductPage;
+import com.example.demo.dto.UserCredentials;
 import com.example.demo.model.Product;
-import com.example.demo.model.User;
 import com.example.demo.security.CustomUserDetails;
 import com.example.demo.service.CategoryService;
-import com.example.demo.service.CustomerService;
 import com.example.demo.service.ProductService;
+import com.example.demo.view.FragmentCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
@@ -17,7 +18,8 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
 
 /**
@@ -34,52 +36,57 @@ public class ProductController {
 	@Autowired
 	private CategoryService categoryService;
 	@Autowired
-	private CustomerService customerService;
+	private FragmentCache fragmentCache;
 
 	/**
 	 * 顯示商品列表
 	 *
-	 * 當使用者訪問 /products 時，會顯示商品列表頁面， 每頁顯示固定數量(目前設定為12)的商品，並計算總頁數。
+	 * 當使用者訪問 /products 時，會顯示商品列表頁面， 每頁顯示固定數量(目前設定為12)的商品。
+	 * 以游標（keyset）分頁，換頁時只查詢本頁資料；商品總數由快取提供。
 	 *
 	 * @param userDetails	用來取得目前使用者資訊
-	 * @param page       目前頁碼，預設為 1
+	 * @param customer	目前登入的顧客；未登入時為 null
+	 * @param cursor     分頁游標，由上一頁的「上一頁／下一頁」連結帶入；未提供時為第一頁
+	 * @param sort       排序方式（ID、PRICE_ASC、PRICE_DESC、RELEVANCE），有關鍵字時預設依相關度，否則依上架順序
 	 * @param categoryId 目前選取分類
 	 * @param keyword	 目前使用者輸入查詢條件
 	 * @param model      用於傳遞資料到前端
 	 * @return 返回商品列表 "product-list" 
 	 */
 	@GetMapping
-	public String listProducts(@AuthenticationPrincipal CustomUserDetails userDetails,
-			@RequestParam(defaultValue = "1") int page, @RequestParam(required = false) Long categoryId,@RequestParam(value = "keyword", required = false) String keyword,
+	public String listProducts(@AuthenticationPrincipal CustomUserDetails userDetails, CustomerIdentity customer,
+			@RequestParam(required = false) String cursor, @RequestParam(required = false) String sort,
+			@RequestParam(required = false) Long categoryId,@RequestParam(value = "keyword", required = false) String keyword,
 			 Model model) {
 		int pageSize = 12; // 每頁幾筆
-		List<Product> products = productService.searchProductsByNameAndCategoryWithPage(keyword, categoryId, page, pageSize);
-		int totalProducts = productService.countProductsByNameAndCategory(keyword, categoryId);
-		
-		int totalPages = (int) Math.ceil((double) totalProducts / pageSize);
-		if (totalPages == 0) {
-			totalPages = 1;
+		ProductCursor.Sort productSort = ProductCursor.Sort.parse(sort);
+		if (sort == null && keyword != null && !keyword.isBlank()) {
+			productSort = ProductCursor.Sort.RELEVANCE;
 		}
-		
+		ProductPage productPage = productService.searchProductsByCursor(keyword, categoryId, productSort, cursor, pageSize);
 
-		
 		if (userDetails != null) {
-			User user = userDetails.getUser();
-			Customer customer = null;
+			UserCredentials user = userDetails.getUser();
 			if (user != null) {
-				// 若使用者已登入，才嘗試查詢 customer
-				customer = customerService.getCustomerByUserId(user.getId());
+				// 已登入時 customer 由 CustomerIdentityArgumentResolver 注入（可能來自快取）
 				model.addAttribute("customer", customer);
 				model.addAttribute("role",user.getRole());
 			}
 		}
-		// 用三層分類結構
-		List<Category> categoryTree = categoryService.getThreeLevelCategories();
-		
-		model.addAttribute("products", products);
-		model.addAttribute("currentPage", page);
-		model.addAttribute("totalPages", totalPages);
-		model.addAttribute("categoryTree", categoryTree);
+		// 分類選單只在分類樹異動後重新渲染
+		String categoryOptions = fragmentCache.render("fragments/category-options", "options",
+				categoryService.getCategoryTreeVersion() + "|" + categoryId, () -> {
+					Map<String, Object> variables = new HashMap<>();
+					variables.put("categoryTree", categoryService.getThreeLevelCategories());
+					variables.put("selectedCategoryId", categoryId);
+					return variables;
+				});
+
+		model.addAttribute("loggedIn", userDetails != null);
+		model.addAttribute("products", productPage.getItems());
+		model.addAttribute("productPage", productPage);
+		model.addAttribute("sort", productPage.getSort().name());
+		model.addAttribute("categoryOptions", categoryOptions);
 		model.addAttribute("selectedCategoryId", categoryId);
 		model.addAttribute("keyword", keyword); // 必須加，讓搜尋欄能顯示 keyword
 		return "product-list";
@@ -90,14 +97,17 @@ public class ProductController {
 	 *
 	 * 當使用者訪問 /products/{id} 時，顯示該商品的詳細頁面。
 	 *
+	 * @param userDetails 目前登入的使用者；未登入時為 null
 	 * @param id    商品 ID
 	 * @param model 用於傳遞商品資料到前端
 	 * @return 返回商品詳細頁面
 	 */
 	@GetMapping("/{id}")
-	public String viewProductDetail(@PathVariable Long id, Model model) {
+	public String viewProductDetail(@AuthenticationPrincipal CustomUserDetails userDetails, @PathVariable Long id,
+			Model model) {
 		Product product = productService.getProductById(id);
 		model.addAttribute("product", product);
+		model.addAttribute("loggedIn", userDetails != null);
 		return "product-detail";
 	}
 }
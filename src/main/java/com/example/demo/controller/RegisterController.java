@@ -2,6 +2,7 @@ package com.example.demo.controller;
 
 import com.example.demo.dto.RegisterDTO;
 import com.example.demo.service.CustomerService;
+import com.example.demo.security.PasswordHashingRejectedException;
 
 import javax.validation.Valid;
 
@@ -69,7 +70,7 @@ public class RegisterController {
                 form.getAddress()
             );
             return "redirect:/login";
-        } catch (IllegalArgumentException e) {
+        } catch (IllegalArgumentException | PasswordHashingRejectedException e) {
             model.addAttribute("error", e.getMessage());
             return "register";
         }
@@ -1,7 +1,10 @@
 package com.example.demo.dao;
 
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
+import com.example.demo.dto.CartLine;
 import com.example.demo.model.Cart;
 /**
  * CartDAO 介面
@@ -11,7 +14,8 @@ import com.example.demo.model.Cart;
  * <p>主要功能包含：</p>
  * <ul>
  *   <li>基本的購物車 CRUD 操作（建立、查詢、更新、刪除）</li>
- *   <li>根據顧客 ID 查詢購物車內容</li>
+ *   <li>根據顧客 ID 查詢購物車內容（可一併載入明細與商品）</li>
+ *   <li>根據顧客 ID 查詢購物車頁面所需的明細欄位與總金額</li>
  *   <li>刪除整個購物車</li>
  *   <li>刪除購物車中特定商品</li>
  * </ul>
@@ -19,6 +23,12 @@ import com.example.demo.model.Cart;
  */
 public interface CartDAO extends BaseDAO<Cart> {
 	Optional<Cart> findByCustomerId(Long custId);
+
+	Optional<Cart> findByCustomerIdWithItems(Long customerId);
+
+	List<CartLine> findLinesByCustomerId(Long customerId);
+
+	Optional<BigDecimal> findTotalByCustomerId(Long customerId);
   
     void deleteByCartIdAndProductId(Long cartId, Long productId);
 }
@@ -1,5 +1,6 @@
 package com.example.demo.dao;
 
+import com.example.demo.dto.CustomerIdentity;
 import com.example.demo.model.Customer;
 /**
  * CustomerDAO 介面
@@ -10,9 +11,12 @@ import com.example.demo.model.Customer;
  * <ul>
  *   <li>基本的顧客 CRUD 操作（建立、查詢、更新、刪除）</li>
  *   <li>根據使用者 ID 查詢對應顧客資料</li>
+ *   <li>根據使用者 ID 查詢顧客識別資料（僅 ID 與姓名）</li>
  * </ul>
  */
 public interface CustomerDAO extends BaseDAO<Customer> {
     Customer findByUserId(Long userId);
 
+    CustomerIdentity findIdentityByUserId(Long userId);
+
 }
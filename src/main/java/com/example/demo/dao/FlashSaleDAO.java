@@ -0,0 +1,23 @@
+package com.example.demo.dao;
+
+import java.util.List;
+
+import com.example.demo.model.FlashSale;
+
+/**
+ * FlashSaleDAO 介面
+ *
+ * <p>此介面繼承 {@link BaseDAO}，負責定義限時搶購設定（{@link FlashSale}）的資料存取操作。</p>
+ *
+ * <p>主要功能包含：</p>
+ * <ul>
+ *   <li>查詢啟用中的搶購商品</li>
+ *   <li>以原子遞增調整移入記憶體的庫存總數</li>
+ * </ul>
+ */
+public interface FlashSaleDAO extends BaseDAO<FlashSale> {
+
+	List<FlashSale> findActive();
+
+	void addAllocated(Long productId, int delta);
+}
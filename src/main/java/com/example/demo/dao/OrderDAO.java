@@ -1,6 +1,8 @@
 package com.example.demo.dao;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import com.example.demo.model.Order;
 /**
@@ -12,6 +14,10 @@ import com.example.demo.model.Order;
  * <ul>
  *   <li>基本的訂單 CRUD 操作（建立、查詢、更新、刪除）</li>
  *   <li>根據顧客 ID 查詢該顧客的所有訂單紀錄</li>
+ *   <li>查詢單筆訂單並一併載入明細與商品</li>
+ *   <li>以條件式更新變更訂單狀態</li>
+ *   <li>統計訂單中各商品的數量</li>
+ *   <li>統計指定時間後商品被下單的總數</li>
  * </ul>
  *
  * <p>此介面通常由 {@code OrderService} 呼叫，用於：
@@ -24,5 +30,12 @@ import com.example.demo.model.Order;
  */
 public interface OrderDAO extends BaseDAO<Order> {
 	List<Order> findByCustomerId(Long customerId);
-	
+
+	Order findByIdWithItems(Long orderId);
+
+	boolean updateStatus(Long orderId, String expectedStatus, String newStatus);
+
+	Map<Long, Integer> findProductQuantities(Long orderId);
+
+	long sumQuantitySince(Long productId, LocalDateTime since);
 }
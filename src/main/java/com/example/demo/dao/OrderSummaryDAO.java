@@ -0,0 +1,25 @@
+package com.example.demo.dao;
+
+import java.util.List;
+
+import com.example.demo.dto.OrderCursor;
+import com.example.demo.model.OrderSummary;
+
+/**
+ * OrderSummaryDAO 介面
+ *
+ * <p>訂單摘要（{@link OrderSummary}）的資料存取：</p>
+ * <ul>
+ *   <li>以游標分頁查詢顧客的訂單摘要</li>
+ *   <li>訂單狀態變更後同步摘要的狀態</li>
+ *   <li>補齊尚未建立摘要的既有訂單</li>
+ * </ul>
+ */
+public interface OrderSummaryDAO extends BaseDAO<OrderSummary> {
+
+	List<OrderSummary> findPageByCustomerId(Long customerId, OrderCursor cursor, int limit);
+
+	boolean syncStatus(Long orderId);
+
+	int backfillMissing();
+}
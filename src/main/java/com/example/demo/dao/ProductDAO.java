@@ -1,8 +1,13 @@
 package com.example.demo.dao;
 
+import com.example.demo.dto.ProductCursor;
+import com.example.demo.dto.ProductSummary;
+import com.example.demo.dto.StockLevel;
 import com.example.demo.model.Product;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * ProductDAO 介面
@@ -18,7 +23,12 @@ import java.util.List;
  * <li>商品的分頁查詢</li>
  * <li>依分類 ID 查詢與計算商品數量</li>
  * <li>依商品名稱關鍵字搜尋與統計</li>
- * <li>扣減商品庫存數量</li>
+ * <li>以游標（keyset）分頁查詢商品</li>
+ * <li>依 ID 清單批次查詢商品</li>
+ * <li>商品列表的投影查詢（只讀取列表欄位）</li>
+ * <li>扣減商品庫存數量（單筆或批次）</li>
+ * <li>歸還商品庫存數量、依版本號更新庫存</li>
+ * <li>標記商品圖片的縮圖已產生</li>
  * </ul>
  *
  */
@@ -26,8 +36,28 @@ public interface ProductDAO extends BaseDAO<Product> {
 
 	boolean reduceStock(Long productId, int quantity);
 
-	List<Product> searchProductsByNameAndCategoryWithPage(String keyword, List<Long> categoryIds, int page,
+	Map<Long, Boolean> reduceStockBatch(Map<Long, Integer> quantities);
+
+	void addStockBatch(Map<Long, Integer> quantities);
+
+	Optional<StockLevel> findStockLevel(Long productId);
+
+	boolean updateStockIfVersion(Long productId, long expectedVersion, int delta);
+
+	List<ProductSummary> searchProductsByNameAndCategoryWithPage(String keyword, List<Long> categoryIds, int page,
 			int pageSize);
 
 	int countProductsByNameAndCategory(String keyword, List<Long> categoryIds);
+
+	List<Product> searchProductsByCursor(String keyword, List<Long> categoryIds, ProductCursor.Sort sort,
+			ProductCursor cursor, int limit);
+
+	List<ProductSummary> searchSummariesByCursor(String keyword, List<Long> categoryIds, ProductCursor.Sort sort,
+			ProductCursor cursor, int limit);
+
+	List<Product> findByIds(List<Long> ids);
+
+	List<ProductSummary> findSummariesByIds(List<Long> ids);
+
+	int markImageVariantsReady(String imageUrl);
 }
@@ -1,5 +1,6 @@
 package com.example.demo.dao;
 
+import com.example.demo.dto.UserCredentials;
 import com.example.demo.model.User;
 
 /**
@@ -11,9 +12,15 @@ import com.example.demo.model.User;
  * <ul>
  *   <li>基本的使用者 CRUD 操作（建立、讀取、更新、刪除）</li>
  *   <li>依電子郵件（Email）查詢使用者資料</li>
+ *   <li>依電子郵件查詢登入驗證所需的欄位</li>
+ *   <li>登入時將舊的密碼雜湊換成新的雜湊</li>
  * </ul>
  *
  */
 public interface UserDAO extends BaseDAO<User> {
     User findByEmail(String email);
-}
\ No newline at end of file
+
+    UserCredentials findCredentialsByEmail(String email);
+
+    int updatePasswordHash(String email, String expectedHash, String newHash);
+}
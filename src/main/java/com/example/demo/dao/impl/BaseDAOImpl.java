@@ -9,6 +9,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.lang.reflect.ParameterizedType;
 import java.util.List;
 
+import javax.persistence.Cacheable;
+
 /**
  * BaseDAOImpl 抽象類別
  *
@@ -36,6 +38,11 @@ public abstract class BaseDAOImpl<T> implements BaseDAO<T> {
      */
     private final Class<T> entityClass;
 
+    /**
+     * 實體是否啟用二級快取（標註 {@link Cacheable}），決定 findAll 是否使用查詢快取。
+     */
+    private final boolean cacheable;
+
     /**
      * 建構子，取得泛型實體類別的 Class 物件。
      * <p>透過反射機制自動推斷泛型型別 T。</p>
@@ -45,6 +52,7 @@ public abstract class BaseDAOImpl<T> implements BaseDAO<T> {
         this.entityClass = (Class<T>) ((ParameterizedType) getClass()
                 .getGenericSuperclass())
                 .getActualTypeArguments()[0];
+        this.cacheable = entityClass.isAnnotationPresent(Cacheable.class);
     }
 
     /**
@@ -59,12 +67,15 @@ public abstract class BaseDAOImpl<T> implements BaseDAO<T> {
     /**
      * 查詢所有實體資料。
      *
+     * <p>若實體啟用二級快取，查詢結果同時存入查詢快取。</p>
+     *
      * @return 所有 T 實體的清單；若無資料則回傳空集合
      */
     @Override
     public List<T> findAll() {
         return getCurrentSession()
                 .createQuery("FROM " + entityClass.getSimpleName(), entityClass)
+                .setCacheable(cacheable)
                 .list();
     }
 
@@ -1,5 +1,7 @@
 package com.example.demo.dao.impl;
 
+import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 import org.hibernate.Session;
@@ -8,6 +10,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
 
 import com.example.demo.dao.CartDAO;
+import com.example.demo.dto.CartLine;
 import com.example.demo.model.Cart;
 
 /**
@@ -18,7 +21,8 @@ import com.example.demo.model.Cart;
  *
  * <p>主要功能：</p>
  * <ul>
- *   <li>根據顧客 ID 查詢購物車</li>
+ *   <li>根據顧客 ID 查詢購物車（可一併載入明細與商品）</li>
+ *   <li>根據顧客 ID 查詢購物車頁面明細與總金額</li>
  *   <li>儲存或更新購物車</li>
  *   <li>刪除整個購物車</li>
  *   <li>根據購物車 ID 與商品 ID 刪除特定商品</li>
@@ -46,7 +50,7 @@ public class CartDAOImpl extends BaseDAOImpl<Cart> implements CartDAO {
                     .createQuery("FROM Cart c WHERE c.customer.id = :customerId", Cart.class)
                     .setParameter("customerId", customerId)
                     .uniqueResult();
-            logger.info("查詢顧客 ID {} 的購物車", customerId);
+            logger.debug("查詢顧客 ID {} 的購物車", customerId);
             return Optional.ofNullable(cart);
         } catch (Exception e) {
             logger.error("查詢顧客 ID {} 的購物車時發生錯誤: {}", customerId, e.getMessage(), e);
@@ -54,6 +58,65 @@ public class CartDAOImpl extends BaseDAOImpl<Cart> implements CartDAO {
         }
     }
 
+    /**
+     * 根據顧客 ID 查詢購物車，並以同一個查詢載入購物車明細、商品與商品分類。
+     *
+     * <p>用於建立訂單等需要走訪所有明細的流程，避免逐筆載入商品。</p>
+     *
+     * @param customerId 顧客唯一識別碼
+     * @return {@link Optional} 包含購物車物件；若找不到則回傳 {@link Optional#empty()}
+     */
+    @Override
+    public Optional<Cart> findByCustomerIdWithItems(Long customerId) {
+        Cart cart = getCurrentSession()
+                .createQuery("SELECT DISTINCT c FROM Cart c " +
+                             "JOIN FETCH c.customer " +
+                             "LEFT JOIN FETCH c.items i " +
+                             "LEFT JOIN FETCH i.product p " +
+                             "LEFT JOIN FETCH p.category " +
+                             "WHERE c.customer.id = :customerId", Cart.class)
+                .setParameter("customerId", customerId)
+                .setHint("hibernate.query.passDistinctThrough", false)
+                .uniqueResult();
+        return Optional.ofNullable(cart);
+    }
+
+    /**
+     * 根據顧客 ID 查詢購物車頁面所需的明細欄位。
+     *
+     * <p>以單一查詢結合購物車明細與商品，只選取頁面顯示的欄位，
+     * 不建立 {@link Cart}、購物車明細與商品實體。顧客沒有購物車時回傳空清單。</p>
+     *
+     * @param customerId 顧客唯一識別碼
+     * @return 依加入順序排列的明細
+     */
+    @Override
+    public List<CartLine> findLinesByCustomerId(Long customerId) {
+        return getCurrentSession()
+                .createQuery("SELECT new com.example.demo.dto.CartLine(p.id, p.name, p.imageUrl, p.imageVariants, p.stock, " +
+                             "i.price, i.quantity, i.subtotal) " +
+                             "FROM CartItem i JOIN i.product p " +
+                             "WHERE i.cart.customer.id = :customerId " +
+                             "ORDER BY i.id", CartLine.class)
+                .setParameter("customerId", customerId)
+                .getResultList();
+    }
+
+    /**
+     * 根據顧客 ID 查詢購物車維護的總金額，不載入明細。
+     *
+     * @param customerId 顧客唯一識別碼
+     * @return 總金額；沒有購物車或總金額尚未計算（舊資料）時回傳 {@link Optional#empty()}
+     */
+    @Override
+    public Optional<BigDecimal> findTotalByCustomerId(Long customerId) {
+        BigDecimal total = getCurrentSession()
+                .createQuery("SELECT c.total FROM Cart c WHERE c.customer.id = :customerId", BigDecimal.class)
+                .setParameter("customerId", customerId)
+                .uniqueResult();
+        return Optional.ofNullable(total);
+    }
+
     /**
      * 根據購物車 ID 與商品 ID 刪除購物車中的特定商品。
      *
@@ -73,7 +136,7 @@ public class CartDAOImpl extends BaseDAOImpl<Cart> implements CartDAO {
                     .setParameter("cartId", cartId)
                     .setParameter("productId", productId)
                     .executeUpdate();
-            logger.info("刪除購物車 {} 中商品 {}，共刪除 {} 筆", cartId, productId, deletedCount);
+            logger.debug("刪除購物車 {} 中商品 {}，共刪除 {} 筆", cartId, productId, deletedCount);
         } catch (Exception e) {
             logger.error("刪除購物車 {} 中商品 {} 時發生錯誤: {}", cartId, productId, e.getMessage(), e);
             throw new RuntimeException("刪除購物車商品失敗", e);
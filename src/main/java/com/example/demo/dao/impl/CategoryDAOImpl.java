@@ -24,11 +24,14 @@ import com.example.demo.model.Category;
 @Repository
 public class CategoryDAOImpl extends BaseDAOImpl<Category> implements CategoryDAO {
 
+    /** 分類查詢使用的查詢快取區域 */
+    public static final String QUERY_CACHE_REGION = "category-queries";
+
     /**
      * 根據父分類 ID 查詢子分類。
      *
      * <p>若 parentId 為 null，則查詢所有大分類（parent IS NULL）。
-     * 否則查詢指定父分類下的子分類。</p>
+     * 否則查詢指定父分類下的子分類。查詢結果存入查詢快取。</p>
      *
      * @param parentId 父分類 ID；若為 {@code null} 則查大分類
      * @return 子分類清單；若無對應分類則回傳空集合
@@ -41,6 +44,8 @@ public class CategoryDAOImpl extends BaseDAOImpl<Category> implements CategoryDA
             hql = "FROM Category c WHERE c.parent IS NULL";
             return getCurrentSession()
                     .createQuery(hql, Category.class)
+                    .setCacheable(true)
+                    .setCacheRegion(QUERY_CACHE_REGION)
                     .list();
         } else {
             // 查子分類
@@ -48,6 +53,8 @@ public class CategoryDAOImpl extends BaseDAOImpl<Category> implements CategoryDA
             return getCurrentSession()
                     .createQuery(hql, Category.class)
                     .setParameter("parentId", parentId)
+                    .setCacheable(true)
+                    .setCacheRegion(QUERY_CACHE_REGION)
                     .list();
         }
     }
@@ -65,6 +72,8 @@ public class CategoryDAOImpl extends BaseDAOImpl<Category> implements CategoryDA
                     ")",
                     Category.class
                 )
+                .setCacheable(true)
+                .setCacheRegion(QUERY_CACHE_REGION)
                 .list();
     }
 
@@ -5,6 +5,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
 
 import com.example.demo.dao.CustomerDAO;
+import com.example.demo.dto.CustomerIdentity;
 import com.example.demo.model.Customer;
 
 /**
@@ -18,6 +19,7 @@ import com.example.demo.model.Customer;
  *   <li>儲存或更新顧客資料</li>
  *   <li>依 ID 查詢顧客</li>
  *   <li>依使用者 ID 查詢對應的顧客</li>
+ *   <li>依使用者 ID 查詢顧客識別資料</li>
  * </ul>
  *
  */
@@ -47,4 +49,24 @@ public class CustomerDAOImpl extends BaseDAOImpl<Customer> implements CustomerDA
 		}
 	}
 
+	/**
+	 * 根據使用者 ID 查詢顧客識別資料。
+	 *
+	 * <p>只選取顧客 ID 與姓名，不載入完整實體與其關聯。</p>
+	 *
+	 * <p>查詢失敗時直接拋出例外，不以 {@code null} 表示，
+	 * 避免呼叫端（{@link com.example.demo.security.CustomerIdentityCache}）把暫時的錯誤當成查無顧客快取起來。</p>
+	 *
+	 * @param userId 使用者的唯一識別碼
+	 * @return {@link CustomerIdentity}；若找不到則回傳 {@code null}
+	 */
+	@Override
+	public CustomerIdentity findIdentityByUserId(Long userId) {
+		return getCurrentSession()
+				.createQuery("SELECT new com.example.demo.dto.CustomerIdentity(c.id, c.user.id, c.name) "
+						+ "FROM Customer c WHERE c.user.id = :userId", CustomerIdentity.class)
+				.setParameter("userId", userId)
+				.uniqueResult();
+	}
+
 }
@@ -0,0 +1,48 @@
+package com.example.demo.dao.impl;
+
+import java.util.List;
+
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.dao.FlashSaleDAO;
+import com.example.demo.model.FlashSale;
+
+/**
+ * FlashSaleDAO 的實作類別
+ *
+ * <p>此類別繼承 {@link BaseDAOImpl} 並實作 {@link FlashSaleDAO}，
+ * 負責限時搶購設定（{@link FlashSale}）的查詢與更新。</p>
+ */
+@Repository
+public class FlashSaleDAOImpl extends BaseDAOImpl<FlashSale> implements FlashSaleDAO {
+
+	/**
+	 * 查詢所有啟用中的搶購商品。
+	 *
+	 * @return 啟用中的搶購設定，依商品 ID 排序
+	 */
+	@Override
+	public List<FlashSale> findActive() {
+		return getCurrentSession()
+				.createQuery("FROM FlashSale f WHERE f.active = true ORDER BY f.productId", FlashSale.class)
+				.getResultList();
+	}
+
+	/**
+	 * 調整啟用中搶購商品移入記憶體的庫存總數。
+	 *
+	 * <p>以 {@code allocated = allocated + ?} 直接在資料庫更新，需與商品庫存的異動在同一個交易中執行。</p>
+	 *
+	 * @param productId 商品 ID
+	 * @param delta     增減量（移入記憶體為正，歸還資料庫為負）
+	 */
+	@Override
+	public void addAllocated(Long productId, int delta) {
+		getCurrentSession()
+				.createQuery("UPDATE FlashSale f SET f.allocated = f.allocated + :delta "
+						+ "WHERE f.productId = :productId AND f.active = true")
+				.setParameter("delta", delta)
+				.setParameter("productId", productId)
+				.executeUpdate();
+	}
+}
@@ -1,7 +1,10 @@
 package com.example.demo.dao.impl;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,6 +25,10 @@ import com.example.demo.model.Order;
  *   <li>依 ID 查詢單一訂單</li>
  *   <li>查詢所有訂單</li>
  *   <li>依顧客 ID 查詢該顧客的所有訂單</li>
+ *   <li>查詢單筆訂單並一併載入明細與商品</li>
+ *   <li>訂單狀態為預期值時才變更狀態</li>
+ *   <li>統計訂單中各商品的數量</li>
+ *   <li>統計指定時間後商品被下單的總數</li>
  * </ul>
  *
  */
@@ -47,7 +54,7 @@ public class OrderDAOImpl extends BaseDAOImpl<Order> implements OrderDAO {
 			List<Order> orders = getCurrentSession()
 					.createQuery("FROM Order o WHERE o.customer.id = :customerId", Order.class)
 					.setParameter("customerId", customerId).getResultList();
-			logger.info(" 用顧客ID: {},查詢到共 {} 筆",  customerId,orders.size());
+			logger.debug(" 用顧客ID: {},查詢到共 {} 筆",  customerId,orders.size());
 			return orders;
 		} catch (Exception e) {
 			logger.error("查詢顧客ID {} 時出現錯誤: {}", customerId, e.getMessage(), e);
@@ -55,4 +62,82 @@ public class OrderDAOImpl extends BaseDAOImpl<Order> implements OrderDAO {
 		}
 	}
 
+	/**
+	 * 查詢單筆訂單，並以同一個查詢載入顧客、明細、商品與商品分類（JOIN FETCH），
+	 * 訂單詳情頁走訪明細時不會再逐筆查詢。
+	 *
+	 * @param orderId 訂單 ID
+	 * @return 訂單；不存在時為 {@code null}
+	 */
+	@Override
+	public Order findByIdWithItems(Long orderId) {
+		return getCurrentSession()
+				.createQuery("SELECT DISTINCT o FROM Order o " +
+						"JOIN FETCH o.customer " +
+						"LEFT JOIN FETCH o.items i " +
+						"LEFT JOIN FETCH i.product p " +
+						"LEFT JOIN FETCH p.category " +
+						"WHERE o.id = :orderId", Order.class)
+				.setParameter("orderId", orderId)
+				.setHint("hibernate.query.passDistinctThrough", false)
+				.uniqueResult();
+	}
+
+	/**
+	 * 訂單目前狀態為預期值時才變更為新狀態。
+	 *
+	 * <p>以單一條件式 UPDATE 判斷並更新，同一筆訂單同時被付款與取消（或重複取消）時只有一個會成功。</p>
+	 *
+	 * @param orderId        訂單 ID
+	 * @param expectedStatus 預期的目前狀態
+	 * @param newStatus      新狀態
+	 * @return {@code true} 已變更；{@code false} 訂單不存在或狀態不符
+	 */
+	@Override
+	public boolean updateStatus(Long orderId, String expectedStatus, String newStatus) {
+		return getCurrentSession()
+				.createQuery("UPDATE Order o SET o.status = :newStatus WHERE o.id = :id AND o.status = :expected")
+				.setParameter("newStatus", newStatus)
+				.setParameter("id", orderId)
+				.setParameter("expected", expectedStatus)
+				.executeUpdate() > 0;
+	}
+
+	/**
+	 * 統計訂單中各商品的數量（同一商品多筆明細合併）。
+	 *
+	 * @param orderId 訂單 ID
+	 * @return 商品 ID → 數量
+	 */
+	@Override
+	public Map<Long, Integer> findProductQuantities(Long orderId) {
+		List<Object[]> rows = getCurrentSession()
+				.createQuery("SELECT i.product.id, SUM(i.quantity) FROM OrderItem i WHERE i.order.id = :orderId "
+						+ "GROUP BY i.product.id", Object[].class)
+				.setParameter("orderId", orderId)
+				.getResultList();
+		Map<Long, Integer> quantities = new LinkedHashMap<>();
+		for (Object[] row : rows) {
+			quantities.put((Long) row[0], ((Number) row[1]).intValue());
+		}
+		return quantities;
+	}
+
+	/**
+	 * 統計指定時間（含）之後建立的訂單中，某商品的下單總數（不論訂單目前狀態）。
+	 *
+	 * @param productId 商品 ID
+	 * @param since     起始時間
+	 * @return 下單總數；沒有訂單時為 0
+	 */
+	@Override
+	public long sumQuantitySince(Long productId, LocalDateTime since) {
+		Long total = getCurrentSession()
+				.createQuery("SELECT SUM(i.quantity) FROM OrderItem i WHERE i.product.id = :productId "
+						+ "AND i.order.createdAt >= :since", Long.class)
+				.setParameter("productId", productId)
+				.setParameter("since", since)
+				.uniqueResult();
+		return total != null ? total : 0L;
+	}
 }
@@ -0,0 +1,83 @@
+package com.example.demo.dao.impl;
+
+import java.util.List;
+
+import org.hibernate.query.Query;
+import org.springframework.stereotype.Repository;
+
+import com.example.demo.dao.OrderSummaryDAO;
+import com.example.demo.dto.OrderCursor;
+import com.example.demo.model.OrderSummary;
+
+/**
+ * OrderSummaryDAO 的實作類別
+ *
+ * <p>訂單列表只讀取 {@code order_summary} 一張表，不 JOIN 訂單明細與商品。</p>
+ */
+@Repository
+public class OrderSummaryDAOImpl extends BaseDAOImpl<OrderSummary> implements OrderSummaryDAO {
+
+	/**
+	 * 以游標分頁查詢顧客的訂單摘要，依建立時間由新到舊（同時間依訂單 ID 由大到小）。
+	 *
+	 * @param customerId 顧客 ID
+	 * @param cursor     游標；{@code null} 表示第一頁
+	 * @param limit      最多回傳筆數
+	 * @return 訂單摘要；往上一頁查詢時為反向順序（由舊到新）
+	 */
+	@Override
+	public List<OrderSummary> findPageByCustomerId(Long customerId, OrderCursor cursor, int limit) {
+		boolean backward = cursor != null && cursor.isBackward();
+		StringBuilder hql = new StringBuilder("FROM OrderSummary s WHERE s.customerId = :customerId");
+		if (cursor != null) {
+			String op = backward ? ">" : "<";
+			hql.append(" AND (s.createdAt ").append(op).append(" :createdAt")
+					.append(" OR (s.createdAt = :createdAt AND s.orderId ").append(op).append(" :id))");
+		}
+		String direction = backward ? "ASC" : "DESC";
+		hql.append(" ORDER BY s.createdAt ").append(direction).append(", s.orderId ").append(direction);
+
+		Query<OrderSummary> query = getCurrentSession().createQuery(hql.toString(), OrderSummary.class)
+				.setParameter("customerId", customerId)
+				.setMaxResults(limit);
+		if (cursor != null) {
+			query.setParameter("createdAt", cursor.getCreatedAt()).setParameter("id", cursor.getId());
+		}
+		return query.getResultList();
+	}
+
+	/**
+	 * 將摘要的狀態更新為訂單目前的狀態（訂單狀態以條件式 UPDATE 變更後呼叫）。
+	 *
+	 * @param orderId 訂單 ID
+	 * @return {@code true} 已更新；{@code false} 沒有此訂單的摘要
+	 */
+	@Override
+	public boolean syncStatus(Long orderId) {
+		return getCurrentSession()
+				.createQuery("UPDATE OrderSummary s SET s.status = "
+						+ "(SELECT o.status FROM Order o WHERE o.id = s.orderId) WHERE s.orderId = :orderId")
+				.setParameter("orderId", orderId)
+				.executeUpdate() > 0;
+	}
+
+	/**
+	 * 為尚未有摘要的訂單（此表建立前的訂單）建立摘要。
+	 *
+	 * @return 新增的摘要數
+	 */
+	@Override
+	public int backfillMissing() {
+		return getCurrentSession()
+				.createNativeQuery("INSERT INTO order_summary "
+						+ "(order_id, customer_id, status, total_amount, item_count, created_at) "
+						+ "SELECT o.id, o.customer_id, o.status, o.total_amount, "
+						+ "COALESCE((SELECT SUM(i.quantity) FROM order_item i WHERE i.order_id = o.id), 0), "
+						+ "o.created_at FROM orders o "
+						+ "WHERE o.customer_id IS NOT NULL "
+						+ "AND NOT EXISTS (SELECT 1 FROM order_summary s WHERE s.order_id = o.id)")
+				// 只影響此表，不需清除其他二級快取區域
+				.addSynchronizedEntityClass(OrderSummary.class)
+				.executeUpdate();
+	}
+}
@@ -1,10 +1,20 @@
 package com.example.demo.dao.impl;
 
 import com.example.demo.dao.ProductDAO;
+import com.example.demo.dto.ProductCursor;
+import com.example.demo.dto.ProductSummary;
+import com.example.demo.dto.StockLevel;
 import com.example.demo.model.Product;
 import org.springframework.stereotype.Repository;
 
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
 
 /**
  * ProductDAO 的實作類別
@@ -22,7 +32,10 @@ import java.util.List;
  *   <li>依分類 ID 查詢商品並分頁</li>
  *   <li>計算指定分類或名稱的商品數量</li>
  *   <li>依關鍵字搜尋商品名稱</li>
- *   <li>扣減商品庫存（若庫存足夠）</li>
+ *   <li>以游標（keyset）分頁查詢商品，不使用 OFFSET</li>
+ *   <li>商品列表以建構式投影只讀取列表欄位（{@link ProductSummary}），不載入商品實體</li>
+ *   <li>扣減商品庫存（若庫存足夠），支援多項商品一次批次扣減</li>
+ *   <li>以原子遞增歸還庫存，或依版本號（樂觀鎖）更新庫存</li>
  * </ul>
  */
 @Repository
@@ -39,7 +52,7 @@ public class ProductDAOImpl extends BaseDAOImpl<Product> implements ProductDAO {
      */
 	@Override
 	public boolean reduceStock(Long productId, int quantity) {
-	    String hql = "UPDATE Product p SET p.stock = p.stock - :qty " +
+	    String hql = "UPDATE Product p SET p.stock = p.stock - :qty, p.version = p.version + 1 " +
 	                 "WHERE p.id = :id AND p.stock >= :qty";
 	    int updated = getCurrentSession()
 	                  .createQuery(hql)
@@ -49,18 +62,127 @@ public class ProductDAOImpl extends BaseDAOImpl<Product> implements ProductDAO {
 
 	    return updated > 0; // >0 表示扣成功
 	}
+
+	/**
+	 * 以一次 JDBC 批次扣減多項商品的庫存。
+	 *
+	 * <p>每項商品各自為一筆條件式 UPDATE（庫存足夠才扣減），依商品 ID 排序後送出，
+	 * 讓同時結帳的交易以相同順序鎖定資料列，避免死結。</p>
+	 *
+	 * <p>此方法直接以 JDBC 更新，不會同步 Session 內已載入的商品實體與二級快取，
+	 * 呼叫端需自行清除商品快取。</p>
+	 *
+	 * @param quantities 商品 ID → 扣減數量
+	 * @return 商品 ID → 是否扣減成功（依商品 ID 排序）
+	 */
+	@Override
+	public Map<Long, Boolean> reduceStockBatch(Map<Long, Integer> quantities) {
+	    Map<Long, Integer> sorted = new TreeMap<>(quantities);
+	    Map<Long, Boolean> result = new LinkedHashMap<>();
+	    if (sorted.isEmpty()) {
+	        return result;
+	    }
+	    String sql = "UPDATE products SET stock = stock - ?, version = version + 1 WHERE id = ? AND stock >= ?";
+	    int[] counts = getCurrentSession().doReturningWork(connection -> {
+	        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+	            for (Map.Entry<Long, Integer> entry : sorted.entrySet()) {
+	                ps.setInt(1, entry.getValue());
+	                ps.setLong(2, entry.getKey());
+	                ps.setInt(3, entry.getValue());
+	                ps.addBatch();
+	            }
+	            return ps.executeBatch();
+	        }
+	    });
+	    int i = 0;
+	    for (Long productId : sorted.keySet()) {
+	        // 驅動程式無法回報個別筆數（SUCCESS_NO_INFO）時無法確認是否扣減，視為失敗
+	        result.put(productId, counts[i++] > 0);
+	    }
+	    return result;
+	}
+
+	/**
+	 * 以一次 JDBC 批次歸還多項商品的庫存（取消訂單等）。
+	 *
+	 * <p>以 {@code stock = stock + ?} 直接在資料庫遞增，不先讀出再寫回，
+	 * 同時取消的訂單不會互相覆蓋；依商品 ID 排序送出以避免死結。</p>
+	 *
+	 * <p>與 {@link #reduceStockBatch(Map)} 相同，呼叫端需自行清除商品快取。</p>
+	 *
+	 * @param quantities 商品 ID → 歸還數量
+	 */
 	@Override
-	public List<Product> searchProductsByNameAndCategoryWithPage(String keyword, List<Long> categoryIds, int page, int pageSize) {
-	    StringBuilder hql = new StringBuilder("FROM Product p WHERE 1=1");
+	public void addStockBatch(Map<Long, Integer> quantities) {
+	    Map<Long, Integer> sorted = new TreeMap<>(quantities);
+	    if (sorted.isEmpty()) {
+	        return;
+	    }
+	    String sql = "UPDATE products SET stock = stock + ?, version = version + 1 WHERE id = ?";
+	    getCurrentSession().doWork(connection -> {
+	        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+	            for (Map.Entry<Long, Integer> entry : sorted.entrySet()) {
+	                ps.setInt(1, entry.getValue());
+	                ps.setLong(2, entry.getKey());
+	                ps.addBatch();
+	            }
+	            ps.executeBatch();
+	        }
+	    });
+	}
+
+	/**
+	 * 直接從資料庫讀取商品目前的庫存與版本號（不經過二級快取）。
+	 *
+	 * @param productId 商品 ID
+	 * @return 庫存快照；商品不存在時為空
+	 */
+	@Override
+	public Optional<StockLevel> findStockLevel(Long productId) {
+	    return getCurrentSession()
+	            .createQuery("SELECT new com.example.demo.dto.StockLevel(p.id, p.stock, p.version) " +
+	                         "FROM Product p WHERE p.id = :id", StockLevel.class)
+	            .setParameter("id", productId)
+	            .uniqueResultOptional();
+	}
+
+	/**
+	 * 版本號與預期相同時才調整庫存（樂觀鎖），並遞增版本號。
+	 *
+	 * @param productId       商品 ID
+	 * @param expectedVersion 先前讀到的版本號
+	 * @param delta           庫存增減量
+	 * @return {@code true} 已更新；{@code false} 版本已變更（其他交易已修改），或調整後庫存會小於 0
+	 */
+	@Override
+	public boolean updateStockIfVersion(Long productId, long expectedVersion, int delta) {
+	    String hql = "UPDATE Product p SET p.stock = p.stock + :delta, p.version = p.version + 1 " +
+	                 "WHERE p.id = :id AND p.version = :version AND p.stock + :delta >= 0";
+	    return getCurrentSession()
+	            .createQuery(hql)
+	            .setParameter("delta", delta)
+	            .setParameter("id", productId)
+	            .setParameter("version", expectedVersion)
+	            .executeUpdate() > 0;
+	}
+
+	/**
+	 * 依關鍵字與分類以 OFFSET 分頁查詢商品列表。
+	 *
+	 * <p>以建構式投影只讀出列表欄位（見 {@link ProductSummary}），不載入商品實體。</p>
+	 */
+	@Override
+	public List<ProductSummary> searchProductsByNameAndCategoryWithPage(String keyword, List<Long> categoryIds, int page, int pageSize) {
+	    StringBuilder hql = new StringBuilder(ProductSummary.SELECT).append("FROM Product p JOIN p.category c WHERE 1=1");
 
 	    if (keyword != null && !keyword.trim().isEmpty()) {
 	        hql.append(" AND p.name LIKE :keyword");
 	    }
 	    if (categoryIds != null && !categoryIds.isEmpty()) {
-	        hql.append(" AND p.category.id IN :categoryIds");
+	        hql.append(" AND c.id IN :categoryIds");
 	    }
 
-	    var query = sessionFactory.getCurrentSession().createQuery(hql.toString(), Product.class);
+	    var query = sessionFactory.getCurrentSession().createQuery(hql.toString(), ProductSummary.class);
 
 	    if (keyword != null && !keyword.trim().isEmpty()) {
 	        query.setParameter("keyword", "%" + keyword.trim() + "%");
@@ -98,5 +220,155 @@ public class ProductDAOImpl extends BaseDAOImpl<Product> implements ProductDAO {
 	    return count != null ? count.intValue() : 0;
 	}
 
+	/**
+	 * 以游標（keyset）分頁查詢商品。
+	 *
+	 * <p>依（排序欄位, ID）定位：下一頁取排在游標之後的資料，上一頁則以相反順序取游標之前的資料。
+	 * 查詢只讀取需要的筆數，不論第幾頁都不需掃描並略過前面的資料。</p>
+	 *
+	 * @param keyword     搜尋關鍵字（LIKE 比對），可為 null
+	 * @param categoryIds 分類 ID 清單，可為 null
+	 * @param sort        排序方式（ID、PRICE_ASC、PRICE_DESC）
+	 * @param cursor      游標；為 {@code null} 時從第一筆開始
+	 * @param limit       最多取得筆數
+	 * @return 商品清單；往上一頁查詢時為由近到遠的反向順序，由呼叫端轉回顯示順序
+	 */
+	@Override
+	public List<Product> searchProductsByCursor(String keyword, List<Long> categoryIds, ProductCursor.Sort sort,
+			ProductCursor cursor, int limit) {
+	    return cursorQuery("FROM Product p", Product.class, keyword, categoryIds, sort, cursor, limit);
+	}
+
+	/**
+	 * 以游標（keyset）分頁查詢商品列表，條件與排序同
+	 * {@link #searchProductsByCursor(String, List, ProductCursor.Sort, ProductCursor, int)}，
+	 * 但以建構式投影只讀出列表欄位（見 {@link ProductSummary}），不載入商品實體。
+	 */
+	@Override
+	public List<ProductSummary> searchSummariesByCursor(String keyword, List<Long> categoryIds,
+			ProductCursor.Sort sort, ProductCursor cursor, int limit) {
+	    return cursorQuery(ProductSummary.SELECT + "FROM Product p JOIN p.category c", ProductSummary.class, keyword,
+	            categoryIds, sort, cursor, limit);
+	}
+
+	private <T> List<T> cursorQuery(String select, Class<T> type, String keyword, List<Long> categoryIds,
+			ProductCursor.Sort sort, ProductCursor cursor, int limit) {
+	    boolean hasKeyword = keyword != null && !keyword.trim().isEmpty();
+	    boolean hasCategories = categoryIds != null && !categoryIds.isEmpty();
+	    boolean backward = cursor != null && cursor.isBackward();
+	    // 往上一頁時反轉排序方向，取最靠近游標的資料
+	    boolean ascending = sort.isAscending() != backward;
+	    String op = ascending ? ">" : "<";
+	    String dir = ascending ? "ASC" : "DESC";
+
+	    StringBuilder hql = new StringBuilder(select).append(" WHERE 1=1");
+	    if (hasKeyword) {
+	        hql.append(" AND p.name LIKE :keyword");
+	    }
+	    if (hasCategories) {
+	        hql.append(" AND p.category.id IN :categoryIds");
+	    }
+	    if (cursor != null) {
+	        if (sort == ProductCursor.Sort.ID) {
+	            hql.append(" AND p.id ").append(op).append(" :lastId");
+	        } else {
+	            hql.append(" AND (p.price ").append(op).append(" :lastPrice")
+	               .append(" OR (p.price = :lastPrice AND p.id ").append(op).append(" :lastId))");
+	        }
+	    }
+	    if (sort == ProductCursor.Sort.ID) {
+	        hql.append(" ORDER BY p.id ").append(dir);
+	    } else {
+	        hql.append(" ORDER BY p.price ").append(dir).append(", p.id ").append(dir);
+	    }
+
+	    var query = sessionFactory.getCurrentSession().createQuery(hql.toString(), type);
+	    if (hasKeyword) {
+	        query.setParameter("keyword", "%" + keyword.trim() + "%");
+	    }
+	    if (hasCategories) {
+	        query.setParameterList("categoryIds", categoryIds);
+	    }
+	    if (cursor != null) {
+	        query.setParameter("lastId", cursor.getId());
+	        if (sort != ProductCursor.Sort.ID) {
+	            query.setParameter("lastPrice", cursor.getPrice());
+	        }
+	    }
+	    query.setMaxResults(limit);
+	    return query.getResultList();
+	}
+
+	/**
+	 * 依 ID 清單批次查詢商品。
+	 *
+	 * @param ids 商品 ID
+	 * @return 商品清單，順序與傳入的 ID 相同；不存在的 ID 略過
+	 */
+	@Override
+	public List<Product> findByIds(List<Long> ids) {
+	    if (ids == null || ids.isEmpty()) {
+	        return List.of();
+	    }
+	    List<Product> found = getCurrentSession()
+	            .createQuery("FROM Product p WHERE p.id IN :ids", Product.class)
+	            .setParameterList("ids", ids)
+	            .getResultList();
+	    Map<Long, Product> byId = new HashMap<>();
+	    for (Product product : found) {
+	        byId.put(product.getId(), product);
+	    }
+	    List<Product> result = new ArrayList<>(ids.size());
+	    for (Long id : ids) {
+	        Product product = byId.get(id);
+	        if (product != null) {
+	            result.add(product);
+	        }
+	    }
+	    return result;
+	}
 
+	/**
+	 * 依 ID 清單批次查詢商品列表欄位（見 {@link ProductSummary}），不載入商品實體。
+	 *
+	 * @param ids 商品 ID
+	 * @return 商品清單，順序與傳入的 ID 相同；不存在的 ID 略過
+	 */
+	@Override
+	public List<ProductSummary> findSummariesByIds(List<Long> ids) {
+	    if (ids == null || ids.isEmpty()) {
+	        return List.of();
+	    }
+	    List<ProductSummary> found = getCurrentSession()
+	            .createQuery(ProductSummary.SELECT + "FROM Product p JOIN p.category c WHERE p.id IN :ids",
+	                    ProductSummary.class)
+	            .setParameterList("ids", ids)
+	            .getResultList();
+	    Map<Long, ProductSummary> byId = new HashMap<>();
+	    for (ProductSummary product : found) {
+	        byId.put(product.getId(), product);
+	    }
+	    List<ProductSummary> result = new ArrayList<>(ids.size());
+	    for (Long id : ids) {
+	        ProductSummary product = byId.get(id);
+	        if (product != null) {
+	            result.add(product);
+	        }
+	    }
+	    return result;
+	}
+
+	/**
+	 * 將使用指定圖片的商品標記為縮圖已產生（相同圖片可能被多個商品使用）。
+	 *
+	 * @param imageUrl 原圖網址
+	 * @return 更新的商品數
+	 */
+	@Override
+	public int markImageVariantsReady(String imageUrl) {
+	    return getCurrentSession()
+	            .createQuery("UPDATE Product p SET p.imageVariants = true WHERE p.imageUrl = :imageUrl")
+	            .setParameter("imageUrl", imageUrl)
+	            .executeUpdate();
+	}
 }
@@ -1,6 +1,7 @@
 package com.example.demo.dao.impl;
 
 import com.example.demo.dao.UserDAO;
+import com.example.demo.dto.UserCredentials;
 import com.example.demo.model.User;
 import org.springframework.stereotype.Repository;
 
@@ -16,6 +17,8 @@ import org.springframework.stereotype.Repository;
  *   <li>儲存或更新使用者資料</li>
  *   <li>刪除使用者</li>
  *   <li>依 Email 查詢使用者</li>
+ *   <li>依 Email 查詢登入驗證所需的欄位</li>
+ *   <li>更新密碼雜湊</li>
  * </ul>
  */
 @Repository
@@ -33,4 +36,37 @@ public class UserDAOImpl extends BaseDAOImpl<User> implements UserDAO {
 		return getCurrentSession().createQuery("FROM User WHERE email = :email", User.class)
 				.setParameter("email", email).uniqueResult();
 	}
+
+	/**
+	 * 根據電子郵件查詢登入驗證所需的欄位（ID、信箱、密碼雜湊、角色）。
+	 *
+	 * <p>只查詢 users 資料表的四個欄位，不載入 {@link User} 實體與其關聯的顧客資料。</p>
+	 *
+	 * @param email 使用者的電子郵件地址
+	 * @return 登入資料；若無則回傳 {@code null}
+	 */
+	@Override
+	public UserCredentials findCredentialsByEmail(String email) {
+		return getCurrentSession()
+				.createQuery("SELECT new com.example.demo.dto.UserCredentials(u.id, u.email, u.password, u.role) "
+						+ "FROM User u WHERE u.email = :email", UserCredentials.class)
+				.setParameter("email", email).uniqueResult();
+	}
+
+	/**
+	 * 以新的雜湊取代密碼雜湊；只有資料庫中的雜湊仍是 expectedHash 時才更新，
+	 * 不會覆蓋同時間修改的新密碼。
+	 *
+	 * @param email        使用者的電子郵件地址
+	 * @param expectedHash 比對成功的舊雜湊
+	 * @param newHash      以目前設定重新編碼的雜湊
+	 * @return 更新的筆數（0 或 1）
+	 */
+	@Override
+	public int updatePasswordHash(String email, String expectedHash, String newHash) {
+		return getCurrentSession()
+				.createQuery("UPDATE User u SET u.password = :newHash WHERE u.email = :email AND u.password = :expectedHash")
+				.setParameter("newHash", newHash).setParameter("email", email)
+				.setParameter("expectedHash", expectedHash).executeUpdate();
+	}
 }
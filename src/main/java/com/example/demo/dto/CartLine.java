@@ -0,0 +1,67 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+
+import com.example.demo.image.ImageVariant;
+
+/**
+ * CartLine 購物車頁面的一筆明細
+ *
+ * <p>由購物車明細與商品以單一查詢投影而成，只包含頁面需要的欄位，
+ * 不載入 {@link com.example.demo.model.CartItem} 與 {@link com.example.demo.model.Product} 實體。</p>
+ */
+public class CartLine {
+
+	private final Long productId;
+	private final String productName;
+	private final String imageUrl;
+	private final boolean imageVariants;
+	private final Integer stock;
+	private final BigDecimal price;
+	private final int quantity;
+	private final BigDecimal subtotal;
+
+	public CartLine(Long productId, String productName, String imageUrl, boolean imageVariants, Integer stock,
+			BigDecimal price, int quantity, BigDecimal subtotal) {
+		this.productId = productId;
+		this.productName = productName;
+		this.imageUrl = imageUrl;
+		this.imageVariants = imageVariants;
+		this.stock = stock;
+		this.price = price;
+		this.quantity = quantity;
+		this.subtotal = subtotal;
+	}
+
+	// getter
+	public Long getProductId() {
+		return productId;
+	}
+
+	public String getProductName() {
+		return productName;
+	}
+
+	/** 商品小圖；縮圖尚未產生時為原圖，沒有圖片時為 {@code null} */
+	public String getThumbnailUrl() {
+		return imageVariants && imageUrl != null ? ImageVariant.THUMBNAIL.of(imageUrl) : imageUrl;
+	}
+
+	/** 商品目前庫存，用於限制可輸入的數量 */
+	public Integer getStock() {
+		return stock;
+	}
+
+	/** 加入購物車時的單價 */
+	public BigDecimal getPrice() {
+		return price;
+	}
+
+	public int getQuantity() {
+		return quantity;
+	}
+
+	public BigDecimal getSubtotal() {
+		return subtotal;
+	}
+}
@@ -0,0 +1,41 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * CartSummary 購物車頁面讀取模型
+ *
+ * <p>一次提供購物車明細、是否為空與總金額，購物車頁面只需一次查詢。</p>
+ */
+public class CartSummary {
+
+	private final List<CartLine> items;
+	private final BigDecimal total;
+
+	public CartSummary(List<CartLine> items) {
+		this.items = Collections.unmodifiableList(items);
+		this.total = items.stream()
+				.map(CartLine::getSubtotal)
+				.reduce(BigDecimal.ZERO, BigDecimal::add);
+	}
+
+	/** 沒有購物車或沒有明細時的空摘要 */
+	public static CartSummary empty() {
+		return new CartSummary(Collections.emptyList());
+	}
+
+	// getter
+	public List<CartLine> getItems() {
+		return items;
+	}
+
+	public BigDecimal getTotal() {
+		return total;
+	}
+
+	public boolean isEmpty() {
+		return items.isEmpty();
+	}
+}
@@ -0,0 +1,39 @@
+package com.example.demo.dto;
+
+import java.io.Serializable;
+
+/**
+ * CustomerIdentity 目前登入顧客的識別資料
+ *
+ * <p>購物車、訂單等頁面只需要顧客 ID（查詢購物車、驗證訂單所屬）與姓名（顯示歡迎訊息），
+ * 不需要載入完整的 {@link com.example.demo.model.Customer} 實體。
+ * 此物件不可變，可安全地在快取中跨請求共用。</p>
+ */
+public class CustomerIdentity implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final Long id;
+	private final Long userId;
+	private final String name;
+
+	public CustomerIdentity(Long id, Long userId, String name) {
+		this.id = id;
+		this.userId = userId;
+		this.name = name;
+	}
+
+	/** 顧客 ID */
+	public Long getId() {
+		return id;
+	}
+
+	/** 對應的使用者 ID */
+	public Long getUserId() {
+		return userId;
+	}
+
+	public String getName() {
+		return name;
+	}
+}
@@ -0,0 +1,76 @@
+package com.example.demo.dto;
+
+import java.time.LocalDateTime;
+
+import com.example.demo.inventory.HotSkuStockCounter;
+import com.example.demo.model.FlashSale;
+import com.example.demo.model.Product;
+
+/**
+ * FlashSaleStatus 搶購商品狀態
+ *
+ * <p>合併資料庫中的搶購設定、商品庫存與記憶體計數的統計，供後台搶購管理頁面顯示。</p>
+ */
+public class FlashSaleStatus {
+
+	private final FlashSale sale;
+	private final Product product;
+	private final HotSkuStockCounter.Stats stats;
+
+	public FlashSaleStatus(FlashSale sale, Product product, HotSkuStockCounter.Stats stats) {
+		this.sale = sale;
+		this.product = product;
+		this.stats = stats;
+	}
+
+	public Long getProductId() {
+		return sale.getProductId();
+	}
+
+	public String getProductName() {
+		return product != null ? product.getName() : "（商品已刪除）";
+	}
+
+	/** 資料庫中尚未移入記憶體的庫存 */
+	public int getDatabaseStock() {
+		return product != null ? product.getStock() : 0;
+	}
+
+	public LocalDateTime getStartedAt() {
+		return sale.getStartedAt();
+	}
+
+	/** 本次啟用後移入記憶體的總數 */
+	public int getAllocated() {
+		return sale.getAllocated();
+	}
+
+	/** 是否已載入記憶體計數（啟用中但未載入表示還原失敗） */
+	public boolean isLoaded() {
+		return stats != null;
+	}
+
+	/** 記憶體中尚未售出的數量 */
+	public int getPooled() {
+		return stats != null ? stats.getPooled() : 0;
+	}
+
+	/** 本次啟動後售出的數量 */
+	public long getTaken() {
+		return stats != null ? stats.getTaken() : 0L;
+	}
+
+	/** 本次啟動後因庫存不足拒絕的次數 */
+	public long getRejected() {
+		return stats != null ? stats.getRejected() : 0L;
+	}
+
+	/** 本次啟動後向資料庫租用的次數 */
+	public long getLeases() {
+		return stats != null ? stats.getLeases() : 0L;
+	}
+
+	public boolean isSoldOut() {
+		return stats != null && stats.isSoldOut();
+	}
+}
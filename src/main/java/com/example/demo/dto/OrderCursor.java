@@ -0,0 +1,86 @@
+package com.example.demo.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.example.demo.model.OrderSummary;
+
+/**
+ * OrderCursor 訂單歷史分頁游標
+ *
+ * <p>訂單依建立時間由新到舊排序（同時間以訂單 ID 由大到小），
+ * 游標記錄上一頁邊界訂單的（建立時間, ID），下一次查詢以 WHERE 條件直接定位，
+ * 配合 {@code (customer_id, created_at)} 索引，任何一頁都只讀取該頁的訂單。</p>
+ *
+ * <p>對外以 Base64 字串傳遞；無法解析的游標視為第一頁。</p>
+ */
+public class OrderCursor {
+
+	private final LocalDateTime createdAt;
+	private final Long id;
+	private final boolean backward;
+
+	private OrderCursor(LocalDateTime createdAt, Long id, boolean backward) {
+		this.createdAt = createdAt;
+		this.id = id;
+		this.backward = backward;
+	}
+
+	/**
+	 * 建立「下一頁」（較舊的訂單）游標。
+	 */
+	public static OrderCursor after(OrderSummary last) {
+		return new OrderCursor(last.getCreatedAt(), last.getOrderId(), false);
+	}
+
+	/**
+	 * 建立「上一頁」（較新的訂單）游標。
+	 */
+	public static OrderCursor before(OrderSummary first) {
+		return new OrderCursor(first.getCreatedAt(), first.getOrderId(), true);
+	}
+
+	/**
+	 * 編碼為可放在網址參數中的字串。
+	 */
+	public String encode() {
+		String raw = createdAt + "|" + id + "|" + (backward ? "b" : "a");
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * 解析游標字串。
+	 *
+	 * @param token 游標字串
+	 * @return 游標；空值或格式錯誤時回傳 {@code null}（視為第一頁）
+	 */
+	public static OrderCursor decode(String token) {
+		if (token == null || token.isBlank()) {
+			return null;
+		}
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			String[] parts = raw.split("\\|", -1);
+			if (parts.length != 3) {
+				return null;
+			}
+			return new OrderCursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]), "b".equals(parts[2]));
+		} catch (IllegalArgumentException | DateTimeParseException e) {
+			return null;
+		}
+	}
+
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public boolean isBackward() {
+		return backward;
+	}
+}
@@ -0,0 +1,46 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+import com.example.demo.model.OrderSummary;
+
+/**
+ * OrderPage 以游標分頁查詢的一頁訂單歷史
+ *
+ * <p>本頁為訂單摘要（{@link OrderSummary}），不含訂單明細；明細只在訂單詳情頁載入。</p>
+ */
+public class OrderPage {
+
+	private final List<OrderSummary> orders;
+	private final String previousCursor;
+	private final String nextCursor;
+
+	public OrderPage(List<OrderSummary> orders, String previousCursor, String nextCursor) {
+		this.orders = orders;
+		this.previousCursor = previousCursor;
+		this.nextCursor = nextCursor;
+	}
+
+	// getter
+	public List<OrderSummary> getOrders() {
+		return orders;
+	}
+
+	/** 上一頁（較新的訂單）游標；已是第一頁時為 {@code null} */
+	public String getPreviousCursor() {
+		return previousCursor;
+	}
+
+	/** 下一頁（較舊的訂單）游標；已是最後一頁時為 {@code null} */
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	public boolean isHasPrevious() {
+		return previousCursor != null;
+	}
+
+	public boolean isHasNext() {
+		return nextCursor != null;
+	}
+}
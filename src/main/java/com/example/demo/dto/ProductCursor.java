@@ -0,0 +1,163 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.example.demo.model.Product;
+
+/**
+ * ProductCursor 商品列表分頁游標
+ *
+ * <p>記錄上一頁邊界商品的（排序欄位值, ID），下一次查詢以 WHERE 條件直接定位
+ * （keyset / seek 分頁），不需以 OFFSET 略過前面的資料，深層頁數與第一頁成本相同。</p>
+ *
+ * <p>依相關度排序（{@link Sort#RELEVANCE}）時結果來自搜尋索引的排名，筆數沒有上限，
+ * 游標改為記錄本頁在排名中的起始位置（offset）。</p>
+ *
+ * <p>對外以 Base64 字串傳遞，內容對使用者不透明；無法解析的游標視為第一頁。</p>
+ */
+public class ProductCursor {
+
+	/**
+	 * 商品列表排序方式，皆以商品 ID 作為同值時的次要排序，確保順序唯一。
+	 */
+	public enum Sort {
+		/** 依上架順序（商品 ID） */
+		ID(true),
+		/** 價格由低到高 */
+		PRICE_ASC(true),
+		/** 價格由高到低 */
+		PRICE_DESC(false),
+		/** 搜尋相關度（需有關鍵字且搜尋索引可用） */
+		RELEVANCE(false);
+
+		private final boolean ascending;
+
+		Sort(boolean ascending) {
+			this.ascending = ascending;
+		}
+
+		public boolean isAscending() {
+			return ascending;
+		}
+
+		/**
+		 * 解析請求參數；空值或無法辨識時回傳 {@link #ID}。
+		 */
+		public static Sort parse(String value) {
+			if (value != null) {
+				for (Sort sort : values()) {
+					if (sort.name().equalsIgnoreCase(value)) {
+						return sort;
+					}
+				}
+			}
+			return ID;
+		}
+	}
+
+	private final Sort sort;
+	private final BigDecimal price;
+	private final Long id;
+	private final boolean backward;
+
+	private ProductCursor(Sort sort, BigDecimal price, Long id, boolean backward) {
+		this.sort = sort;
+		this.price = price;
+		this.id = id;
+		this.backward = backward;
+	}
+
+	/**
+	 * 建立「下一頁」游標：取排在指定商品之後的資料。
+	 */
+	public static ProductCursor after(Product last, Sort sort) {
+		return new ProductCursor(sort, last.getPrice(), last.getId(), false);
+	}
+
+	/**
+	 * 建立「上一頁」游標：取排在指定商品之前的資料。
+	 */
+	public static ProductCursor before(Product first, Sort sort) {
+		return new ProductCursor(sort, first.getPrice(), first.getId(), true);
+	}
+
+	/**
+	 * 建立「下一頁」游標：取排在指定列表商品之後的資料。
+	 */
+	public static ProductCursor after(ProductSummary last, Sort sort) {
+		return new ProductCursor(sort, last.getPrice(), last.getId(), false);
+	}
+
+	/**
+	 * 建立「上一頁」游標：取排在指定列表商品之前的資料。
+	 */
+	public static ProductCursor before(ProductSummary first, Sort sort) {
+		return new ProductCursor(sort, first.getPrice(), first.getId(), true);
+	}
+
+	/**
+	 * 建立依相關度排序時的游標：本頁從排名第 offset 筆開始（由 0 起算）。
+	 */
+	public static ProductCursor atOffset(int offset) {
+		return new ProductCursor(Sort.RELEVANCE, null, (long) offset, false);
+	}
+
+	/**
+	 * 編碼為可放在網址參數中的字串。
+	 */
+	public String encode() {
+		String raw = sort.name() + "|" + (price != null ? price.toPlainString() : "") + "|" + id + "|"
+				+ (backward ? "b" : "a");
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * 解析游標字串。
+	 *
+	 * @param token 游標字串
+	 * @return 游標；空值或格式錯誤時回傳 {@code null}（視為第一頁）
+	 */
+	public static ProductCursor decode(String token) {
+		if (token == null || token.isBlank()) {
+			return null;
+		}
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			String[] parts = raw.split("\\|", -1);
+			if (parts.length != 4) {
+				return null;
+			}
+			Sort sort = Sort.valueOf(parts[0]);
+			BigDecimal price = parts[1].isEmpty() ? null : new BigDecimal(parts[1]);
+			if ((sort == Sort.PRICE_ASC || sort == Sort.PRICE_DESC) && price == null) {
+				return null;
+			}
+			return new ProductCursor(sort, price, Long.valueOf(parts[2]), "b".equals(parts[3]));
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	public Sort getSort() {
+		return sort;
+	}
+
+	public BigDecimal getPrice() {
+		return price;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public boolean isBackward() {
+		return backward;
+	}
+
+	/** 依相關度排序時本頁的起始排名 */
+	public int getOffset() {
+		return id != null ? (int) Math.max(0, Math.min(id, Integer.MAX_VALUE)) : 0;
+	}
+}
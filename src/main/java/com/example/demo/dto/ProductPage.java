@@ -0,0 +1,58 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+/**
+ * ProductPage 以游標分頁查詢的一頁商品
+ *
+ * <p>包含本頁商品（列表欄位投影，見 {@link ProductSummary}）、前後頁游標，以及（可能來自快取的）符合條件商品總數。</p>
+ */
+public class ProductPage {
+
+	private final List<ProductSummary> items;
+	private final String previousCursor;
+	private final String nextCursor;
+	private final int totalCount;
+	private final ProductCursor.Sort sort;
+
+	public ProductPage(List<ProductSummary> items, String previousCursor, String nextCursor, int totalCount,
+			ProductCursor.Sort sort) {
+		this.items = items;
+		this.sort = sort;
+		this.previousCursor = previousCursor;
+		this.nextCursor = nextCursor;
+		this.totalCount = totalCount;
+	}
+
+	// getter
+	public List<ProductSummary> getItems() {
+		return items;
+	}
+
+	/** 上一頁游標；已是第一頁時為 {@code null} */
+	public String getPreviousCursor() {
+		return previousCursor;
+	}
+
+	/** 下一頁游標；已是最後一頁時為 {@code null} */
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	public boolean isHasPrevious() {
+		return previousCursor != null;
+	}
+
+	public boolean isHasNext() {
+		return nextCursor != null;
+	}
+
+	public int getTotalCount() {
+		return totalCount;
+	}
+
+	/** 實際使用的排序方式（搜尋索引無法使用時，相關度排序會改為依上架順序） */
+	public ProductCursor.Sort getSort() {
+		return sort;
+	}
+}
@@ -0,0 +1,68 @@
+package com.example.demo.dto;
+
+import java.math.BigDecimal;
+
+import com.example.demo.image.ImageVariant;
+
+/**
+ * ProductSummary 商品列表的一筆商品
+ *
+ * <p>以 HQL 建構式投影（{@code SELECT new ...}）直接讀出列表需要的欄位，
+ * 不建立受 Session 管理的 {@link com.example.demo.model.Product} 實體，
+ * 也不載入商品的分類（及分類的子分類、商品集合），沒有髒檢查與 flush 成本。</p>
+ */
+public class ProductSummary {
+
+	/** 建構式投影的選取欄位，順序與建構式參數相同（商品別名 p、分類別名 c） */
+	public static final String SELECT = "SELECT new com.example.demo.dto.ProductSummary("
+			+ "p.id, p.name, p.price, p.imageUrl, p.imageVariants, p.stock, c.name) ";
+
+	private final Long id;
+	private final String name;
+	private final BigDecimal price;
+	private final String imageUrl;
+	private final boolean imageVariants;
+	private final Integer stock;
+	private final String categoryName;
+
+	public ProductSummary(Long id, String name, BigDecimal price, String imageUrl, boolean imageVariants,
+			Integer stock, String categoryName) {
+		this.id = id;
+		this.name = name;
+		this.price = price;
+		this.imageUrl = imageUrl;
+		this.imageVariants = imageVariants;
+		this.stock = stock;
+		this.categoryName = categoryName;
+	}
+
+	// getter
+	public Long getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public BigDecimal getPrice() {
+		return price;
+	}
+
+	public String getImageUrl() {
+		return imageUrl;
+	}
+
+	/** 商品卡片尺寸的圖片網址；縮圖尚未產生時為原圖 */
+	public String getCardImageUrl() {
+		return imageVariants && imageUrl != null ? ImageVariant.CARD.of(imageUrl) : imageUrl;
+	}
+
+	public Integer getStock() {
+		return stock;
+	}
+
+	public String getCategoryName() {
+		return categoryName;
+	}
+}
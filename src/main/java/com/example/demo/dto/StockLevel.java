@@ -0,0 +1,31 @@
+package com.example.demo.dto;
+
+/**
+ * StockLevel 商品庫存與版本快照
+ *
+ * <p>供樂觀鎖更新使用：依讀到的版本號更新庫存，版本已變更表示期間有其他交易修改過，需重新讀取再試。</p>
+ */
+public class StockLevel {
+
+	private final Long productId;
+	private final int stock;
+	private final long version;
+
+	public StockLevel(Long productId, Integer stock, Long version) {
+		this.productId = productId;
+		this.stock = stock != null ? stock : 0;
+		this.version = version != null ? version : 0L;
+	}
+
+	public Long getProductId() {
+		return productId;
+	}
+
+	public int getStock() {
+		return stock;
+	}
+
+	public long getVersion() {
+		return version;
+	}
+}
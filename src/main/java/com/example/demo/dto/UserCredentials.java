@@ -0,0 +1,52 @@
+package com.example.demo.dto;
+
+import java.io.Serializable;
+
+/**
+ * UserCredentials 登入驗證所需的使用者資料
+ *
+ * <p>Spring Security 驗證登入只需要使用者 ID、信箱、密碼雜湊與角色，
+ * 以投影查詢直接取得這四個欄位，不載入 {@link com.example.demo.model.User} 實體
+ * （以及一對一關聯的 {@link com.example.demo.model.Customer}）。
+ * 此物件不可變，可安全地在快取中跨請求共用。</p>
+ */
+public class UserCredentials implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final Long id;
+	private final String email;
+	private final String passwordHash;
+	private final String role;
+
+	public UserCredentials(Long id, String email, String passwordHash, String role) {
+		this.id = id;
+		this.email = email;
+		this.passwordHash = passwordHash;
+		this.role = role;
+	}
+
+	/** 使用者 ID */
+	public Long getId() {
+		return id;
+	}
+
+	public String getEmail() {
+		return email;
+	}
+
+	public String getPasswordHash() {
+		return passwordHash;
+	}
+
+	public String getRole() {
+		return role;
+	}
+
+	/**
+	 * 以新的密碼雜湊建立副本（登入時升級雜湊後使用）。
+	 */
+	public UserCredentials withPasswordHash(String newHash) {
+		return new UserCredentials(id, email, newHash, role);
+	}
+}
@@ -0,0 +1,40 @@
+package com.example.demo.image;
+
+/**
+ * ImageVariant 商品圖片的縮圖尺寸
+ *
+ * <p>每張上傳的原圖另外產生以下寬度的 JPEG，檔名為原圖檔名加上尺寸名稱，
+ * 例如 {@code /uploads/<sha256>.png} 的商品卡片圖為 {@code /uploads/<sha256>-card.jpg}。</p>
+ */
+public enum ImageVariant {
+
+	/** 購物車、訂單等小圖 */
+	THUMBNAIL("thumb", 160),
+	/** 商品列表卡片 */
+	CARD("card", 480),
+	/** 商品頁 */
+	DETAIL("detail", 1200);
+
+	private final String suffix;
+	private final int width;
+
+	ImageVariant(String suffix, int width) {
+		this.suffix = suffix;
+		this.width = width;
+	}
+
+	/** 最大寬度（像素），原圖較窄時不放大 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * 由原圖的網址或檔名取得此尺寸的網址或檔名。
+	 */
+	public String of(String original) {
+		int dot = original.lastIndexOf('.');
+		int slash = original.lastIndexOf('/');
+		String base = dot > slash ? original.substring(0, dot) : original;
+		return base + "-" + suffix + ".jpg";
+	}
+}
@@ -0,0 +1,273 @@
+package com.example.demo.image;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.demo.cache.CatalogCacheManager;
+import com.example.demo.dao.ProductDAO;
+import com.example.demo.util.TransactionCallbacks;
+
+/**
+ * ProductImageStore 商品圖片儲存與縮圖產生
+ *
+ * <ul>
+ *   <li>上傳檔案以串流寫入上傳目錄，同時計算 SHA-256，以雜湊值作為檔名：
+ *       相同圖片重複上傳只保留一份，檔名不會重複使用，瀏覽器可長期快取</li>
+ *   <li>縮圖（{@link ImageVariant}）在背景執行緒池產生，池的執行緒數與等待佇列都有上限
+ *       （{@code image.variants.threads}、{@code image.variants.queueCapacity}），
+ *       同時上傳大量圖片時不會佔滿 CPU 與記憶體；佇列已滿時該圖片只提供原圖</li>
+ *   <li>縮圖全部完成後才將使用此圖片的商品標記為有縮圖（{@code Product.imageVariants}），
+ *       頁面在此之前仍使用原圖</li>
+ * </ul>
+ */
+@Component
+public class ProductImageStore implements InitializingBean, DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProductImageStore.class);
+
+	/** 接受的圖片副檔名 */
+	private static final Set<String> EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "bmp");
+
+	/** 網址前綴，對應 WebMvcConfig 中的 /uploads/** */
+	private static final String URL_PREFIX = "/uploads/";
+
+	private static final float JPEG_QUALITY = 0.82f;
+
+	@Autowired
+	private Environment env;
+
+	@Autowired
+	private ProductDAO productDAO;
+
+	@Autowired
+	private CatalogCacheManager catalogCacheManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private Path uploadDir;
+	private ThreadPoolExecutor executor;
+	private TransactionTemplate tx;
+
+	@Override
+	public void afterPropertiesSet() {
+		uploadDir = Paths.get(env.getProperty("upload.dir", "/home/yiou/shop_uploads/images/products/"));
+		int threads = env.getProperty("image.variants.threads", Integer.class, 2);
+		int queueCapacity = env.getProperty("image.variants.queueCapacity", Integer.class, 100);
+		AtomicInteger count = new AtomicInteger();
+		executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+					Thread thread = new Thread(runnable, "image-variants-" + count.incrementAndGet());
+					thread.setDaemon(true);
+					thread.setPriority(Thread.MIN_PRIORITY);
+					return thread;
+				});
+		executor.allowCoreThreadTimeOut(true);
+		tx = new TransactionTemplate(transactionManager);
+	}
+
+	@Override
+	public void destroy() throws InterruptedException {
+		executor.shutdown();
+		if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+			logger.warn("仍有 {} 張圖片的縮圖未產生，下次上傳相同圖片時重新產生", executor.getQueue().size());
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * 將上傳的圖片寫入上傳目錄。
+	 *
+	 * @param file 上傳的圖片
+	 * @return 圖片網址（{@code /uploads/<sha256>.<副檔名>}）
+	 */
+	public String store(MultipartFile file) {
+		String extension = StringUtils.getFilenameExtension(file.getOriginalFilename());
+		extension = extension == null ? "" : extension.toLowerCase(Locale.ROOT);
+		if (!EXTENSIONS.contains(extension)) {
+			throw new RuntimeException("不支援的圖片格式：" + file.getOriginalFilename());
+		}
+		try {
+			Files.createDirectories(uploadDir);
+			Path temp = Files.createTempFile(uploadDir, "upload-", ".tmp");
+			try {
+				MessageDigest digest = MessageDigest.getInstance("SHA-256");
+				try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+					Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+				}
+				String fileName = toHex(digest.digest()) + "." + extension;
+				Path target = uploadDir.resolve(fileName);
+				if (Files.exists(target)) {
+					logger.debug("圖片 {} 已存在，沿用既有檔案", fileName);
+				} else {
+					Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+				}
+				return URL_PREFIX + fileName;
+			} finally {
+				Files.deleteIfExists(temp);
+			}
+		} catch (IOException | NoSuchAlgorithmException e) {
+			throw new RuntimeException("圖片上傳失敗", e);
+		}
+	}
+
+	/**
+	 * 圖片的所有縮圖是否都已產生（例如相同圖片先前已上傳過）。
+	 */
+	public boolean hasVariants(String imageUrl) {
+		Path original = toPath(imageUrl);
+		if (original == null) {
+			return false;
+		}
+		for (ImageVariant variant : ImageVariant.values()) {
+			if (!Files.exists(original.resolveSibling(variant.of(original.getFileName().toString())))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 目前交易提交後在背景產生縮圖，完成後標記使用此圖片的商品。
+	 *
+	 * @param imageUrl {@link #store} 回傳的圖片網址
+	 */
+	public void generateVariantsAfterCommit(String imageUrl) {
+		TransactionCallbacks.afterCommit(() -> {
+			try {
+				executor.execute(() -> generateVariants(imageUrl));
+			} catch (RejectedExecutionException e) {
+				logger.warn("縮圖佇列已滿，圖片 {} 暫時只提供原圖", imageUrl);
+			}
+		});
+	}
+
+	private void generateVariants(String imageUrl) {
+		Path original = toPath(imageUrl);
+		try {
+			BufferedImage source = ImageIO.read(original.toFile());
+			if (source == null) {
+				logger.warn("無法解碼圖片 {}，不產生縮圖", imageUrl);
+				return;
+			}
+			for (ImageVariant variant : ImageVariant.values()) {
+				Path target = original.resolveSibling(variant.of(original.getFileName().toString()));
+				if (!Files.exists(target)) {
+					writeJpeg(resize(source, variant.getWidth()), target);
+				}
+			}
+		} catch (IOException | RuntimeException e) {
+			logger.error("產生圖片 {} 的縮圖失敗", imageUrl, e);
+			return;
+		}
+		tx.executeWithoutResult(status -> {
+			int updated = productDAO.markImageVariantsReady(imageUrl);
+			if (updated > 0) {
+				catalogCacheManager.productChanged(null);
+			}
+		});
+		logger.info("已產生圖片 {} 的縮圖", imageUrl);
+	}
+
+	/**
+	 * 等比縮小到指定寬度；每次最多縮小一半，避免一次大幅縮小產生鋸齒。
+	 * 透明背景以白色填滿（JPEG 不支援透明）。
+	 */
+	private static BufferedImage resize(BufferedImage source, int maxWidth) {
+		int targetWidth = Math.min(maxWidth, source.getWidth());
+		BufferedImage current = source;
+		int width = source.getWidth();
+		do {
+			width = Math.max(targetWidth, width / 2);
+			int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+			BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+			Graphics2D g = next.createGraphics();
+			try {
+				g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+				g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+				g.setColor(Color.WHITE);
+				g.fillRect(0, 0, width, height);
+				g.drawImage(current, 0, 0, width, height, null);
+			} finally {
+				g.dispose();
+			}
+			current = next;
+		} while (width > targetWidth);
+		return current;
+	}
+
+	/** 先寫入暫存檔再改名，頁面不會讀到寫到一半的檔案 */
+	private static void writeJpeg(BufferedImage image, Path target) throws IOException {
+		Path temp = Files.createTempFile(target.getParent(), "variant-", ".tmp");
+		try {
+			ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+			try (OutputStream out = Files.newOutputStream(temp);
+					ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+				ImageWriteParam param = writer.getDefaultWriteParam();
+				param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+				param.setCompressionQuality(JPEG_QUALITY);
+				writer.setOutput(ios);
+				writer.write(null, new IIOImage(image, null, null), param);
+			} finally {
+				writer.dispose();
+			}
+			Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		StringBuilder hex = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return hex.toString();
+	}
+
+	/** 上傳目錄中的檔案；不是上傳的圖片（例如 /resources/images/...）時為 null */
+	private Path toPath(String imageUrl) {
+		if (imageUrl == null || !imageUrl.startsWith(URL_PREFIX)) {
+			return null;
+		}
+		Path path = uploadDir.resolve(imageUrl.substring(URL_PREFIX.length())).normalize();
+		return path.startsWith(uploadDir.normalize()) ? path : null;
+	}
+}
@@ -0,0 +1,521 @@
+package com.example.demo.inventory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.cache.CatalogCacheManager;
+import com.example.demo.dao.FlashSaleDAO;
+import com.example.demo.dao.OrderDAO;
+import com.example.demo.dao.ProductDAO;
+import com.example.demo.dto.StockLevel;
+import com.example.demo.model.FlashSale;
+
+/**
+ * HotSkuStockCounter 搶購商品記憶體庫存計數器
+ *
+ * <p>限時搶購時大量買家同時購買同一商品，若每筆訂單都以條件式 UPDATE 扣減同一列庫存，
+ * 所有交易會在該列的資料列鎖上排隊。啟用搶購模式（{@link FlashSale}）的商品改為：</p>
+ * <ul>
+ *   <li>啟用時先從資料庫「租用」一批庫存（{@code inventory.hot.leaseSize}）放入記憶體，
+ *       資料庫庫存同時扣減，之後的購買只扣記憶體計數，不鎖資料列</li>
+ *   <li>記憶體計數分散在多個分段（stripe），不同執行緒以 CAS 從不同分段扣減，減少競爭</li>
+ *   <li>所有分段都不足時才在該商品的鎖內合併剩餘數量並再租用一批，資料庫每批只更新一次</li>
+ *   <li>租用以樂觀鎖（版本號）更新資料庫，版本衝突時重新讀取再試</li>
+ *   <li>資料庫也已售完時記錄售完狀態，之後一段時間（{@code inventory.hot.soldOutRecheckMs}）
+ *       的購買與加入購物車直接在記憶體中拒絕</li>
+ * </ul>
+ *
+ * <p>租用的數量與商品庫存在同一個交易中累計到 {@link FlashSale#getAllocated()}。
+ * 正常關閉時剩餘數量歸還資料庫；程式異常終止時，下次啟動以「租用總數 − 啟用後的下單總數」
+ * 算出未售出的數量歸還（訂單與記憶體扣減在同一個交易中提交，訂單即為已售出的紀錄）。</p>
+ */
+@Component
+public class HotSkuStockCounter implements InitializingBean, DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(HotSkuStockCounter.class);
+
+	/** 相鄰分段間隔的陣列元素數，讓各分段落在不同的 cache line */
+	private static final int PADDING = 16;
+
+	/** 扣減結果 */
+	public enum Result {
+		/** 已從記憶體扣減 */
+		TAKEN,
+		/** 記憶體與資料庫庫存皆不足 */
+		INSUFFICIENT,
+		/** 不是搶購商品，應直接扣減資料庫庫存 */
+		NOT_HOT
+	}
+
+	@Autowired
+	private Environment env;
+
+	@Autowired
+	private ProductDAO productDAO;
+
+	@Autowired
+	private OrderDAO orderDAO;
+
+	@Autowired
+	private FlashSaleDAO flashSaleDAO;
+
+	@Autowired
+	private CatalogCacheManager catalogCacheManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	/** 搶購中的商品計數 */
+	private final Map<Long, HotSku> skus = new ConcurrentHashMap<>();
+
+	/** 啟用、關閉搶購模式時持有 */
+	private final Object toggleLock = new Object();
+
+	private TransactionTemplate independentTx;
+	private int leaseSize;
+	private int stripes;
+	private int maxRetries;
+	private long soldOutRecheckNanos;
+
+	@Override
+	public void afterPropertiesSet() {
+		leaseSize = env.getProperty("inventory.hot.leaseSize", Integer.class, 100);
+		int configured = env.getProperty("inventory.hot.stripes", Integer.class, 0);
+		stripes = configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+		maxRetries = env.getProperty("inventory.lease.maxRetries", Integer.class, 5);
+		soldOutRecheckNanos = TimeUnit.MILLISECONDS
+				.toNanos(env.getProperty("inventory.hot.soldOutRecheckMs", Long.class, 1000L));
+		independentTx = new TransactionTemplate(transactionManager);
+		independentTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+		restore();
+	}
+
+	@Override
+	public void destroy() {
+		synchronized (toggleLock) {
+			for (Long productId : new ArrayList<>(skus.keySet())) {
+				try {
+					int returned = unload(productId);
+					logger.info("已歸還搶購商品 {} 的記憶體庫存 {} 件", productId, returned);
+				} catch (RuntimeException e) {
+					logger.error("關閉時無法歸還搶購商品 {} 的記憶體庫存，下次啟動時核對", productId, e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * 啟用商品的搶購模式並預先租用一批庫存。
+	 *
+	 * @return {@code false} 已是搶購模式
+	 */
+	public boolean enable(Long productId) {
+		synchronized (toggleLock) {
+			if (skus.containsKey(productId)) {
+				return false;
+			}
+			independentTx.executeWithoutResult(status -> {
+				FlashSale sale = flashSaleDAO.findById(productId);
+				if (sale == null) {
+					sale = new FlashSale();
+					sale.setProductId(productId);
+				}
+				sale.setActive(true);
+				sale.setAllocated(0);
+				sale.setStartedAt(LocalDateTime.now());
+				flashSaleDAO.save(sale);
+			});
+			load(productId);
+		}
+		logger.info("商品 {} 已啟用搶購模式，每次租用 {} 件，分段數 {}", productId, leaseSize, stripes);
+		return true;
+	}
+
+	/**
+	 * 關閉商品的搶購模式，並將記憶體中剩餘的庫存歸還資料庫。
+	 *
+	 * @return 歸還的數量；不是搶購模式時為 -1
+	 */
+	public int disable(Long productId) {
+		synchronized (toggleLock) {
+			if (!skus.containsKey(productId)) {
+				return -1;
+			}
+			int returned = unload(productId);
+			independentTx.executeWithoutResult(status -> {
+				FlashSale sale = flashSaleDAO.findById(productId);
+				if (sale != null) {
+					sale.setActive(false);
+					flashSaleDAO.save(sale);
+				}
+			});
+			logger.info("商品 {} 已關閉搶購模式，歸還庫存 {} 件", productId, returned);
+			return returned;
+		}
+	}
+
+	public boolean isHot(Long productId) {
+		return skus.containsKey(productId);
+	}
+
+	/**
+	 * 從記憶體扣減搶購商品的庫存；記憶體不足時從資料庫再租用一批。
+	 *
+	 * @param productId 商品 ID
+	 * @param quantity  扣減數量
+	 * @return 扣減結果
+	 */
+	public Result take(Long productId, int quantity) {
+		HotSku sku = skus.get(productId);
+		if (sku == null) {
+			return Result.NOT_HOT;
+		}
+		if (sku.tryTake(quantity)) {
+			sku.taken.add(quantity);
+			return Result.TAKEN;
+		}
+		if (sku.isSoldOut()) {
+			sku.rejected.increment();
+			return Result.INSUFFICIENT;
+		}
+		synchronized (sku) {
+			if (sku.closed) {
+				return Result.NOT_HOT;
+			}
+			// 等待鎖期間可能已有其他執行緒租用
+			if (sku.tryTake(quantity)) {
+				sku.taken.add(quantity);
+				return Result.TAKEN;
+			}
+			int pooled = sku.drain();
+			if (pooled < quantity) {
+				int leased;
+				try {
+					leased = lease(productId, Math.max(leaseSize, quantity - pooled));
+				} catch (RuntimeException e) {
+					sku.spread(pooled);
+					throw e;
+				}
+				if (leased > 0) {
+					pooled += leased;
+					sku.leases.increment();
+					sku.soldOut = false;
+				}
+			}
+			if (pooled < quantity) {
+				sku.spread(pooled);
+				sku.markSoldOut();
+				sku.rejected.increment();
+				return Result.INSUFFICIENT;
+			}
+			sku.spread(pooled - quantity);
+			sku.taken.add(quantity);
+			return Result.TAKEN;
+		}
+	}
+
+	/**
+	 * 將先前扣減的數量放回記憶體（下單交易回滾時）；商品已不是搶購模式時直接歸還資料庫。
+	 */
+	public void giveBack(Long productId, int quantity) {
+		HotSku sku = skus.get(productId);
+		if (sku != null) {
+			synchronized (sku) {
+				if (!sku.closed) {
+					sku.add(quantity);
+					sku.taken.add(-quantity);
+					return;
+				}
+			}
+		}
+		returnToDatabase(productId, quantity);
+	}
+
+	/**
+	 * 在記憶體中判斷搶購商品是否可能購買指定數量（加入購物車時），不讀取商品資料列。
+	 *
+	 * <p>記憶體中數量足夠，或尚未確認售完即允許；實際能否購買以下單時的扣減為準。</p>
+	 */
+	public boolean admits(Long productId, int quantity) {
+		HotSku sku = skus.get(productId);
+		if (sku == null) {
+			return false;
+		}
+		return sku.sum() >= quantity || !sku.isSoldOut();
+	}
+
+	/**
+	 * 記憶體中尚未售出的租用數量；不是搶購商品時為 0。
+	 */
+	public int getPooled(Long productId) {
+		HotSku sku = skus.get(productId);
+		return sku != null ? sku.sum() : 0;
+	}
+
+	/**
+	 * 搶購商品的記憶體統計；不是搶購商品時為空。
+	 */
+	public Optional<Stats> getStats(Long productId) {
+		HotSku sku = skus.get(productId);
+		if (sku == null) {
+			return Optional.empty();
+		}
+		return Optional.of(new Stats(sku.productId, sku.sum(), sku.taken.sum(), sku.rejected.sum(), sku.leases.sum(),
+				sku.isSoldOut()));
+	}
+
+	/**
+	 * 啟動時還原所有啟用中的搶購：核對上次執行時未歸還的數量後重新租用。
+	 */
+	private void restore() {
+		List<FlashSale> sales = independentTx.execute(status -> {
+			List<FlashSale> active = flashSaleDAO.findActive();
+			for (FlashSale sale : active) {
+				reconcile(sale);
+			}
+			return active;
+		});
+		for (FlashSale sale : sales) {
+			load(sale.getProductId());
+			logger.info("已還原商品 {} 的搶購模式", sale.getProductId());
+		}
+	}
+
+	/**
+	 * 將上次執行時移入記憶體、但沒有被下單的數量歸還資料庫，並重新開始計算租用總數。
+	 */
+	private void reconcile(FlashSale sale) {
+		Long productId = sale.getProductId();
+		long ordered = orderDAO.sumQuantitySince(productId, sale.getStartedAt());
+		long unsold = sale.getAllocated() - ordered;
+		if (unsold > 0) {
+			productDAO.addStockBatch(Map.of(productId, (int) unsold));
+			catalogCacheManager.productsChanged(List.of(productId));
+			logger.warn("搶購商品 {} 上次未正常歸還庫存，已核對歸還 {} 件（租用 {}，下單 {}）", productId, unsold,
+					sale.getAllocated(), ordered);
+		} else if (unsold < 0) {
+			logger.warn("搶購商品 {} 的下單數 {} 大於租用總數 {}，不調整庫存", productId, ordered, sale.getAllocated());
+		}
+		sale.setAllocated(0);
+		sale.setStartedAt(LocalDateTime.now());
+		flashSaleDAO.save(sale);
+	}
+
+	/** 建立記憶體計數並預先租用一批庫存 */
+	private void load(Long productId) {
+		HotSku sku = new HotSku(productId, stripes, soldOutRecheckNanos);
+		synchronized (sku) {
+			int leased = lease(productId, leaseSize);
+			if (leased > 0) {
+				sku.spread(leased);
+				sku.leases.increment();
+			} else {
+				sku.markSoldOut();
+			}
+		}
+		skus.put(productId, sku);
+	}
+
+	/** 移除記憶體計數，剩餘數量歸還資料庫（搶購設定維持不變） */
+	private int unload(Long productId) {
+		HotSku sku = skus.remove(productId);
+		if (sku == null) {
+			return 0;
+		}
+		int remaining;
+		synchronized (sku) {
+			sku.closed = true;
+			remaining = sku.drain();
+		}
+		returnToDatabase(productId, remaining);
+		return remaining;
+	}
+
+	/**
+	 * 從資料庫租用庫存，版本衝突時重新讀取再試。
+	 *
+	 * <p>每次嘗試各自一個獨立交易：在 REPEATABLE READ 隔離等級下，同一交易內重新讀取仍會看到舊的版本號。</p>
+	 *
+	 * @return 實際租到的數量（資料庫庫存不足時可能少於要求，甚至為 0）
+	 */
+	private int lease(Long productId, int wanted) {
+		for (int attempt = 0; attempt <= maxRetries; attempt++) {
+			Integer leased = independentTx.execute(status -> {
+				Optional<StockLevel> level = productDAO.findStockLevel(productId);
+				int amount = level.map(l -> Math.min(wanted, l.getStock())).orElse(0);
+				if (amount <= 0) {
+					return 0;
+				}
+				if (!productDAO.updateStockIfVersion(productId, level.get().getVersion(), -amount)) {
+					return null;
+				}
+				flashSaleDAO.addAllocated(productId, amount);
+				return amount;
+			});
+			if (leased != null) {
+				if (leased > 0) {
+					catalogCacheManager.productsChanged(List.of(productId));
+					logger.debug("已租用商品 {} 庫存 {} 件", productId, leased);
+				}
+				return leased;
+			}
+			logger.debug("租用商品 {} 庫存時版本衝突，第 {} 次重試", productId, attempt + 1);
+		}
+		throw new RuntimeException("商品 " + productId + " 庫存更新衝突過多，請稍後再試");
+	}
+
+	private void returnToDatabase(Long productId, int quantity) {
+		if (quantity <= 0) {
+			return;
+		}
+		independentTx.executeWithoutResult(status -> {
+			productDAO.addStockBatch(Map.of(productId, quantity));
+			flashSaleDAO.addAllocated(productId, -quantity);
+		});
+		catalogCacheManager.productsChanged(List.of(productId));
+	}
+
+	/** 單一搶購商品的分段計數；修改分段總量（drain/spread/add）需持有此物件的鎖 */
+	private static final class HotSku {
+		private final Long productId;
+		private final int stripes;
+		private final AtomicIntegerArray counts;
+		private final LongAdder taken = new LongAdder();
+		private final LongAdder rejected = new LongAdder();
+		private final LongAdder leases = new LongAdder();
+		/** 售完後多久（奈秒）內不再向資料庫租用 */
+		private final long soldOutRecheckNanos;
+		private volatile boolean soldOut;
+		private volatile long soldOutAt;
+		private boolean closed;
+
+		HotSku(Long productId, int stripes, long soldOutRecheckNanos) {
+			this.productId = productId;
+			this.stripes = stripes;
+			this.soldOutRecheckNanos = soldOutRecheckNanos;
+			this.counts = new AtomicIntegerArray(stripes * PADDING);
+		}
+
+		/** 不加鎖，從隨機分段開始尋找數量足夠的分段扣減 */
+		boolean tryTake(int quantity) {
+			int start = ThreadLocalRandom.current().nextInt(stripes);
+			for (int i = 0; i < stripes; i++) {
+				int index = ((start + i) % stripes) * PADDING;
+				int current;
+				while ((current = counts.get(index)) >= quantity) {
+					if (counts.compareAndSet(index, current, current - quantity)) {
+						return true;
+					}
+				}
+			}
+			return false;
+		}
+
+		/** 取出所有分段的數量（各分段歸零） */
+		int drain() {
+			int total = 0;
+			for (int i = 0; i < stripes; i++) {
+				total += counts.getAndSet(i * PADDING, 0);
+			}
+			return total;
+		}
+
+		/** 將數量平均分配到各分段 */
+		void spread(int total) {
+			int share = total / stripes;
+			int extra = total % stripes;
+			for (int i = 0; i < stripes; i++) {
+				counts.addAndGet(i * PADDING, share + (i < extra ? 1 : 0));
+			}
+		}
+
+		void add(int quantity) {
+			counts.addAndGet(ThreadLocalRandom.current().nextInt(stripes) * PADDING, quantity);
+		}
+
+		void markSoldOut() {
+			soldOutAt = System.nanoTime();
+			soldOut = true;
+		}
+
+		boolean isSoldOut() {
+			return soldOut && System.nanoTime() - soldOutAt < soldOutRecheckNanos;
+		}
+
+		int sum() {
+			int total = 0;
+			for (int i = 0; i < stripes; i++) {
+				total += counts.get(i * PADDING);
+			}
+			return total;
+		}
+	}
+
+	/** 搶購商品統計 */
+	public static class Stats {
+		private final Long productId;
+		private final int pooled;
+		private final long taken;
+		private final long rejected;
+		private final long leases;
+		private final boolean soldOut;
+
+		Stats(Long productId, int pooled, long taken, long rejected, long leases, boolean soldOut) {
+			this.productId = productId;
+			this.pooled = pooled;
+			this.taken = taken;
+			this.rejected = rejected;
+			this.leases = leases;
+			this.soldOut = soldOut;
+		}
+
+		public Long getProductId() {
+			return productId;
+		}
+
+		/** 記憶體中尚未售出的數量 */
+		public int getPooled() {
+			return pooled;
+		}
+
+		/** 本次啟動後從記憶體扣減的總數 */
+		public long getTaken() {
+			return taken;
+		}
+
+		/** 本次啟動後因庫存不足拒絕的次數 */
+		public long getRejected() {
+			return rejected;
+		}
+
+		/** 本次啟動後向資料庫租用的次數 */
+		public long getLeases() {
+			return leases;
+		}
+
+		/** 是否已確認售完（記憶體中直接拒絕） */
+		public boolean isSoldOut() {
+			return soldOut;
+		}
+	}
+}
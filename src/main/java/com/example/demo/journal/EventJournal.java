@@ -0,0 +1,373 @@
+package com.example.demo.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32C;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.demo.metrics.LatencyHistogram;
+
+/**
+ * EventJournal 只允許附加的訂單事件日誌
+ *
+ * <p>事件以固定長度的二進位記錄寫入記憶體映射的區段檔（格式見 {@link JournalSegment}），
+ * 序號由 1 起連續遞增。</p>
+ *
+ * <p>呼叫端只把事件放入有界佇列，由單一寫入執行緒一次取出佇列中所有事件寫入，
+ * 整批寫完後才 {@code force()} 一次（group commit），再完成各事件的 {@link CompletableFuture}。
+ * 佇列已滿時 {@link #append(OrderEvent)} 會等待，不會丟棄事件。</p>
+ *
+ * <p>開啟時會檢查最後一個區段，截掉當機時未寫完（CRC 不符）的記錄後從該處繼續寫入。</p>
+ */
+public class EventJournal implements Closeable {
+
+	private static final Logger logger = LoggerFactory.getLogger(EventJournal.class);
+
+	/** 每批最多寫入的事件數 */
+	private static final int MAX_BATCH = 4096;
+
+	private final Path dir;
+	private final int segmentSize;
+	private final BlockingQueue<Pending> queue;
+	private final Thread writer;
+	private final CRC32C crc = new CRC32C();
+	private final Object commitMonitor = new Object();
+
+	private final LongAdder appended = new LongAdder();
+	private final LongAdder batches = new LongAdder();
+	private final LatencyHistogram commitTime = new LatencyHistogram("µs");
+
+	/** 寫入執行緒使用中的區段，position 為下一筆記錄的位置 */
+	private MappedByteBuffer current;
+	/** 已寫入（尚未必定 force）的最後序號，只由寫入執行緒使用 */
+	private long lastWritten;
+	/** 已 force 到磁碟的最後序號 */
+	private volatile long lastSequence;
+	private volatile boolean closed;
+
+	private EventJournal(Path dir, int segmentSize, int queueCapacity) {
+		this.dir = dir;
+		this.segmentSize = segmentSize;
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		this.writer = new Thread(this::runWriter, "order-journal-writer");
+		this.writer.setDaemon(true);
+	}
+
+	/**
+	 * 開啟（不存在時建立）日誌目錄，並啟動寫入執行緒。
+	 *
+	 * @param dir           日誌目錄
+	 * @param segmentSize   每個區段檔的大小（bytes）
+	 * @param queueCapacity 等待寫入的事件佇列容量
+	 */
+	public static EventJournal open(Path dir, int segmentSize, int queueCapacity) throws IOException {
+		if (segmentSize < JournalSegment.HEADER_SIZE + JournalSegment.RECORD_SIZE) {
+			throw new IllegalArgumentException("日誌區段大小過小：" + segmentSize);
+		}
+		EventJournal journal = new EventJournal(dir, segmentSize, queueCapacity);
+		journal.recover();
+		journal.writer.start();
+		return journal;
+	}
+
+	/**
+	 * 將事件放入寫入佇列；佇列已滿時等待。
+	 *
+	 * @param event 事件（序號由日誌指派，原本的序號會被忽略）
+	 * @return 事件寫入並 force 到磁碟後完成，值為指派的序號
+	 */
+	public CompletableFuture<Long> append(OrderEvent event) {
+		if (closed) {
+			throw new IllegalStateException("訂單事件日誌已關閉");
+		}
+		Pending pending = new Pending(event);
+		try {
+			queue.put(pending);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("等待寫入訂單事件日誌時被中斷", e);
+		}
+		return pending.future;
+	}
+
+	/**
+	 * 等待指定序號的事件寫入磁碟，供追蹤讀取的消費者使用。
+	 *
+	 * @return 指定序號已寫入時為 {@code true}；逾時或日誌已關閉時為 {@code false}
+	 */
+	public boolean awaitSequence(long sequence, long timeoutMillis) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		synchronized (commitMonitor) {
+			while (lastSequence < sequence) {
+				long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+				if (closed || remaining <= 0) {
+					return false;
+				}
+				commitMonitor.wait(remaining);
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * 開啟讀取器。
+	 *
+	 * @param fromSequence 第一筆要讀取的序號
+	 */
+	public JournalReader openReader(long fromSequence) throws IOException {
+		return new JournalReader(dir, fromSequence);
+	}
+
+	public Path getDir() {
+		return dir;
+	}
+
+	/** 已寫入磁碟的最後序號；日誌為空時為 0 */
+	public long getLastSequence() {
+		return lastSequence;
+	}
+
+	/** 本次啟動後寫入的事件數 */
+	public long getAppendedCount() {
+		return appended.sum();
+	}
+
+	/** 本次啟動後的 force 次數（每批一次） */
+	public long getBatchCount() {
+		return batches.sum();
+	}
+
+	/** 目前等待寫入的事件數 */
+	public int getPendingCount() {
+		return queue.size();
+	}
+
+	public int getQueueCapacity() {
+		return queue.size() + queue.remainingCapacity();
+	}
+
+	/** 每批寫入加上 force 的耗時 */
+	public LatencyHistogram getCommitTime() {
+		return commitTime;
+	}
+
+	/**
+	 * 停止接受新事件，寫完佇列中剩餘的事件後關閉。
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		try {
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		// 關閉期間才放入佇列的事件不會被寫入
+		Pending pending;
+		while ((pending = queue.poll()) != null) {
+			pending.future.completeExceptionally(new IllegalStateException("訂單事件日誌已關閉"));
+		}
+		synchronized (commitMonitor) {
+			commitMonitor.notifyAll();
+		}
+	}
+
+	private void runWriter() {
+		List<Pending> batch = new ArrayList<>();
+		while (true) {
+			Pending first;
+			try {
+				first = queue.poll(100, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				first = queue.poll();
+			}
+			if (first == null) {
+				if (closed) {
+					break;
+				}
+				continue;
+			}
+			batch.add(first);
+			queue.drainTo(batch, MAX_BATCH - 1);
+			writeBatch(batch);
+			batch.clear();
+		}
+		logger.info("訂單事件日誌已關閉，最後序號：{}", lastSequence);
+	}
+
+	/**
+	 * 寫入一批事件並 force。
+	 *
+	 * <p>中途失敗時，目前區段中尚未 force 的記錄清為 0 並退回寫入位置，下一批從該處以相同序號重寫，
+	 * 這些事件回報失敗；換區段前已 force 的記錄仍回報成功。</p>
+	 */
+	private void writeBatch(List<Pending> batch) {
+		long start = System.nanoTime();
+		// 已 force 的最後序號，與其在目前區段中的結束位置
+		long durable = lastWritten;
+		int durablePosition = current.position();
+		Exception failure = null;
+		try {
+			for (Pending pending : batch) {
+				if (current.remaining() < JournalSegment.RECORD_SIZE) {
+					current.force();
+					durable = lastWritten;
+					// 建立新區段失敗時，舊區段已 force 的內容不清除
+					durablePosition = current.position();
+					current = createSegment(lastWritten + 1);
+					durablePosition = current.position();
+				}
+				long sequence = lastWritten + 1;
+				writeRecord(pending.event, sequence);
+				lastWritten = sequence;
+				pending.sequence = sequence;
+			}
+			current.force();
+			durable = lastWritten;
+		} catch (IOException | RuntimeException e) {
+			logger.error("寫入訂單事件日誌失敗，捨棄序號 {} 之後未寫入磁碟的記錄", durable, e);
+			failure = e;
+			discardFrom(durablePosition);
+			lastWritten = durable;
+		}
+		int completed = 0;
+		if (durable > lastSequence) {
+			synchronized (commitMonitor) {
+				lastSequence = durable;
+				commitMonitor.notifyAll();
+			}
+			batches.increment();
+		}
+		for (Pending pending : batch) {
+			if (pending.sequence > 0 && pending.sequence <= durable) {
+				pending.future.complete(pending.sequence);
+				completed++;
+			} else {
+				pending.future.completeExceptionally(failure);
+			}
+		}
+		appended.add(completed);
+		commitTime.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+	}
+
+	/**
+	 * 清除目前區段中 position 之後已寫入（含寫到一半）的記錄，並將寫入位置退回 position。
+	 */
+	private void discardFrom(int position) {
+		int end = Math.min(current.capacity(), current.position() + JournalSegment.RECORD_SIZE);
+		for (int i = position; i < end; i++) {
+			current.put(i, (byte) 0);
+		}
+		current.position(position);
+	}
+
+	private void writeRecord(OrderEvent event, long sequence) {
+		int position = current.position();
+		int payloadStart = position + JournalSegment.RECORD_HEADER_SIZE;
+		ByteBuffer payload = current.duplicate();
+		payload.position(payloadStart);
+		event.encode(payload, sequence);
+
+		ByteBuffer written = current.duplicate();
+		written.limit(payloadStart + OrderEvent.ENCODED_SIZE).position(payloadStart);
+		crc.reset();
+		crc.update(written);
+		current.putInt(position + 4, (int) crc.getValue());
+		// 最後才寫長度，讀取端看到長度時內容已寫好（仍以 CRC 再確認）
+		current.putInt(position, OrderEvent.ENCODED_SIZE);
+		current.position(payloadStart + OrderEvent.ENCODED_SIZE);
+	}
+
+	/**
+	 * 建立新區段：先寫成暫存檔並 force 標頭，再以原子搬移改為正式檔名，
+	 * 讀取端不會看到沒有標頭的區段。
+	 */
+	private MappedByteBuffer createSegment(long firstSequence) throws IOException {
+		Path target = JournalSegment.path(dir, firstSequence);
+		Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+		MappedByteBuffer buffer;
+		try (RandomAccessFile raf = new RandomAccessFile(tmp.toFile(), "rw");
+				FileChannel channel = raf.getChannel()) {
+			raf.setLength(segmentSize);
+			buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+			buffer.putInt(JournalSegment.MAGIC);
+			buffer.putInt(JournalSegment.VERSION);
+			buffer.putLong(firstSequence);
+			buffer.force();
+		}
+		Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+		logger.info("已建立訂單事件日誌區段：{}", target.getFileName());
+		return buffer;
+	}
+
+	/**
+	 * 開啟既有日誌並找出寫入位置；最後一筆完整記錄之後的內容清為 0。
+	 */
+	private void recover() throws IOException {
+		Files.createDirectories(dir);
+		try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(dir, "*.journal.tmp")) {
+			for (Path leftover : leftovers) {
+				Files.delete(leftover);
+			}
+		}
+		List<Long> firsts = JournalSegment.list(dir);
+		if (firsts.isEmpty()) {
+			current = createSegment(1L);
+			lastWritten = 0L;
+			lastSequence = 0L;
+			return;
+		}
+
+		long first = firsts.get(firsts.size() - 1);
+		MappedByteBuffer buffer = JournalSegment.map(JournalSegment.path(dir, first), first, true);
+		int position = JournalSegment.HEADER_SIZE;
+		long expected = first;
+		while (true) {
+			int length = JournalSegment.recordAt(buffer, position, crc);
+			if (length <= 0 || JournalSegment.decodeAt(buffer, position).getSequence() != expected) {
+				break;
+			}
+			position += JournalSegment.RECORD_HEADER_SIZE + length;
+			expected++;
+		}
+		if (position + JournalSegment.RECORD_HEADER_SIZE <= buffer.capacity() && buffer.getInt(position) != 0) {
+			logger.warn("訂單事件日誌區段 {} 結尾有未寫完的記錄，已於序號 {} 之後截斷", first, expected - 1);
+			for (int i = position; i < buffer.capacity(); i++) {
+				buffer.put(i, (byte) 0);
+			}
+			buffer.force();
+		}
+		buffer.position(position);
+		current = buffer;
+		lastWritten = expected - 1;
+		lastSequence = lastWritten;
+		logger.info("已開啟訂單事件日誌 {}，最後序號：{}", dir, lastSequence);
+	}
+
+	private static final class Pending {
+		final OrderEvent event;
+		final CompletableFuture<Long> future = new CompletableFuture<>();
+		long sequence;
+
+		Pending(OrderEvent event) {
+			this.event = event;
+		}
+	}
+}
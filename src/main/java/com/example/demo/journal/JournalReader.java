@@ -0,0 +1,137 @@
+package com.example.demo.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * JournalReader 訂單事件日誌讀取器
+ *
+ * <p>從指定序號開始依序讀取事件，可用於：</p>
+ * <ul>
+ *   <li>重播：{@link #replay(Consumer)} 讀到目前日誌結尾為止</li>
+ *   <li>追蹤：反覆呼叫 {@link #poll(int)}，每次取得上次之後新寫入的事件；
+ *       可搭配 {@link EventJournal#awaitSequence(long, long)} 等待新事件</li>
+ * </ul>
+ *
+ * <p>讀取器直接映射區段檔，不經過寫入端；同一程序或其他程序皆可開啟。
+ * 非執行緒安全，每個消費者各自建立一個讀取器。</p>
+ */
+public class JournalReader implements Closeable {
+
+	private final Path dir;
+	private final CRC32C crc = new CRC32C();
+
+	private ByteBuffer segment;
+	private long segmentFirst;
+	private int position;
+	private long nextSequence;
+
+	/**
+	 * @param dir          日誌目錄
+	 * @param fromSequence 第一筆要讀取的序號；小於最早保留的序號時從最早的事件開始
+	 */
+	public JournalReader(Path dir, long fromSequence) throws IOException {
+		this.dir = dir;
+		long from = Math.max(1L, fromSequence);
+		List<Long> firsts = JournalSegment.list(dir);
+		if (firsts.isEmpty()) {
+			nextSequence = from;
+			return;
+		}
+		long first = firsts.get(0);
+		for (long candidate : firsts) {
+			if (candidate <= from) {
+				first = candidate;
+			}
+		}
+		openSegment(first);
+		// 略過區段中序號較小的事件
+		while (nextSequence < from && readNext() != null) {
+			// 繼續略過
+		}
+	}
+
+	/**
+	 * 讀取目前可讀的事件，最多 {@code maxEvents} 筆；沒有新事件時回傳空清單。
+	 */
+	public List<OrderEvent> poll(int maxEvents) throws IOException {
+		List<OrderEvent> events = new ArrayList<>(Math.min(maxEvents, 1024));
+		while (events.size() < maxEvents) {
+			OrderEvent event = readNext();
+			if (event == null) {
+				break;
+			}
+			events.add(event);
+		}
+		return events;
+	}
+
+	/**
+	 * 依序處理目前日誌中剩餘的所有事件。
+	 *
+	 * @return 處理的事件數
+	 */
+	public long replay(Consumer<OrderEvent> consumer) throws IOException {
+		long count = 0;
+		List<OrderEvent> events;
+		while (!(events = poll(1024)).isEmpty()) {
+			events.forEach(consumer);
+			count += events.size();
+		}
+		return count;
+	}
+
+	/** 下一筆要讀取的序號 */
+	public long getNextSequence() {
+		return nextSequence;
+	}
+
+	@Override
+	public void close() {
+		segment = null;
+	}
+
+	private OrderEvent readNext() throws IOException {
+		while (true) {
+			if (segment == null) {
+				// 日誌原本為空，檢查第一個區段是否已建立
+				if (!Files.exists(JournalSegment.path(dir, nextSequence))) {
+					return null;
+				}
+				openSegment(nextSequence);
+			}
+			int length = JournalSegment.recordAt(segment, position, crc);
+			if (length > 0) {
+				OrderEvent event = JournalSegment.decodeAt(segment, position);
+				if (event.getSequence() != nextSequence) {
+					throw new IOException("日誌序號不連續：預期 " + nextSequence + "，實際 " + event.getSequence());
+				}
+				position += JournalSegment.RECORD_HEADER_SIZE + length;
+				nextSequence++;
+				return event;
+			}
+			if (nextSequence == segmentFirst || !Files.exists(JournalSegment.path(dir, nextSequence))) {
+				// 已讀到結尾，或寫入端正在寫入這一筆
+				return null;
+			}
+			if (length == JournalSegment.INVALID) {
+				throw new IOException("日誌區段內容損毀，序號 " + nextSequence + " 之前");
+			}
+			openSegment(nextSequence);
+		}
+	}
+
+	private void openSegment(long firstSequence) throws IOException {
+		segment = JournalSegment.map(JournalSegment.path(dir, firstSequence), firstSequence, false);
+		segmentFirst = firstSequence;
+		position = JournalSegment.HEADER_SIZE;
+		nextSequence = firstSequence;
+	}
+}
@@ -0,0 +1,121 @@
+package com.example.demo.journal;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * JournalSegment 日誌區段檔案格式
+ *
+ * <p>日誌由多個固定大小的區段檔組成，檔名為區段第一筆事件的序號（20 位數補零）。
+ * 每個區段以記憶體映射讀寫，未寫入的部分為 0。</p>
+ *
+ * <pre>
+ * 區段標頭：int MAGIC | int 版本 | long 第一筆序號
+ * 每筆記錄：int 內容長度 | int 內容 CRC32C | 內容（{@link OrderEvent} 編碼）
+ * </pre>
+ *
+ * <p>寫入時最後才寫長度欄位，長度為 0 表示之後沒有資料；
+ * 讀取時以 CRC 確認內容完整，可辨識寫入到一半（或當機時未寫完）的記錄。</p>
+ */
+final class JournalSegment {
+
+	static final int MAGIC = 0x4F524A4C; // "ORJL"
+	static final int VERSION = 1;
+	static final int HEADER_SIZE = 16;
+	static final int RECORD_HEADER_SIZE = 8;
+	static final int RECORD_SIZE = RECORD_HEADER_SIZE + OrderEvent.ENCODED_SIZE;
+
+	/** 記錄狀態：之後沒有資料 */
+	static final int END = 0;
+	/** 記錄狀態：內容不完整或損毀 */
+	static final int INVALID = -1;
+
+	private static final String SUFFIX = ".journal";
+
+	private JournalSegment() {
+	}
+
+	static Path path(Path dir, long firstSequence) {
+		return dir.resolve(String.format("%020d%s", firstSequence, SUFFIX));
+	}
+
+	/**
+	 * 列出目錄中所有區段的第一筆序號（由小到大）。
+	 */
+	static List<Long> list(Path dir) throws IOException {
+		List<Long> firsts = new ArrayList<>();
+		if (!Files.isDirectory(dir)) {
+			return firsts;
+		}
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+			for (Path file : stream) {
+				String name = file.getFileName().toString();
+				try {
+					firsts.add(Long.parseLong(name.substring(0, name.length() - SUFFIX.length())));
+				} catch (NumberFormatException e) {
+					// 非區段檔，略過
+				}
+			}
+		}
+		Collections.sort(firsts);
+		return firsts;
+	}
+
+	/**
+	 * 以記憶體映射開啟整個區段檔，並檢查標頭。
+	 */
+	static MappedByteBuffer map(Path file, long expectedFirst, boolean writable) throws IOException {
+		try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), writable ? "rw" : "r");
+				FileChannel channel = raf.getChannel()) {
+			MappedByteBuffer buffer = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY,
+					0, channel.size());
+			if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+					|| buffer.getLong(8) != expectedFirst) {
+				throw new IOException("日誌區段標頭不正確：" + file);
+			}
+			return buffer;
+		}
+	}
+
+	/**
+	 * 檢查指定位置的記錄。
+	 *
+	 * @return 記錄內容長度；{@link #END} 表示之後沒有資料；{@link #INVALID} 表示內容不完整或損毀
+	 */
+	static int recordAt(ByteBuffer buffer, int position, CRC32C crc) {
+		if (position + RECORD_HEADER_SIZE > buffer.capacity()) {
+			return END;
+		}
+		int length = buffer.getInt(position);
+		if (length == 0) {
+			return END;
+		}
+		if (length != OrderEvent.ENCODED_SIZE || position + RECORD_HEADER_SIZE + length > buffer.capacity()) {
+			return INVALID;
+		}
+		ByteBuffer payload = buffer.duplicate();
+		payload.limit(position + RECORD_HEADER_SIZE + length).position(position + RECORD_HEADER_SIZE);
+		crc.reset();
+		crc.update(payload);
+		return (int) crc.getValue() == buffer.getInt(position + 4) ? length : INVALID;
+	}
+
+	/**
+	 * 讀出指定位置（已確認有效）的記錄內容。
+	 */
+	static OrderEvent decodeAt(ByteBuffer buffer, int position) {
+		ByteBuffer payload = buffer.duplicate();
+		payload.position(position + RECORD_HEADER_SIZE);
+		return OrderEvent.decode(payload);
+	}
+}
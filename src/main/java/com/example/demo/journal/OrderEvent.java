@@ -0,0 +1,165 @@
+package com.example.demo.journal;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+import com.example.demo.model.Order;
+
+/**
+ * OrderEvent 訂單生命週期事件
+ *
+ * <p>記錄訂單建立、付款、取消的事實，以固定長度的二進位格式寫入 {@link EventJournal}。
+ * 序號由日誌在寫入時依序指派，尚未寫入的事件序號為 0。</p>
+ *
+ * <p>編碼格式（{@value #ENCODED_SIZE} bytes，big-endian）：</p>
+ * <pre>
+ * long 序號 | long 時間（epoch 毫秒）| byte 事件類型 | long 訂單 ID | long 顧客 ID
+ * | byte 金額 scale（{@value #NULL_SCALE} 表示無金額）| long 金額 unscaled 值 | int 商品明細數
+ * </pre>
+ */
+public final class OrderEvent {
+
+	/** 事件類型，代碼寫入日誌後不可變更 */
+	public enum Type {
+		/** 訂單建立 */
+		CREATED(1),
+		/** 訂單付款 */
+		PAID(2),
+		/** 訂單取消 */
+		CANCELLED(3);
+
+		private final byte code;
+
+		Type(int code) {
+			this.code = (byte) code;
+		}
+
+		public byte getCode() {
+			return code;
+		}
+
+		static Type fromCode(byte code) {
+			for (Type type : values()) {
+				if (type.code == code) {
+					return type;
+				}
+			}
+			throw new IllegalArgumentException("未知的訂單事件類型：" + code);
+		}
+	}
+
+	/** 編碼後的長度 */
+	public static final int ENCODED_SIZE = 8 + 8 + 1 + 8 + 8 + 1 + 8 + 4;
+
+	private static final byte NULL_SCALE = Byte.MIN_VALUE;
+
+	private final long sequence;
+	private final Type type;
+	private final long timestamp;
+	private final long orderId;
+	private final long customerId;
+	private final BigDecimal totalAmount;
+	private final int itemCount;
+
+	public OrderEvent(long sequence, Type type, long timestamp, long orderId, long customerId, BigDecimal totalAmount,
+			int itemCount) {
+		this.sequence = sequence;
+		this.type = type;
+		this.timestamp = timestamp;
+		this.orderId = orderId;
+		this.customerId = customerId;
+		this.totalAmount = totalAmount;
+		this.itemCount = itemCount;
+	}
+
+	/**
+	 * 依訂單目前狀態建立事件，時間為呼叫當下。
+	 *
+	 * @param type  事件類型
+	 * @param order 已儲存（有 ID）的訂單
+	 */
+	public static OrderEvent of(Type type, Order order) {
+		return new OrderEvent(0L, type, System.currentTimeMillis(), order.getId(), order.getCustomer().getId(),
+				order.getTotalAmount(), order.getItems().size());
+	}
+
+	/**
+	 * 以指定序號寫入緩衝區。
+	 */
+	void encode(ByteBuffer buffer, long assignedSequence) {
+		buffer.putLong(assignedSequence);
+		buffer.putLong(timestamp);
+		buffer.put(type.code);
+		buffer.putLong(orderId);
+		buffer.putLong(customerId);
+		if (totalAmount == null) {
+			buffer.put(NULL_SCALE);
+			buffer.putLong(0L);
+		} else {
+			buffer.put((byte) totalAmount.scale());
+			buffer.putLong(totalAmount.unscaledValue().longValueExact());
+		}
+		buffer.putInt(itemCount);
+	}
+
+	/**
+	 * 從緩衝區目前位置讀出一筆事件。
+	 */
+	static OrderEvent decode(ByteBuffer buffer) {
+		long sequence = buffer.getLong();
+		long timestamp = buffer.getLong();
+		Type type = Type.fromCode(buffer.get());
+		long orderId = buffer.getLong();
+		long customerId = buffer.getLong();
+		byte scale = buffer.get();
+		long unscaled = buffer.getLong();
+		int itemCount = buffer.getInt();
+		BigDecimal amount = scale == NULL_SCALE ? null : new BigDecimal(BigInteger.valueOf(unscaled), scale);
+		return new OrderEvent(sequence, type, timestamp, orderId, customerId, amount, itemCount);
+	}
+
+	/** 日誌序號（由 1 起算、連續遞增）；尚未寫入時為 0 */
+	public long getSequence() {
+		return sequence;
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	/** 事件發生時間（epoch 毫秒） */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	public Instant getInstant() {
+		return Instant.ofEpochMilli(timestamp);
+	}
+
+	public long getOrderId() {
+		return orderId;
+	}
+
+	public long getCustomerId() {
+		return customerId;
+	}
+
+	/** 事件當下的訂單總金額 */
+	public BigDecimal getTotalAmount() {
+		return totalAmount;
+	}
+
+	/** 訂單商品明細數 */
+	public int getItemCount() {
+		return itemCount;
+	}
+
+	@Override
+	public String toString() {
+		return "OrderEvent{" + "sequence=" + sequence + ", type=" + type + ", orderId=" + orderId + ", customerId="
+				+ customerId + ", totalAmount=" + totalAmount + ", itemCount=" + itemCount + ", time=" + getInstant()
+				+ '}';
+	}
+}
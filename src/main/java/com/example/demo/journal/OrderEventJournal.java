@@ -0,0 +1,98 @@
+package com.example.demo.journal;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.model.Order;
+import com.example.demo.util.TransactionCallbacks;
+
+/**
+ * OrderEventJournal 訂單事件日誌元件
+ *
+ * <p>訂單建立、付款、取消時記錄一筆 {@link OrderEvent}，取代原本逐筆格式化的文字記錄：</p>
+ * <ul>
+ *   <li>事件於交易提交後才放入日誌，回滾的訂單不會留下事件</li>
+ *   <li>實際寫入與 force 由 {@link EventJournal} 的寫入執行緒批次處理，不佔用請求執行緒</li>
+ *   <li>其他元件可透過 {@link #openReader(long)} 重播或追蹤事件</li>
+ * </ul>
+ */
+@Component
+public class OrderEventJournal implements InitializingBean, DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(OrderEventJournal.class);
+
+	@Autowired
+	private Environment env;
+
+	private EventJournal journal;
+
+	@Override
+	public void afterPropertiesSet() throws IOException {
+		if (!env.getProperty("journal.enabled", Boolean.class, false)) {
+			return;
+		}
+		Path dir = Paths.get(env.getProperty("journal.dir",
+				System.getProperty("java.io.tmpdir") + "/eshop-order-journal")).toAbsolutePath().normalize();
+		int segmentSize = env.getProperty("journal.segmentSizeMb", Integer.class, 64) * 1024 * 1024;
+		int queueCapacity = env.getProperty("journal.queueCapacity", Integer.class, 8192);
+		journal = EventJournal.open(dir, segmentSize, queueCapacity);
+	}
+
+	@Override
+	public void destroy() {
+		if (journal != null) {
+			journal.close();
+			journal = null;
+		}
+	}
+
+	/**
+	 * 記錄訂單事件；有交易時於提交後才放入日誌。
+	 *
+	 * @param type  事件類型
+	 * @param order 已儲存的訂單，事件內容取自呼叫當下的訂單狀態
+	 */
+	public void record(OrderEvent.Type type, Order order) {
+		EventJournal journal = this.journal;
+		if (journal == null) {
+			return;
+		}
+		OrderEvent event = OrderEvent.of(type, order);
+		TransactionCallbacks.afterCommit(() -> {
+			try {
+				journal.append(event);
+			} catch (IllegalStateException e) {
+				// 訂單已提交，日誌無法寫入不應讓請求失敗
+				logger.error("無法記錄訂單事件：{}", event, e);
+			}
+		});
+	}
+
+	/**
+	 * 開啟讀取器，從指定序號開始重播或追蹤事件。
+	 */
+	public JournalReader openReader(long fromSequence) throws IOException {
+		if (journal == null) {
+			throw new IllegalStateException("訂單事件日誌未啟用");
+		}
+		return journal.openReader(fromSequence);
+	}
+
+	public boolean isEnabled() {
+		return journal != null;
+	}
+
+	/** 底層日誌；未啟用時為 {@code null} */
+	public EventJournal getJournal() {
+		return journal;
+	}
+}
@@ -0,0 +1,69 @@
+package com.example.demo.logging;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import ch.qos.logback.core.rolling.RollingFileAppender;
+
+/**
+ * BufferedRollingFileAppender 批次寫出的滾動檔案輸出
+ *
+ * <p>搭配 {@code immediateFlush=false} 使用：記錄先累積在緩衝區，
+ * 緩衝區滿或每隔 {@code flushIntervalMs} 毫秒才寫入檔案，避免每筆記錄都觸發一次系統呼叫。
+ * 程式結束時由 logback 關閉輸出並寫出剩餘內容。</p>
+ */
+public class BufferedRollingFileAppender<E> extends RollingFileAppender<E> {
+
+	private long flushIntervalMs = 1000;
+
+	private ScheduledFuture<?> flushTask;
+
+	@Override
+	public void start() {
+		super.start();
+		if (isStarted() && !isImmediateFlush() && flushIntervalMs > 0) {
+			flushTask = getContext().getScheduledExecutorService()
+					.scheduleAtFixedRate(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+			getContext().addScheduledFuture(flushTask);
+		}
+	}
+
+	@Override
+	public void stop() {
+		if (flushTask != null) {
+			flushTask.cancel(false);
+			flushTask = null;
+		}
+		super.stop();
+	}
+
+	/**
+	 * 將緩衝區內容寫入檔案。
+	 */
+	public void flush() {
+		streamWriteLock.lock();
+		try {
+			OutputStream out = getOutputStream();
+			if (out != null) {
+				out.flush();
+			}
+		} catch (IOException e) {
+			addWarn("寫出記錄緩衝區失敗", e);
+		} finally {
+			streamWriteLock.unlock();
+		}
+	}
+
+	public long getFlushIntervalMs() {
+		return flushIntervalMs;
+	}
+
+	/**
+	 * @param flushIntervalMs 定期寫出的間隔（毫秒），0 表示只在緩衝區滿時寫出
+	 */
+	public void setFlushIntervalMs(long flushIntervalMs) {
+		this.flushIntervalMs = flushIntervalMs;
+	}
+}
@@ -0,0 +1,31 @@
+package com.example.demo.logging;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.LoggerContext;
+
+/**
+ * LoggingShutdownListener 應用程式停止時關閉 logback
+ *
+ * <p>非同步輸出的佇列與檔案緩衝區中可能還有尚未寫出的記錄；
+ * 應用程式停止（含重新部署）時停止 logback，寫出剩餘記錄並結束背景執行緒。
+ * 在 web.xml 中需註冊於 Spring 的 ContextLoaderListener 之前，才會在 Spring 關閉後執行。</p>
+ */
+public class LoggingShutdownListener implements ServletContextListener {
+
+	@Override
+	public void contextInitialized(ServletContextEvent event) {
+	}
+
+	@Override
+	public void contextDestroyed(ServletContextEvent event) {
+		ILoggerFactory factory = LoggerFactory.getILoggerFactory();
+		if (factory instanceof LoggerContext) {
+			((LoggerContext) factory).stop();
+		}
+	}
+}
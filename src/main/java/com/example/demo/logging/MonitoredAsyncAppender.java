@@ -0,0 +1,81 @@
+package com.example.demo.logging;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.example.demo.metrics.LatencyHistogram;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * MonitoredAsyncAppender 附帶統計的非同步記錄輸出
+ *
+ * <p>記錄事件只放入有界佇列即返回，由背景執行緒寫入實際的輸出（檔案、主控台），
+ * 請求執行緒不需等待磁碟 I/O。佇列滿時的處理方式由 logback 設定決定：</p>
+ * <ul>
+ *   <li>{@code discardingThreshold}：剩餘容量低於此值時丟棄 INFO 以下的事件（0 表示不丟棄）</li>
+ *   <li>{@code neverBlock}：佇列已滿時直接丟棄（true），或讓呼叫端等待（false，背壓）</li>
+ * </ul>
+ *
+ * <p>額外統計佇列深度高點、丟棄與等待次數、放入佇列的耗時，由後台 {@code /admin/metrics} 顯示。
+ * 佇列滿時的丟棄與等待次數在併發下為近似值。</p>
+ */
+public class MonitoredAsyncAppender extends AsyncAppender {
+
+	private final LongAdder discarded = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder blocked = new LongAdder();
+	private final LongAccumulator peakDepth = new LongAccumulator(Long::max, 0L);
+	private final LatencyHistogram appendTime = new LatencyHistogram("ns");
+
+	@Override
+	protected boolean isDiscardable(ILoggingEvent event) {
+		// 只在剩餘容量低於門檻時呼叫，回傳 true 的事件即被丟棄
+		boolean discardable = super.isDiscardable(event);
+		if (discardable) {
+			discarded.increment();
+		}
+		return discardable;
+	}
+
+	@Override
+	protected void append(ILoggingEvent event) {
+		long start = System.nanoTime();
+		if (getRemainingCapacity() == 0 && !(getDiscardingThreshold() > 0 && super.isDiscardable(event))) {
+			if (isNeverBlock()) {
+				dropped.increment();
+			} else {
+				blocked.increment();
+			}
+		}
+		super.append(event);
+		appendTime.record(System.nanoTime() - start);
+		peakDepth.accumulate(getNumberOfElementsInQueue());
+	}
+
+	/** 因剩餘容量低於門檻而丟棄的 INFO 以下事件數 */
+	public long getDiscardedCount() {
+		return discarded.sum();
+	}
+
+	/** 佇列已滿且設定為不等待（neverBlock）而丟棄的事件數 */
+	public long getDroppedCount() {
+		return dropped.sum();
+	}
+
+	/** 佇列已滿時呼叫端必須等待的次數 */
+	public long getBlockedCount() {
+		return blocked.sum();
+	}
+
+	/** 啟動以來觀察到的最大佇列深度 */
+	public long getPeakDepth() {
+		return peakDepth.get();
+	}
+
+	/** 呼叫端放入佇列（含訊息格式化）的耗時分布，單位奈秒 */
+	public LatencyHistogram getAppendTime() {
+		return appendTime;
+	}
+}
@@ -0,0 +1,51 @@
+package com.example.demo.metrics;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.logging.MonitoredAsyncAppender;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+
+/**
+ * AsyncLogMetrics 非同步記錄輸出統計
+ *
+ * <p>從 logback 設定中找出所有 {@link MonitoredAsyncAppender}，
+ * 提供佇列容量、目前深度與丟棄次數等資訊給後台 {@code /admin/metrics} 頁面。</p>
+ */
+@Component
+public class AsyncLogMetrics {
+
+	/**
+	 * 取得目前設定中的非同步輸出（依名稱去除重複）。
+	 *
+	 * @return 非同步輸出清單；logback 未使用或沒有設定時為空清單
+	 */
+	public List<MonitoredAsyncAppender> getAppenders() {
+		ILoggerFactory factory = LoggerFactory.getILoggerFactory();
+		if (!(factory instanceof LoggerContext)) {
+			return new ArrayList<>();
+		}
+		Map<String, MonitoredAsyncAppender> appenders = new LinkedHashMap<>();
+		for (Logger logger : ((LoggerContext) factory).getLoggerList()) {
+			Iterator<Appender<ILoggingEvent>> it = logger.iteratorForAppenders();
+			while (it.hasNext()) {
+				Appender<ILoggingEvent> appender = it.next();
+				if (appender instanceof MonitoredAsyncAppender) {
+					appenders.putIfAbsent(appender.getName(), (MonitoredAsyncAppender) appender);
+				}
+			}
+		}
+		return new ArrayList<>(appenders.values());
+	}
+}
@@ -0,0 +1,107 @@
+package com.example.demo.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * ConnectionPoolMetrics 連線池統計
+ *
+ * <p>實作 HikariCP 的 {@link MetricsTrackerFactory}，在每個連線池建立時
+ * 註冊一組 {@link PoolMetrics}，收集：</p>
+ * <ul>
+ *   <li>使用中、閒置、等待中的連線數（由 HikariCP 定期更新的 {@link PoolStats}）</li>
+ *   <li>取得連線耗時分布（微秒）</li>
+ *   <li>連線使用時間分布（毫秒）</li>
+ *   <li>建立實體連線耗時分布（毫秒）</li>
+ *   <li>取得連線逾時次數</li>
+ * </ul>
+ *
+ * <p>統計結果由後台 {@code /admin/metrics} 頁面顯示。</p>
+ */
+public class ConnectionPoolMetrics implements MetricsTrackerFactory {
+
+	private final Map<String, PoolMetrics> pools = new ConcurrentHashMap<>();
+
+	@Override
+	public IMetricsTracker create(String poolName, PoolStats poolStats) {
+		PoolMetrics metrics = new PoolMetrics(poolName, poolStats);
+		pools.put(poolName, metrics);
+		return metrics;
+	}
+
+	/**
+	 * 取得所有已註冊連線池的統計。
+	 *
+	 * @return 連線池統計清單；若未啟用連線池則為空集合
+	 */
+	public List<PoolMetrics> getPools() {
+		return new ArrayList<>(pools.values());
+	}
+
+	/**
+	 * 單一連線池的統計資料。
+	 */
+	public static class PoolMetrics implements IMetricsTracker {
+		private final String poolName;
+		private final PoolStats poolStats;
+		private final LatencyHistogram acquireTime = new LatencyHistogram("µs");
+		private final LatencyHistogram usageTime = new LatencyHistogram("ms");
+		private final LatencyHistogram creationTime = new LatencyHistogram("ms");
+		private final LongAdder timeouts = new LongAdder();
+
+		PoolMetrics(String poolName, PoolStats poolStats) {
+			this.poolName = poolName;
+			this.poolStats = poolStats;
+		}
+
+		@Override
+		public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+			acquireTime.record(TimeUnit.NANOSECONDS.toMicros(elapsedAcquiredNanos));
+		}
+
+		@Override
+		public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+			usageTime.record(elapsedBorrowedMillis);
+		}
+
+		@Override
+		public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+			creationTime.record(connectionCreatedMillis);
+		}
+
+		@Override
+		public void recordConnectionTimeout() {
+			timeouts.increment();
+		}
+
+		public String getPoolName() { return poolName; }
+
+		public int getActiveConnections() { return poolStats.getActiveConnections(); }
+
+		public int getIdleConnections() { return poolStats.getIdleConnections(); }
+
+		public int getTotalConnections() { return poolStats.getTotalConnections(); }
+
+		public int getPendingThreads() { return poolStats.getPendingThreads(); }
+
+		public int getMaxConnections() { return poolStats.getMaxConnections(); }
+
+		public int getMinConnections() { return poolStats.getMinConnections(); }
+
+		public long getTimeouts() { return timeouts.sum(); }
+
+		public LatencyHistogram getAcquireTime() { return acquireTime; }
+
+		public LatencyHistogram getUsageTime() { return usageTime; }
+
+		public LatencyHistogram getCreationTime() { return creationTime; }
+	}
+}
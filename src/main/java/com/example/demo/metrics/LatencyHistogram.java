@@ -0,0 +1,143 @@
+package com.example.demo.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram 延遲分布統計
+ *
+ * <p>以固定的指數級距（1, 2, 4, 8 ... 2^n）累計數值分布，
+ * 每個級距使用 {@link LongAdder}，在高併發下記錄時不需加鎖。</p>
+ *
+ * <p>數值單位由呼叫端決定（例如微秒或毫秒），本類別只負責累計與估算百分位數。</p>
+ */
+public class LatencyHistogram {
+
+	/** 級距數量，最後一格收納所有超過上限的數值 */
+	private static final int BUCKETS = 32;
+
+	private final String unit;
+
+	private final LongAdder[] counts = new LongAdder[BUCKETS];
+
+	private final LongAdder total = new LongAdder();
+
+	private final LongAdder sum = new LongAdder();
+
+	private final LongAccumulator max = new LongAccumulator(Long::max, 0L);
+
+	/**
+	 * @param unit 顯示用的數值單位，例如 "µs"、"ms"
+	 */
+	public LatencyHistogram(String unit) {
+		this.unit = unit;
+		for (int i = 0; i < BUCKETS; i++) {
+			counts[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * 記錄一筆數值。
+	 *
+	 * @param value 數值；負數視為 0
+	 */
+	public void record(long value) {
+		long v = Math.max(0L, value);
+		counts[bucketOf(v)].increment();
+		total.increment();
+		sum.add(v);
+		max.accumulate(v);
+	}
+
+	/**
+	 * 取得數值所屬級距：第 i 格涵蓋 (2^(i-1), 2^i]。
+	 */
+	private static int bucketOf(long value) {
+		if (value <= 1) {
+			return 0;
+		}
+		int bucket = 64 - Long.numberOfLeadingZeros(value - 1);
+		return Math.min(bucket, BUCKETS - 1);
+	}
+
+	/**
+	 * 第 i 格的上限值。
+	 */
+	private static long upperBound(int bucket) {
+		return 1L << bucket;
+	}
+
+	public String getUnit() { return unit; }
+
+	public long getCount() { return total.sum(); }
+
+	public long getMax() { return max.get(); }
+
+	public double getMean() {
+		long n = total.sum();
+		return n == 0 ? 0.0 : (double) sum.sum() / n;
+	}
+
+	/**
+	 * 估算百分位數（回傳所在級距的上限）。
+	 *
+	 * @param percentile 0 ~ 100
+	 * @return 估算值；無資料時回傳 0
+	 */
+	public long getPercentile(double percentile) {
+		long n = total.sum();
+		if (n == 0) {
+			return 0;
+		}
+		long threshold = (long) Math.ceil(n * percentile / 100.0);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += counts[i].sum();
+			if (seen >= threshold) {
+				return Math.min(upperBound(i), getMax());
+			}
+		}
+		return getMax();
+	}
+
+	public long getP50() { return getPercentile(50); }
+
+	public long getP95() { return getPercentile(95); }
+
+	public long getP99() { return getPercentile(99); }
+
+	/**
+	 * 取得非空的級距清單，供後台頁面顯示分布。
+	 *
+	 * @return 每格的上限與筆數
+	 */
+	public List<Bucket> getBuckets() {
+		List<Bucket> result = new ArrayList<>();
+		for (int i = 0; i < BUCKETS; i++) {
+			long c = counts[i].sum();
+			if (c > 0) {
+				result.add(new Bucket(i == BUCKETS - 1 ? Long.MAX_VALUE : upperBound(i), c));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * 單一級距的快照。
+	 */
+	public static class Bucket {
+		private final long upperBound;
+		private final long count;
+
+		Bucket(long upperBound, long count) {
+			this.upperBound = upperBound;
+			this.count = count;
+		}
+
+		public long getUpperBound() { return upperBound; }
+
+		public long getCount() { return count; }
+	}
+}
@@ -1,4 +1,5 @@
 package com.example.demo.model;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -18,6 +19,19 @@ public class Cart {
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<CartItem> items = new ArrayList<>();
 
+    /** 購物車總金額，明細異動時由 {@link #recalculateTotal()} 維護；舊資料可能為 null */
+    @Column(precision = 10, scale = 2)
+    private BigDecimal total = BigDecimal.ZERO;
+
+    /**
+     * 依目前明細重新計算總金額，明細新增、修改或移除後呼叫。
+     */
+    public void recalculateTotal() {
+        this.total = items.stream()
+                .map(CartItem::getSubtotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
 	public Long getId() {return id;}
 	public void setId(Long id) {this.id = id;}
 
@@ -26,6 +40,8 @@ public class Cart {
 	
 	public List<CartItem> getItems() {return items;}
 	public void setItems(List<CartItem> items) {this.items = items;}
+
+	public BigDecimal getTotal() {return total;}
     
 }
 
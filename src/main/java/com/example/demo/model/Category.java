@@ -3,9 +3,17 @@ package com.example.demo.model;
 import java.util.List;
 
 import javax.persistence.*;
+
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 @Entity
 @Table(name = "categories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Category.CACHE_REGION)
 public class Category {
+
+    /** 二級快取區域名稱 */
+    public static final String CACHE_REGION = "category";
 	@Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
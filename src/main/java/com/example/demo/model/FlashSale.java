@@ -0,0 +1,54 @@
+package com.example.demo.model;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.*;
+
+/**
+ * FlashSale 限時搶購設定
+ *
+ * <p>每項商品一筆，記錄是否啟用搶購模式，以及本次啟用後從商品庫存移入記憶體的總數（allocated）。
+ * allocated 與商品庫存在同一個交易中更新，重新啟動時以此核對記憶體中未售出的數量。</p>
+ */
+@Entity
+@Table(name = "flash_sales")
+public class FlashSale {
+
+    /** 商品 ID，同時作為主鍵 */
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "active", nullable = false)
+    private boolean active;
+
+    /** 本次啟用後從資料庫庫存移入記憶體的總數（已歸還的數量會扣除） */
+    @Column(name = "allocated", nullable = false)
+    private int allocated;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    // Getter / Setter
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public boolean isActive() { return active; }
+    public void setActive(boolean active) { this.active = active; }
+
+    public int getAllocated() { return allocated; }
+    public void setAllocated(int allocated) { this.allocated = allocated; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    @Override
+    public String toString() {
+        return "FlashSale{" +
+                "productId=" + productId +
+                ", active=" + active +
+                ", allocated=" + allocated +
+                ", startedAt=" + startedAt +
+                '}';
+    }
+}
@@ -9,7 +9,10 @@ import javax.persistence.*;
 
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // 顧客訂單歷史依建立時間的游標分頁（customer_id, created_at）
+        @Index(name = "idx_orders_customer_created", columnList = "customer_id, created_at")
+})
 public class Order {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
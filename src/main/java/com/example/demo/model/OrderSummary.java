@@ -0,0 +1,75 @@
+package com.example.demo.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import javax.persistence.*;
+
+/**
+ * OrderSummary 訂單列表用的訂單摘要
+ *
+ * <p>訂單列表只顯示編號、狀態、總金額、建立時間與商品數，
+ * 這些欄位在建立、付款、取消訂單時同步寫入此表（見 {@code OrderServiceImpl}），
+ * 列表頁以 {@code (customer_id, created_at)} 索引一次讀出一頁，不載入訂單明細與商品。</p>
+ */
+@Entity
+@Table(name = "order_summary", indexes = {
+        // 顧客訂單列表依建立時間的游標分頁
+        @Index(name = "idx_order_summary_customer_created", columnList = "customer_id, created_at")
+})
+public class OrderSummary {
+
+    /** 與 {@link Order} 相同的 ID */
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "customer_id", nullable = false)
+    private Long customerId;
+
+    @Column(length = 20)
+    private String status;
+
+    @Column(name = "total_amount", precision = 10, scale = 2)
+    private BigDecimal totalAmount;
+
+    /** 商品總件數 */
+    @Column(name = "item_count", nullable = false)
+    private int itemCount;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    /**
+     * 由剛建立的訂單產生摘要。
+     */
+    public static OrderSummary of(Order order) {
+        OrderSummary summary = new OrderSummary();
+        summary.orderId = order.getId();
+        summary.customerId = order.getCustomer().getId();
+        summary.status = order.getStatus();
+        summary.totalAmount = order.getTotalAmount();
+        summary.itemCount = order.getItems().stream().mapToInt(OrderItem::getQuantity).sum();
+        summary.createdAt = order.getCreatedAt();
+        return summary;
+    }
+
+    // getter/setter
+	public Long getOrderId() {return orderId;}
+	public void setOrderId(Long orderId) {this.orderId = orderId;}
+
+	public Long getCustomerId() {return customerId;}
+	public void setCustomerId(Long customerId) {this.customerId = customerId;}
+
+	public String getStatus() {return status;}
+	public void setStatus(String status) {this.status = status;}
+
+	public BigDecimal getTotalAmount() {return totalAmount;}
+	public void setTotalAmount(BigDecimal totalAmount) {this.totalAmount = totalAmount;}
+
+	public int getItemCount() {return itemCount;}
+	public void setItemCount(int itemCount) {this.itemCount = itemCount;}
+
+	public LocalDateTime getCreatedAt() {return createdAt;}
+	public void setCreatedAt(LocalDateTime createdAt) {this.createdAt = createdAt;}
+}
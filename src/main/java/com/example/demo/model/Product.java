@@ -4,9 +4,22 @@ import java.math.BigDecimal;
 
 import javax.persistence.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.example.demo.image.ImageVariant;
+
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // 依價格排序的游標分頁（price, id）
+        @Index(name = "idx_products_price_id", columnList = "price, id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Product.CACHE_REGION)
 public class Product {
+
+    /** 二級快取區域名稱 */
+    public static final String CACHE_REGION = "product";
 	
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -23,9 +36,18 @@ public class Product {
     
     @Column(name = "stock", nullable = false)
     private Integer stock = 0;
+
+    /** 樂觀鎖版本，庫存以 SQL 直接更新時也會一併遞增 */
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+    private long version;
     
 	@Column(name = "image_url", length = 500)
     private String imageUrl;
+
+    /** 上傳圖片的縮圖（見 {@link ImageVariant}）是否都已產生 */
+    @Column(name = "image_variants", nullable = false, columnDefinition = "boolean default false")
+    private boolean imageVariants;
     
     @ManyToOne
     @JoinColumn(name = "category_id", nullable = false)
@@ -46,6 +68,18 @@ public class Product {
 
     public String getImageUrl() { return imageUrl; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+
+    public boolean isImageVariants() { return imageVariants; }
+    public void setImageVariants(boolean imageVariants) { this.imageVariants = imageVariants; }
+
+    /** 各尺寸的圖片網址；縮圖尚未產生時為原圖 */
+    public String getThumbnailUrl() { return variantUrl(ImageVariant.THUMBNAIL); }
+    public String getCardImageUrl() { return variantUrl(ImageVariant.CARD); }
+    public String getDetailImageUrl() { return variantUrl(ImageVariant.DETAIL); }
+
+    private String variantUrl(ImageVariant variant) {
+        return imageVariants && imageUrl != null ? variant.of(imageUrl) : imageUrl;
+    }
     
     public Category getCategory() { return category; }
     public void setCategory(Category category) { this.category = category; }
@@ -53,6 +87,9 @@ public class Product {
     public Integer getStock() {return stock;}
 	public void setStock(Integer stock) {this.stock = stock;}
 
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
     
     @Override
     public String toString() {
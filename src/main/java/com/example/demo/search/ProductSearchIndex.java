@@ -0,0 +1,545 @@
+package com.example.demo.search;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.cjk.CJKAnalyzer;
+import org.apache.lucene.analysis.cjk.CJKBigramFilter;
+import org.apache.lucene.analysis.tokenattributes.TypeAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.IOUtils.IOFunction;
+import org.apache.lucene.util.QueryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.dto.ProductCursor;
+import com.example.demo.model.Product;
+import com.example.demo.util.TransactionCallbacks;
+
+/**
+ * ProductSearchIndex 商品全文檢索索引
+ *
+ * <p>以內嵌的 Lucene 索引取代 {@code LIKE '%keyword%'} 全表掃描：</p>
+ * <ul>
+ *   <li>索引商品名稱與描述，使用 {@link CJKAnalyzer}（中日韓文字以兩字一組切詞，並正規化全形與大小寫）</li>
+ *   <li>索引段落存於 {@code search.index.dir} 目錄，重新啟動後不需重建</li>
+ *   <li>商品異動於交易提交後增量更新</li>
+ *   <li>依相關度排序，可依分類篩選</li>
+ *   <li>依價格或上架順序排序時，排序與游標定位也在索引內完成（價格與 ID 存為 doc values），
+ *       不受比對筆數限制</li>
+ * </ul>
+ */
+@Component
+public class ProductSearchIndex implements InitializingBean, DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+	private static final String FIELD_ID = "id";
+	private static final String FIELD_NAME = "name";
+	private static final String FIELD_DESCRIPTION = "description";
+	private static final String FIELD_CATEGORY = "categoryId";
+	/** 排序與游標定位用的商品 ID 與價格（以分為單位） */
+	private static final String FIELD_ID_VALUE = "idValue";
+	private static final String FIELD_PRICE = "price";
+
+	/** commit 標記：索引已完整重建過 */
+	private static final String COMMIT_BUILT = "built";
+
+	/** commit 標記：文件欄位格式；與目前版本不同的索引視為尚未建立，啟動時重建 */
+	private static final String COMMIT_FORMAT = "format";
+	private static final String FORMAT = "2";
+
+	/** 名稱比對的加權，名稱符合的商品排在僅描述符合的前面 */
+	private static final float NAME_BOOST = 3.0f;
+
+	@Autowired
+	private Environment env;
+
+	private boolean enabled;
+
+	private final Analyzer analyzer = new CJKAnalyzer();
+
+	/** 重建期間持有，增量更新等待重建完成 */
+	private final ReentrantLock rebuildLock = new ReentrantLock();
+
+	/**
+	 * 查詢持有讀鎖；重建失敗後重新開啟與關閉索引時持有寫鎖，
+	 * 避免查詢中的 SearcherManager 被關閉。
+	 */
+	private final ReentrantReadWriteLock searcherLock = new ReentrantReadWriteLock();
+
+	private Path path;
+	private FSDirectory directory;
+	private IndexWriter writer;
+	private SearcherManager searcherManager;
+	private volatile boolean built;
+
+	@Override
+	public void afterPropertiesSet() throws IOException {
+		enabled = env.getProperty("search.index.enabled", Boolean.class, false);
+		if (!enabled) {
+			return;
+		}
+		path = Paths.get(env.getProperty("search.index.dir",
+				System.getProperty("java.io.tmpdir") + "/eshop-search-index")).toAbsolutePath().normalize();
+		Files.createDirectories(path);
+		openWriter();
+		logger.info("已開啟商品索引：{}，商品數：{}，已建立：{}", path, numDocs(), built);
+	}
+
+	@Override
+	public void destroy() {
+		searcherLock.writeLock().lock();
+		try {
+			if (writer == null) {
+				return;
+			}
+			searcherManager.close();
+			writer.close();
+			directory.close();
+		} catch (IOException e) {
+			logger.warn("關閉商品索引失敗：{}", path, e);
+		} finally {
+			writer = null;
+			searcherLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * 索引是否啟用且已完整建立過；否則搜尋應使用資料庫查詢。
+	 */
+	public boolean isReady() {
+		return enabled && built;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * 判斷關鍵字能否以索引查詢。
+	 *
+	 * <p>索引只保存中文的兩字詞，單一中文字無法比對；
+	 * 關鍵字切詞後為空（例如只有標點）或含單字時，由呼叫端改用資料庫 LIKE 查詢。</p>
+	 */
+	public boolean canSearch(String keyword) {
+		if (!isReady() || keyword == null || keyword.isBlank()) {
+			return false;
+		}
+		try (TokenStream ts = analyzer.tokenStream(FIELD_NAME, keyword)) {
+			TypeAttribute type = ts.addAttribute(TypeAttribute.class);
+			ts.reset();
+			int tokens = 0;
+			while (ts.incrementToken()) {
+				if (CJKBigramFilter.SINGLE_TYPE.equals(type.type())) {
+					return false;
+				}
+				tokens++;
+			}
+			ts.end();
+			return tokens > 0;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * 依相關度查詢商品。
+	 *
+	 * @param keyword     關鍵字
+	 * @param categoryIds 分類 ID 篩選，可為 null
+	 * @param offset      略過的筆數
+	 * @param limit       最多回傳筆數
+	 * @return 依相關度排序的商品 ID 與符合總數
+	 */
+	public SearchResult search(String keyword, List<Long> categoryIds, int offset, int limit) {
+		Query query = buildQuery(keyword, categoryIds);
+		if (query == null) {
+			return new SearchResult(List.of(), 0);
+		}
+		return withSearcher(searcher -> {
+			TopDocs top = searcher.search(query, Math.max(1, offset + limit));
+			List<Long> ids = new ArrayList<>();
+			ScoreDoc[] docs = top.scoreDocs;
+			for (int i = offset; i < docs.length; i++) {
+				ids.add(searcher.doc(docs[i].doc).getField(FIELD_ID).numericValue().longValue());
+			}
+			return new SearchResult(ids, searcher.count(query));
+		});
+	}
+
+	/**
+	 * 依價格或上架順序以游標分頁查詢商品，排序與定位都在索引內完成。
+	 *
+	 * @param keyword     關鍵字
+	 * @param categoryIds 分類 ID 篩選，可為 null
+	 * @param sort        排序方式（ID、PRICE_ASC、PRICE_DESC）
+	 * @param cursor      游標；為 {@code null} 時從第一筆開始
+	 * @param limit       最多回傳筆數
+	 * @return 商品 ID 與符合總數（不含游標條件）；往上一頁查詢時 ID 為由近到遠的反向順序，
+	 *         與 {@link com.example.demo.dao.ProductDAO#searchSummariesByCursor} 相同
+	 */
+	public SearchResult searchByCursor(String keyword, List<Long> categoryIds, ProductCursor.Sort sort,
+			ProductCursor cursor, int limit) {
+		Query query = buildQuery(keyword, categoryIds);
+		if (query == null) {
+			return new SearchResult(List.of(), 0);
+		}
+		boolean byPrice = sort == ProductCursor.Sort.PRICE_ASC || sort == ProductCursor.Sort.PRICE_DESC;
+		// 往上一頁時反轉排序方向，取最靠近游標的資料
+		boolean ascending = sort.isAscending() != (cursor != null && cursor.isBackward());
+		Query page = cursor == null ? query
+				: new BooleanQuery.Builder().add(query, Occur.MUST).add(seek(cursor, byPrice, ascending), Occur.FILTER)
+						.build();
+		SortField byId = new SortField(FIELD_ID_VALUE, SortField.Type.LONG, !ascending);
+		Sort order = byPrice ? new Sort(new SortField(FIELD_PRICE, SortField.Type.LONG, !ascending), byId)
+				: new Sort(byId);
+		return withSearcher(searcher -> {
+			TopDocs top = searcher.search(page, Math.max(1, limit), order);
+			List<Long> ids = new ArrayList<>();
+			for (ScoreDoc doc : top.scoreDocs) {
+				ids.add(searcher.doc(doc.doc).getField(FIELD_ID).numericValue().longValue());
+			}
+			return new SearchResult(ids, searcher.count(query));
+		});
+	}
+
+	/**
+	 * 排在游標之後的條件：依 ID 時為 ID 範圍；依價格時為價格在游標之後，或價格相同且 ID 在游標之後。
+	 */
+	private static Query seek(ProductCursor cursor, boolean byPrice, boolean ascending) {
+		Query id = beyond(FIELD_ID_VALUE, cursor.getId(), ascending);
+		if (!byPrice) {
+			return id;
+		}
+		long price = toCents(cursor.getPrice());
+		Query samePrice = new BooleanQuery.Builder()
+				.add(LongPoint.newExactQuery(FIELD_PRICE, price), Occur.FILTER)
+				.add(id, Occur.FILTER)
+				.build();
+		return new BooleanQuery.Builder()
+				.add(beyond(FIELD_PRICE, price, ascending), Occur.SHOULD)
+				.add(samePrice, Occur.SHOULD)
+				.build();
+	}
+
+	/**
+	 * 排在 value 之後（遞增時較大、遞減時較小）的範圍。
+	 */
+	private static Query beyond(String field, long value, boolean ascending) {
+		return ascending ? LongPoint.newRangeQuery(field, Math.addExact(value, 1), Long.MAX_VALUE)
+				: LongPoint.newRangeQuery(field, Long.MIN_VALUE, Math.addExact(value, -1));
+	}
+
+	/** 價格以分為單位存入索引（價格欄位為兩位小數） */
+	private static long toCents(BigDecimal price) {
+		return price != null ? price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact() : 0L;
+	}
+
+	/**
+	 * 計算符合條件的商品數。
+	 */
+	public int count(String keyword, List<Long> categoryIds) {
+		Query query = buildQuery(keyword, categoryIds);
+		if (query == null) {
+			return 0;
+		}
+		return withSearcher(searcher -> searcher.count(query));
+	}
+
+	/**
+	 * 取得目前的 searcher 執行查詢，持有讀鎖直到釋放 searcher。
+	 */
+	private <T> T withSearcher(IOFunction<IndexSearcher, T> work) {
+		searcherLock.readLock().lock();
+		try {
+			IndexSearcher searcher = searcherManager.acquire();
+			try {
+				return work.apply(searcher);
+			} finally {
+				searcherManager.release(searcher);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("商品索引查詢失敗", e);
+		} finally {
+			searcherLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * 名稱或描述需包含關鍵字的所有詞；名稱符合者加權。
+	 */
+	private Query buildQuery(String keyword, List<Long> categoryIds) {
+		QueryBuilder builder = new QueryBuilder(analyzer);
+		Query name = builder.createBooleanQuery(FIELD_NAME, keyword, Occur.MUST);
+		Query description = builder.createBooleanQuery(FIELD_DESCRIPTION, keyword, Occur.MUST);
+		if (name == null && description == null) {
+			return null;
+		}
+		BooleanQuery.Builder text = new BooleanQuery.Builder().setMinimumNumberShouldMatch(1);
+		if (name != null) {
+			text.add(new BoostQuery(name, NAME_BOOST), Occur.SHOULD);
+		}
+		if (description != null) {
+			text.add(description, Occur.SHOULD);
+		}
+		BooleanQuery.Builder query = new BooleanQuery.Builder().add(text.build(), Occur.MUST);
+		if (categoryIds != null && !categoryIds.isEmpty()) {
+			query.add(LongPoint.newSetQuery(FIELD_CATEGORY, categoryIds), Occur.FILTER);
+		}
+		return query.build();
+	}
+
+	/**
+	 * 商品新增或修改後呼叫：立即建立索引文件，於交易提交後寫入索引。
+	 */
+	public void productSaved(Product product) {
+		if (!enabled || product.getId() == null) {
+			return;
+		}
+		Document doc = toDocument(product);
+		String id = String.valueOf(product.getId());
+		TransactionCallbacks.afterCommit(() -> update(new Term(FIELD_ID, id), doc));
+	}
+
+	/**
+	 * 商品刪除後呼叫，於交易提交後自索引移除。
+	 */
+	public void productDeleted(Long productId) {
+		if (!enabled) {
+			return;
+		}
+		String id = String.valueOf(productId);
+		TransactionCallbacks.afterCommit(() -> update(new Term(FIELD_ID, id), null));
+	}
+
+	/**
+	 * 開始重建：清空索引（尚未提交，查詢仍看到舊內容）。
+	 *
+	 * @return 重建作業，呼叫端分批加入全部商品後呼叫 {@link Rebuild#commit()}
+	 */
+	public Rebuild beginRebuild() {
+		if (!enabled) {
+			throw new IllegalStateException("商品索引未啟用");
+		}
+		return new Rebuild();
+	}
+
+	private static Document toDocument(Product product) {
+		Document doc = new Document();
+		String id = String.valueOf(product.getId());
+		doc.add(new StringField(FIELD_ID, id, Field.Store.NO));
+		doc.add(new StoredField(FIELD_ID, product.getId()));
+		doc.add(new LongPoint(FIELD_ID_VALUE, product.getId()));
+		doc.add(new NumericDocValuesField(FIELD_ID_VALUE, product.getId()));
+		long price = toCents(product.getPrice());
+		doc.add(new LongPoint(FIELD_PRICE, price));
+		doc.add(new NumericDocValuesField(FIELD_PRICE, price));
+		doc.add(new TextField(FIELD_NAME, product.getName() != null ? product.getName() : "", Field.Store.NO));
+		if (product.getDescription() != null) {
+			doc.add(new TextField(FIELD_DESCRIPTION, product.getDescription(), Field.Store.NO));
+		}
+		if (product.getCategory() != null && product.getCategory().getId() != null) {
+			doc.add(new LongPoint(FIELD_CATEGORY, product.getCategory().getId()));
+		}
+		return doc;
+	}
+
+	/**
+	 * 索引目前的商品數與所在目錄，供後台頁面顯示。
+	 */
+	public int getDocumentCount() {
+		return writer != null ? numDocs() : 0;
+	}
+
+	public String getDirectory() {
+		return path != null ? path.toString() : "";
+	}
+
+	/**
+	 * 依相關度查詢的結果。
+	 */
+	public static class SearchResult {
+		private final List<Long> productIds;
+		private final int totalHits;
+
+		SearchResult(List<Long> productIds, int totalHits) {
+			this.productIds = productIds;
+			this.totalHits = totalHits;
+		}
+
+		public List<Long> getProductIds() { return productIds; }
+
+		public int getTotalHits() { return totalHits; }
+	}
+
+	/**
+	 * 一次完整重建作業。重建期間持有索引鎖，增量更新會等待重建完成。
+	 */
+	public class Rebuild {
+		private int count;
+		private boolean done;
+
+		Rebuild() {
+			rebuildLock.lock();
+			try {
+				writer.deleteAll();
+			} catch (IOException e) {
+				rebuildLock.unlock();
+				throw new UncheckedIOException("清空商品索引失敗", e);
+			}
+		}
+
+		public void addAll(List<Product> products) {
+			try {
+				for (Product product : products) {
+					writer.addDocument(toDocument(product));
+				}
+				count += products.size();
+			} catch (IOException e) {
+				throw new UncheckedIOException("寫入商品索引失敗", e);
+			}
+		}
+
+		/**
+		 * 提交重建結果並標記索引已建立。
+		 *
+		 * @return 索引的商品數
+		 */
+		public int commit() {
+			try {
+				writer.setLiveCommitData(Map.of(COMMIT_BUILT, "true", COMMIT_FORMAT, FORMAT).entrySet());
+				writer.commit();
+				searcherManager.maybeRefresh();
+				built = true;
+				done = true;
+				logger.info("商品索引重建完成，共 {} 筆", count);
+				return count;
+			} catch (IOException e) {
+				throw new UncheckedIOException("提交商品索引失敗", e);
+			} finally {
+				rebuildLock.unlock();
+			}
+		}
+
+		/**
+		 * 重建失敗時呼叫，捨棄尚未提交的變更。
+		 */
+		public void abort() {
+			if (done) {
+				return;
+			}
+			try {
+				reopenAfterRollback();
+			} finally {
+				done = true;
+				rebuildLock.unlock();
+			}
+		}
+	}
+
+	private void openWriter() throws IOException {
+		directory = FSDirectory.open(path);
+		writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+				.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+		searcherManager = new SearcherManager(writer, null);
+		boolean complete = false;
+		String format = null;
+		Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+		if (commitData != null) {
+			for (Map.Entry<String, String> entry : commitData) {
+				if (COMMIT_BUILT.equals(entry.getKey())) {
+					complete = Boolean.parseBoolean(entry.getValue());
+				} else if (COMMIT_FORMAT.equals(entry.getKey())) {
+					format = entry.getValue();
+				}
+			}
+		}
+		built = complete && FORMAT.equals(format);
+	}
+
+	/**
+	 * 新增、取代或刪除（doc 為 null）單一商品，並提交。
+	 */
+	private void update(Term id, Document doc) {
+		rebuildLock.lock();
+		try {
+			if (doc != null) {
+				writer.updateDocument(id, doc);
+			} else {
+				writer.deleteDocuments(id);
+			}
+			writer.commit();
+			searcherManager.maybeRefresh();
+		} catch (IOException e) {
+			// 索引更新失敗不影響已提交的資料，待下次重建修正
+			logger.error("更新商品索引失敗：{}", id.text(), e);
+		} finally {
+			rebuildLock.unlock();
+		}
+	}
+
+	/**
+	 * 捨棄未提交的變更並重新開啟索引。rollback 會關閉 IndexWriter，
+	 * 連同 SearcherManager 與目錄一起換新；等待進行中的查詢結束後才關閉舊的。
+	 */
+	private void reopenAfterRollback() {
+		built = false;
+		searcherLock.writeLock().lock();
+		try {
+			searcherManager.close();
+			writer.rollback();
+			directory.close();
+			openWriter();
+		} catch (IOException e) {
+			throw new UncheckedIOException("還原商品索引失敗", e);
+		} finally {
+			searcherLock.writeLock().unlock();
+		}
+	}
+
+	private int numDocs() {
+		try {
+			return withSearcher(searcher -> searcher.getIndexReader().numDocs());
+		} catch (UncheckedIOException e) {
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package com.example.demo.search;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.dao.ProductDAO;
+import com.example.demo.metrics.LatencyHistogram;
+
+/**
+ * SearchBenchmark 商品搜尋效能比較
+ *
+ * <p>以相同關鍵字分別執行資料庫 {@code LIKE '%keyword%'} 查詢與搜尋索引查詢，
+ * 各自記錄取得第一頁商品與總數的耗時分布，供後台比較。</p>
+ */
+@Component
+public class SearchBenchmark {
+
+	/** 每次查詢取得的商品數（與商品列表每頁筆數相同） */
+	private static final int PAGE_SIZE = 12;
+
+	@Autowired
+	private ProductDAO productDAO;
+
+	@Autowired
+	private ProductSearchIndex productSearchIndex;
+
+	/**
+	 * 執行比較。
+	 *
+	 * @param keyword    關鍵字
+	 * @param iterations 每種方式執行次數（另先各執行一次預熱，不列入統計）
+	 * @return 比較結果
+	 */
+	@Transactional(readOnly = true)
+	public Result run(String keyword, int iterations) {
+		Result result = new Result(keyword, iterations);
+		boolean indexed = productSearchIndex.canSearch(keyword);
+		for (int i = 0; i <= iterations; i++) {
+			long start = System.nanoTime();
+			productDAO.searchProductsByNameAndCategoryWithPage(keyword, null, 1, PAGE_SIZE);
+			int count = productDAO.countProductsByNameAndCategory(keyword, null);
+			long likeMicros = (System.nanoTime() - start) / 1000;
+
+			long indexMicros = 0;
+			int indexCount = 0;
+			if (indexed) {
+				start = System.nanoTime();
+				ProductSearchIndex.SearchResult hits = productSearchIndex.search(keyword, null, 0, PAGE_SIZE);
+				productDAO.findSummariesByIds(hits.getProductIds());
+				indexCount = hits.getTotalHits();
+				indexMicros = (System.nanoTime() - start) / 1000;
+			}
+			if (i > 0) {
+				result.like.record(likeMicros);
+				result.likeCount = count;
+				if (indexed) {
+					result.index.record(indexMicros);
+					result.indexCount = indexCount;
+				}
+			}
+		}
+		result.indexed = indexed;
+		return result;
+	}
+
+	/**
+	 * 比較結果。
+	 */
+	public static class Result {
+		private final String keyword;
+		private final int iterations;
+		private final LatencyHistogram like = new LatencyHistogram("µs");
+		private final LatencyHistogram index = new LatencyHistogram("µs");
+		private int likeCount;
+		private int indexCount;
+		private boolean indexed;
+
+		Result(String keyword, int iterations) {
+			this.keyword = keyword;
+			this.iterations = iterations;
+		}
+
+		public String getKeyword() { return keyword; }
+
+		public int getIterations() { return iterations; }
+
+		public LatencyHistogram getLike() { return like; }
+
+		public LatencyHistogram getIndex() { return index; }
+
+		public int getLikeCount() { return likeCount; }
+
+		public int getIndexCount() { return indexCount; }
+
+		/** 關鍵字是否能以索引查詢（否則只有 LIKE 的結果） */
+		public boolean isIndexed() { return indexed; }
+	}
+}
@@ -0,0 +1,44 @@
+package com.example.demo.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.service.ProductService;
+
+/**
+ * SearchIndexInitializer 搜尋索引初始化
+ *
+ * <p>應用程式啟動完成時，若搜尋索引已啟用但尚未完整建立（例如第一次部署或索引目錄被清除），
+ * 以資料庫中的商品重建；建立前商品搜尋使用資料庫 LIKE 查詢。</p>
+ *
+ * <p>DispatcherServlet context 的啟動事件也會傳到根 context，只處理根 context 本身的事件。</p>
+ */
+@Component
+public class SearchIndexInitializer implements ApplicationListener<ContextRefreshedEvent> {
+
+	private static final Logger logger = LoggerFactory.getLogger(SearchIndexInitializer.class);
+
+	@Autowired
+	private ProductSearchIndex productSearchIndex;
+
+	@Autowired
+	private ProductService productService;
+
+	@Override
+	public void onApplicationEvent(ContextRefreshedEvent event) {
+		if (event.getApplicationContext().getParent() != null
+				|| !productSearchIndex.isEnabled() || productSearchIndex.isReady()) {
+			return;
+		}
+		try {
+			int count = productService.rebuildSearchIndex();
+			logger.info("啟動時已建立商品搜尋索引，共 {} 筆", count);
+		} catch (RuntimeException e) {
+			logger.error("啟動時建立商品搜尋索引失敗，搜尋改用資料庫查詢", e);
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package com.example.demo.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * BoundedPasswordEncoder 在 {@link PasswordHashingExecutor} 中執行的密碼編碼器
+ *
+ * <p>包裝實際的編碼器（BCrypt），編碼與比對都交給密碼雜湊執行緒池計算，
+ * 服務層（註冊、修改密碼、驗證舊密碼）與 Spring Security 表單登入共用同一個上限。</p>
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+	private final PasswordEncoder delegate;
+	private final PasswordHashingExecutor executor;
+
+	public BoundedPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor executor) {
+		this.delegate = delegate;
+		this.executor = executor;
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return executor.execute(() -> delegate.encode(rawPassword));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return executor.execute(() -> delegate.matches(rawPassword, encodedPassword));
+	}
+
+	/** 判斷是否需要重新編碼只解析雜湊字串，不佔用執行緒池 */
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		return delegate.upgradeEncoding(encodedPassword);
+	}
+}
@@ -3,21 +3,21 @@ package com.example.demo.security;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
-import com.example.demo.model.User;
+import com.example.demo.dto.UserCredentials;
 
 import java.util.Collection;
 import java.util.List;
 
 public class CustomUserDetails implements UserDetails {
-	
+
 	private static final long serialVersionUID = 1L;
-    private final User user;
+    private final UserCredentials user;
 
-    public CustomUserDetails(User user) {
+    public CustomUserDetails(UserCredentials user) {
         this.user = user;
     }
 
-    public User getUser() {
+    public UserCredentials getUser() {
         return user;
     }
 
@@ -30,7 +30,7 @@ public class CustomUserDetails implements UserDetails {
 
     @Override
     public String getPassword() {
-        return user.getPassword();
+        return user.getPasswordHash();
     }
 
     @Override
@@ -0,0 +1,80 @@
+package com.example.demo.security;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import com.example.demo.dto.CustomerIdentity;
+import com.example.demo.service.CustomerService;
+
+/**
+ * CustomerIdentityArgumentResolver 注入目前登入顧客
+ *
+ * <p>Controller 方法宣告 {@link CustomerIdentity} 參數即可取得目前登入的顧客，
+ * 不需再自行以使用者 ID 查詢顧客資料。同一請求內只解析一次
+ * （{@link com.example.demo.config.CustomerInterceptor} 已解析時直接沿用），
+ * 跨請求則由 {@link CustomerIdentityCache} 快取，命中時不開啟交易也不取用資料庫連線。</p>
+ *
+ * <p>未登入或該使用者沒有對應顧客資料時注入 {@code null}。</p>
+ */
+@Component
+public class CustomerIdentityArgumentResolver implements HandlerMethodArgumentResolver {
+
+	/** 同一請求內已解析的顧客識別資料 */
+	public static final String REQUEST_ATTRIBUTE = CustomerIdentity.class.getName();
+
+	/** 註冊時建立顧客資料的使用者角色 */
+	private static final String CUSTOMER_ROLE = "USER";
+
+	@Autowired
+	private CustomerService customerService;
+
+	@Autowired
+	private CustomerIdentityCache customerIdentityCache;
+
+	@Override
+	public boolean supportsParameter(MethodParameter parameter) {
+		return CustomerIdentity.class.equals(parameter.getParameterType());
+	}
+
+	@Override
+	public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+			NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+		HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+		return resolve(request);
+	}
+
+	/**
+	 * 取得目前請求登入者的顧客識別資料。
+	 *
+	 * @param request 目前請求
+	 * @return 顧客識別資料；未登入或查無顧客時回傳 {@code null}
+	 */
+	public CustomerIdentity resolve(HttpServletRequest request) {
+		Object resolved = request.getAttribute(REQUEST_ATTRIBUTE);
+		if (resolved instanceof CustomerIdentity) {
+			return (CustomerIdentity) resolved;
+		}
+		Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+		if (auth == null || !auth.isAuthenticated() || !(auth.getPrincipal() instanceof CustomUserDetails)) {
+			return null;
+		}
+		CustomUserDetails userDetails = (CustomUserDetails) auth.getPrincipal();
+		// 一般使用者註冊時即建立顧客資料，查無資料不快取；其他角色（管理員）沒有顧客資料，查無結果可快取
+		boolean cacheMissing = !CUSTOMER_ROLE.equals(userDetails.getUser().getRole());
+		CustomerIdentity identity = customerIdentityCache.get(userDetails.getUser().getId(), cacheMissing,
+				customerService::getCustomerIdentity);
+		if (identity != null) {
+			request.setAttribute(REQUEST_ATTRIBUTE, identity);
+		}
+		return identity;
+	}
+}
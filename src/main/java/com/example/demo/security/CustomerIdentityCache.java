@@ -0,0 +1,64 @@
+package com.example.demo.security;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.dto.CustomerIdentity;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * CustomerIdentityCache 登入顧客識別資料快取
+ *
+ * <p>以使用者 ID 為鍵快取對應的 {@link CustomerIdentity}，同一位使用者的後續請求
+ * 不再重複以使用者 ID 查詢顧客資料表。</p>
+ *
+ * <p>顧客資料修改後由 {@link com.example.demo.service.CustomerService} 於交易提交後清除；
+ * 另設有存活時間，作為直接修改資料庫等未經服務層寫入時的保險。</p>
+ */
+@Component
+public class CustomerIdentityCache {
+
+	private final Cache<Long, Optional<CustomerIdentity>> identities;
+
+	@Autowired
+	public CustomerIdentityCache(Environment env) {
+		this.identities = Caffeine.newBuilder()
+				.maximumSize(env.getProperty("customer.identity.cache.maxSize", Long.class, 10000L))
+				.expireAfterWrite(Duration.ofSeconds(env.getProperty("customer.identity.cache.ttlSeconds", Long.class, 600L)))
+				.build();
+	}
+
+	/**
+	 * 取得快取的顧客識別資料；沒有快取時呼叫 loader 查詢並存入。
+	 *
+	 * <p>查無顧客時只有 {@code cacheMissing} 為 {@code true}（例如管理員帳號本來就沒有顧客資料）才快取，
+	 * 避免每次請求都重新查詢；一般顧客查無資料只可能是暫時的（例如剛註冊、副本尚未複寫），不快取。
+	 * loader 拋出的例外直接傳給呼叫端，也不會被快取。</p>
+	 *
+	 * @param userId       使用者 ID
+	 * @param cacheMissing 查無顧客時是否快取
+	 * @param loader       實際查詢的方法，查無資料時回傳 {@code null}
+	 * @return 顧客識別資料；查無顧客時回傳 {@code null}
+	 */
+	public CustomerIdentity get(Long userId, boolean cacheMissing, Function<Long, CustomerIdentity> loader) {
+		Optional<CustomerIdentity> identity = identities.get(userId, id -> {
+			CustomerIdentity loaded = loader.apply(id);
+			// 回傳 null 時 Caffeine 不建立項目
+			return loaded != null || cacheMissing ? Optional.ofNullable(loaded) : null;
+		});
+		return identity != null ? identity.orElse(null) : null;
+	}
+
+	/**
+	 * 清除指定使用者的快取。
+	 */
+	public void invalidate(Long userId) {
+		identities.invalidate(userId);
+	}
+}
@@ -0,0 +1,111 @@
+package com.example.demo.security;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * LoginAttemptThrottle 登入失敗次數限制
+ *
+ * <p>分別以帳號（信箱）與來源 IP 累計登入失敗次數。任一方在時間窗內
+ * （{@code security.login.windowMinutes}，自第一次失敗起算）達到上限後，
+ * 後續登入在計算密碼雜湊之前就直接拒絕，暴力嘗試不會佔用密碼雜湊執行緒池：</p>
+ * <ul>
+ *   <li>同一帳號：{@code security.login.maxFailuresPerAccount}</li>
+ *   <li>同一 IP：{@code security.login.maxFailuresPerIp}（一個 IP 嘗試多個帳號）</li>
+ * </ul>
+ * <p>登入成功只清除該帳號的次數；IP 的次數保留到時間窗結束，
+ * 避免以自己的帳號登入一次就重置對其他帳號的嘗試。</p>
+ */
+@Component
+public class LoginAttemptThrottle implements InitializingBean {
+
+	private final LongAdder blocked = new LongAdder();
+
+	@Autowired
+	private Environment env;
+
+	private int maxFailuresPerAccount;
+	private int maxFailuresPerIp;
+	private Cache<String, AtomicInteger> accountFailures;
+	private Cache<String, AtomicInteger> ipFailures;
+
+	@Override
+	public void afterPropertiesSet() {
+		maxFailuresPerAccount = env.getProperty("security.login.maxFailuresPerAccount", Integer.class, 5);
+		maxFailuresPerIp = env.getProperty("security.login.maxFailuresPerIp", Integer.class, 20);
+		Duration window = Duration.ofMinutes(env.getProperty("security.login.windowMinutes", Long.class, 15L));
+		long maxSize = env.getProperty("security.login.maxTracked", Long.class, 100000L);
+		accountFailures = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(window).build();
+		ipFailures = Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(window).build();
+	}
+
+	/**
+	 * 帳號或來源 IP 是否已達失敗上限。
+	 *
+	 * @param email 登入信箱
+	 * @param ip    來源 IP；不是由網頁登入時為 {@code null}
+	 * @return {@code true} 應直接拒絕，不比對密碼
+	 */
+	public boolean isBlocked(String email, String ip) {
+		boolean reached = reached(accountFailures, accountKey(email), maxFailuresPerAccount)
+				|| reached(ipFailures, ip, maxFailuresPerIp);
+		if (reached) {
+			blocked.increment();
+		}
+		return reached;
+	}
+
+	/**
+	 * 記錄一次密碼錯誤。
+	 */
+	public void recordFailure(String email, String ip) {
+		String account = accountKey(email);
+		if (account != null) {
+			accountFailures.get(account, key -> new AtomicInteger()).incrementAndGet();
+		}
+		if (ip != null) {
+			ipFailures.get(ip, key -> new AtomicInteger()).incrementAndGet();
+		}
+	}
+
+	/**
+	 * 登入成功，清除帳號的失敗次數。
+	 */
+	public void recordSuccess(String email) {
+		String account = accountKey(email);
+		if (account != null) {
+			accountFailures.invalidate(account);
+		}
+	}
+
+	/** 目前有失敗紀錄的帳號數 */
+	public long getTrackedAccounts() { return accountFailures.estimatedSize(); }
+
+	/** 目前有失敗紀錄的 IP 數 */
+	public long getTrackedIps() { return ipFailures.estimatedSize(); }
+
+	/** 因達到上限而直接拒絕的登入次數 */
+	public long getBlockedCount() { return blocked.sum(); }
+
+	private static boolean reached(Cache<String, AtomicInteger> failures, String key, int max) {
+		if (key == null) {
+			return false;
+		}
+		AtomicInteger count = failures.getIfPresent(key);
+		return count != null && count.get() >= max;
+	}
+
+	private static String accountKey(String email) {
+		return email == null || email.isBlank() ? null : email.trim().toLowerCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,43 @@
+package com.example.demo.security;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * LoginThrottleFilter 表單登入前的失敗次數檢查
+ *
+ * <p>放在 {@code UsernamePasswordAuthenticationFilter} 之前：帳號或來源 IP 已達
+ * {@link LoginAttemptThrottle} 的失敗上限時，直接導回 {@code /login?locked}，
+ * 不查詢使用者、不計算密碼雜湊。</p>
+ */
+public class LoginThrottleFilter extends OncePerRequestFilter {
+
+	private final LoginAttemptThrottle throttle;
+	private final String usernameParameter;
+
+	public LoginThrottleFilter(LoginAttemptThrottle throttle, String usernameParameter) {
+		this.throttle = throttle;
+		this.usernameParameter = usernameParameter;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !"POST".equals(request.getMethod()) || !"/login".equals(request.getServletPath());
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		if (throttle.isBlocked(request.getParameter(usernameParameter), request.getRemoteAddr())) {
+			response.sendRedirect(request.getContextPath() + "/login?locked");
+			return;
+		}
+		chain.doFilter(request, response);
+	}
+}
@@ -0,0 +1,80 @@
+package com.example.demo.security;
+
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * PasswordEncoderFactory 依設定建立密碼編碼器
+ *
+ * <p>{@code security.password.encoder}：</p>
+ * <ul>
+ *   <li>{@code bcrypt}：固定強度（{@code security.password.bcryptStrength}）的 BCrypt，雜湊不帶演算法前綴</li>
+ *   <li>{@code delegating}（預設）：{@link DelegatingPasswordEncoder}，新雜湊寫成 {@code {bcrypt}$2a$..}。
+ *       BCrypt 強度在啟動時實測決定：以最低強度量測一次雜湊的耗時，每加 1 耗時加倍，
+ *       取不超過目標延遲（{@code security.password.targetMs}）的最高強度，
+ *       並限制在 {@code minStrength} 到 {@code maxStrength} 之間（不會低於目前的預設強度 10）</li>
+ * </ul>
+ *
+ * <p>delegating 模式下，不帶前綴的舊雜湊仍可比對，且 {@link PasswordEncoder#upgradeEncoding}
+ * 對舊雜湊或強度低於目前設定的雜湊回傳 {@code true}，登入成功時由呼叫端重新編碼寫回。</p>
+ */
+public final class PasswordEncoderFactory {
+
+	private static final Logger logger = LoggerFactory.getLogger(PasswordEncoderFactory.class);
+
+	private static final String BCRYPT = "bcrypt";
+
+	/** 量測取最快的一次，降低啟動時 JIT 與其他執行緒造成的誤差 */
+	private static final int SAMPLES = 3;
+
+	private PasswordEncoderFactory() {
+	}
+
+	public static PasswordEncoder create(Environment env) {
+		String mode = env.getProperty("security.password.encoder", "delegating");
+		if (BCRYPT.equals(mode)) {
+			return new BCryptPasswordEncoder(env.getProperty("security.password.bcryptStrength", Integer.class, 10));
+		}
+		if (!"delegating".equals(mode)) {
+			throw new RuntimeException("不支援的密碼編碼模式：" + mode);
+		}
+		int strength = calibrate(env.getProperty("security.password.targetMs", Long.class, 100L),
+				env.getProperty("security.password.minStrength", Integer.class, 10),
+				env.getProperty("security.password.maxStrength", Integer.class, 14));
+		BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+		DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT, Map.of(BCRYPT, bcrypt));
+		// 未帶前綴的雜湊都是先前以 BCryptPasswordEncoder 寫入的
+		encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+		return encoder;
+	}
+
+	/**
+	 * 取耗時不超過目標延遲的最高強度；最低強度已超過目標時使用最低強度。
+	 */
+	private static int calibrate(long targetMs, int minStrength, int maxStrength) {
+		BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+		probe.encode("calibration");
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i < SAMPLES; i++) {
+			long start = System.nanoTime();
+			probe.encode("calibration");
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		double minMs = best / 1_000_000.0;
+		int strength = minStrength;
+		double estimatedMs = minMs;
+		while (strength < maxStrength && estimatedMs * 2 <= targetMs) {
+			strength++;
+			estimatedMs *= 2;
+		}
+		logger.info("BCrypt 強度 {} 耗時 {} ms，目標 {} ms，使用強度 {}（預估 {} ms）", minStrength,
+				String.format("%.1f", minMs), targetMs, strength, String.format("%.1f", estimatedMs));
+		return strength;
+	}
+}
@@ -0,0 +1,143 @@
+package com.example.demo.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.metrics.LatencyHistogram;
+
+/**
+ * PasswordHashingExecutor 密碼雜湊專用執行緒池
+ *
+ * <p>BCrypt 每次編碼或比對約需 100 ms 的 CPU。登入尖峰時若直接在 servlet 執行緒計算，
+ * 所有核心都可能被雜湊佔滿，商品瀏覽等一般請求跟著變慢。所有雜湊改交給此執行緒池：</p>
+ * <ul>
+ *   <li>執行緒數預設等於 CPU 核心數（{@code security.hashing.threads}），同時計算的雜湊數有上限</li>
+ *   <li>等待佇列有上限（{@code security.hashing.queueCapacity}），佇列已滿時立即拒絕，
+ *       不讓請求在 servlet 執行緒上無限排隊</li>
+ *   <li>呼叫端最多等待 {@code security.hashing.timeoutMs}，逾時視同拒絕</li>
+ * </ul>
+ * <p>拒絕時拋出 {@link PasswordHashingRejectedException}。</p>
+ */
+@Component
+public class PasswordHashingExecutor implements InitializingBean, DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+
+	private final LatencyHistogram queueWait = new LatencyHistogram("ms");
+	private final LatencyHistogram hashTime = new LatencyHistogram("ms");
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder timeouts = new LongAdder();
+	private final LongAccumulator peakQueueDepth = new LongAccumulator(Long::max, 0L);
+
+	@Autowired
+	private Environment env;
+
+	private ThreadPoolExecutor executor;
+	private long timeoutMs;
+
+	@Override
+	public void afterPropertiesSet() {
+		int configured = env.getProperty("security.hashing.threads", Integer.class, 0);
+		int threads = configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
+		int queueCapacity = env.getProperty("security.hashing.queueCapacity", Integer.class, 64);
+		timeoutMs = env.getProperty("security.hashing.timeoutMs", Long.class, 5000L);
+		AtomicInteger count = new AtomicInteger();
+		executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+					Thread thread = new Thread(runnable, "password-hashing-" + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.AbortPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		logger.info("密碼雜湊執行緒池：{} 個執行緒，佇列上限 {}", threads, queueCapacity);
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * 在執行緒池中計算並等待結果。
+	 *
+	 * @param task 雜湊計算（編碼或比對）
+	 * @return 計算結果
+	 * @throws PasswordHashingRejectedException 佇列已滿、等待逾時或等待時被中斷
+	 */
+	public <T> T execute(Callable<T> task) {
+		long submitted = System.nanoTime();
+		Future<T> future;
+		try {
+			future = executor.submit(() -> {
+				long started = System.nanoTime();
+				queueWait.record(TimeUnit.NANOSECONDS.toMillis(started - submitted));
+				try {
+					return task.call();
+				} finally {
+					hashTime.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			rejected.increment();
+			throw new PasswordHashingRejectedException("密碼驗證忙碌中，請稍後再試", e);
+		}
+		peakQueueDepth.accumulate(executor.getQueue().size());
+		try {
+			return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			timeouts.increment();
+			throw new PasswordHashingRejectedException("密碼驗證逾時，請稍後再試", e);
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new PasswordHashingRejectedException("密碼驗證被中斷", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException("密碼雜湊失敗", cause);
+		}
+	}
+
+	public int getThreads() { return executor.getMaximumPoolSize(); }
+
+	public int getActiveCount() { return executor.getActiveCount(); }
+
+	public int getQueueDepth() { return executor.getQueue().size(); }
+
+	public int getQueueCapacity() { return executor.getQueue().size() + executor.getQueue().remainingCapacity(); }
+
+	public long getPeakQueueDepth() { return peakQueueDepth.get(); }
+
+	public long getRejectedCount() { return rejected.sum(); }
+
+	public long getTimeoutCount() { return timeouts.sum(); }
+
+	/** 從送出到開始計算的等待時間 */
+	public LatencyHistogram getQueueWait() { return queueWait; }
+
+	/** 雜湊計算本身的耗時 */
+	public LatencyHistogram getHashTime() { return hashTime; }
+}
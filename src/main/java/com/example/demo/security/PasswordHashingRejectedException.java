@@ -0,0 +1,23 @@
+package com.example.demo.security;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * PasswordHashingRejectedException 密碼雜湊執行緒池忙碌
+ *
+ * <p>等待佇列已滿或等待逾時時拋出。繼承 {@link AuthenticationServiceException}，
+ * 表單登入時由 Spring Security 交給登入失敗處理器，而不是回應 500；
+ * 這類失敗不是密碼錯誤，不計入登入失敗次數。</p>
+ */
+public class PasswordHashingRejectedException extends AuthenticationServiceException {
+
+	private static final long serialVersionUID = 1L;
+
+	public PasswordHashingRejectedException(String message) {
+		super(message);
+	}
+
+	public PasswordHashingRejectedException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
@@ -0,0 +1,56 @@
+package com.example.demo.security;
+
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
+import org.springframework.security.web.authentication.SavedRequestAwareAuthenticationSuccessHandler;
+
+/**
+ * ThrottledLoginHandler 表單登入成功與失敗處理
+ *
+ * <ul>
+ *   <li>密碼錯誤（含帳號不存在）時累計 {@link LoginAttemptThrottle} 的失敗次數，導向 {@code /login?error}</li>
+ *   <li>密碼雜湊執行緒池忙碌時導向 {@code /login?busy}，不計入失敗次數</li>
+ *   <li>登入成功時清除帳號的失敗次數，再導向原本要前往的頁面或預設頁面</li>
+ * </ul>
+ */
+public class ThrottledLoginHandler implements AuthenticationSuccessHandler, AuthenticationFailureHandler {
+
+	private final LoginAttemptThrottle throttle;
+	private final String usernameParameter;
+	private final SavedRequestAwareAuthenticationSuccessHandler successHandler;
+
+	public ThrottledLoginHandler(LoginAttemptThrottle throttle, String usernameParameter, String defaultTargetUrl) {
+		this.throttle = throttle;
+		this.usernameParameter = usernameParameter;
+		this.successHandler = new SavedRequestAwareAuthenticationSuccessHandler();
+		this.successHandler.setDefaultTargetUrl(defaultTargetUrl);
+	}
+
+	@Override
+	public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response,
+			Authentication authentication) throws IOException, ServletException {
+		throttle.recordSuccess(request.getParameter(usernameParameter));
+		successHandler.onAuthenticationSuccess(request, response, authentication);
+	}
+
+	@Override
+	public void onAuthenticationFailure(HttpServletRequest request, HttpServletResponse response,
+			AuthenticationException exception) throws IOException, ServletException {
+		String target = "/login?error";
+		if (exception instanceof PasswordHashingRejectedException) {
+			target = "/login?busy";
+		} else if (exception instanceof BadCredentialsException) {
+			throttle.recordFailure(request.getParameter(usernameParameter), request.getRemoteAddr());
+		}
+		response.sendRedirect(request.getContextPath() + target);
+	}
+}
@@ -0,0 +1,65 @@
+package com.example.demo.security;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.dto.UserCredentials;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * UserDetailsCache 登入使用者資料快取
+ *
+ * <p>以信箱（轉小寫）為鍵快取 {@link UserCredentials}，同一帳號短時間內重複登入
+ * （例如多個裝置、登入失敗重試）不再重複查詢使用者資料表。</p>
+ *
+ * <p>使用者的信箱、密碼或帳號本身異動後，由 {@link com.example.demo.service.UserService}
+ * 與 {@link com.example.demo.service.CustomerService} 於交易提交後清除；
+ * 存活時間很短（{@code security.userDetails.cache.ttlSeconds}），作為直接修改資料庫時的保險。
+ * 查無使用者不快取，新註冊的帳號可以立即登入。</p>
+ */
+@Component
+public class UserDetailsCache {
+
+	private final Cache<String, UserCredentials> credentials;
+
+	@Autowired
+	public UserDetailsCache(Environment env) {
+		this.credentials = Caffeine.newBuilder()
+				.maximumSize(env.getProperty("security.userDetails.cache.maxSize", Long.class, 10000L))
+				.expireAfterWrite(Duration.ofSeconds(env.getProperty("security.userDetails.cache.ttlSeconds", Long.class, 60L)))
+				.build();
+	}
+
+	/**
+	 * 取得快取的登入資料；沒有快取時呼叫 loader 查詢並存入。
+	 *
+	 * @param email  登入信箱
+	 * @param loader 實際查詢的方法，查無資料時回傳 {@code null}
+	 * @return 登入資料；查無使用者時回傳 {@code null}
+	 */
+	public UserCredentials get(String email, Function<String, UserCredentials> loader) {
+		if (email == null) {
+			return null;
+		}
+		return credentials.get(key(email), key -> loader.apply(email));
+	}
+
+	/**
+	 * 清除指定信箱的快取。
+	 */
+	public void invalidate(String email) {
+		if (email != null) {
+			credentials.invalidate(key(email));
+		}
+	}
+
+	private static String key(String email) {
+		return email.trim().toLowerCase(Locale.ROOT);
+	}
+}
@@ -2,6 +2,7 @@ package com.example.demo.service;
 
 import java.math.BigDecimal;
 
+import com.example.demo.dto.CartSummary;
 import com.example.demo.model.Cart;
 /**
  * CartService 介面 — 定義購物車（Cart）相關的業務邏輯操作。
@@ -14,6 +15,8 @@ public interface CartService {
 
     BigDecimal getCartTotal(Long customerId);
 
+    CartSummary getCartSummary(Long customerId);
+
     void removeItem(Long customerId, Long productId);
 
     void updateQuantity(Long customerId, Long productId, int quantity);
@@ -25,4 +25,6 @@ public interface CategoryService {
 	List<Long> getAllChildCategoryIds(Long categoryId);
 	
     List<Category> getAllLeafCategories();
+
+	long getCategoryTreeVersion();
 }
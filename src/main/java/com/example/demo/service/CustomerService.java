@@ -1,5 +1,6 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.CustomerIdentity;
 import com.example.demo.model.Customer;
 /**
  * CustomerService 介面 — 定義顧客（Customer）相關的業務邏輯操作。
@@ -10,6 +11,8 @@ public interface CustomerService {
     void registerCustomer(String name, String email, String password, String phone, String address);
     
     Customer getCustomerByUserId(Long userId);
+
+    CustomerIdentity getCustomerIdentity(Long userId);
     
     void updateCustomerPassword(Long id, String newPassword);
     
@@ -0,0 +1,19 @@
+package com.example.demo.service;
+
+import java.util.List;
+
+import com.example.demo.dto.FlashSaleStatus;
+
+/**
+ * FlashSaleService 介面 — 定義限時搶購模式的啟用、關閉與狀態查詢。
+ *
+ * 搶購模式的商品改由記憶體計數扣減庫存，不再讓每位買家都鎖定同一列商品資料。
+ */
+public interface FlashSaleService {
+
+    List<FlashSaleStatus> getActiveFlashSales();
+
+    void startFlashSale(Long productId);
+
+    int stopFlashSale(Long productId);
+}
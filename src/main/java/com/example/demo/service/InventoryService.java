@@ -0,0 +1,18 @@
+package com.example.demo.service;
+
+import java.util.Map;
+
+/**
+ * InventoryService 介面 — 定義商品庫存的預留、確認與釋放。
+ *
+ * 待付款的訂單即為庫存預留：建立訂單時預留（扣減可售庫存），付款時確認，取消時釋放（歸還庫存）。
+ * 確認與釋放皆以訂單狀態的條件式更新判斷，同一筆訂單只會成功一次。
+ */
+public interface InventoryService {
+
+    void reserve(Map<Long, Integer> quantities);
+
+    boolean commit(Long orderId);
+
+    boolean release(Long orderId);
+}
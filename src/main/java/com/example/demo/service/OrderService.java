@@ -2,11 +2,12 @@ package com.example.demo.service;
 
 import java.util.List;
 
+import com.example.demo.dto.OrderPage;
 import com.example.demo.model.Order;
 /**
  * OrderService 介面 — 定義訂單（Order）相關的業務邏輯操作。
  *
- * 提供訂單的基本CRUD功能與與額外功能，例如依照客戶id查詢訂單、訂單付款與取消訂單。
+ * 提供訂單的基本CRUD功能與與額外功能，例如依照客戶id查詢訂單、分頁查詢訂單歷史、訂單付款與取消訂單。
  */
 public interface OrderService {
 	Order createOrder(Long customerId, List<Long> selectedProductIds);
@@ -18,6 +19,8 @@ public interface OrderService {
     List<Order> getAllOrders();
 
     List<Order> getOrderByCustomerId(Long customerId);
+
+    OrderPage getOrderHistory(Long customerId, String cursor, int pageSize);
     
     void cancelOrder(Long orderId);
     
@@ -1,5 +1,8 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.ProductCursor;
+import com.example.demo.dto.ProductPage;
+import com.example.demo.dto.ProductSummary;
 import com.example.demo.model.Product;
 import java.util.List;
 
@@ -8,7 +11,7 @@ import org.springframework.web.multipart.MultipartFile;
 /**
  * ProductService 介面 — 定義商品（Product）相關的業務邏輯操作。
  *
- * 提供商品的基本 CRUD 操作與分頁查詢、關鍵字查詢等功能。
+ * 提供商品的基本 CRUD 操作與分頁查詢（含游標分頁）、關鍵字查詢等功能。
  * 
  */
 public interface ProductService {
@@ -21,9 +24,14 @@ public interface ProductService {
 
 	void deleteProduct(Long id);
 
-	List<Product> searchProductsByNameAndCategoryWithPage(String keyword, Long categoryId, int page, int pageSize);
+	List<ProductSummary> searchProductsByNameAndCategoryWithPage(String keyword, Long categoryId, int page, int pageSize);
 
 	int countProductsByNameAndCategory(String keyword, Long categoryId);
+
+	ProductPage searchProductsByCursor(String keyword, Long categoryId, ProductCursor.Sort sort, String cursor,
+			int pageSize);
 	
 	void addProduct(Product product, MultipartFile imageFile);
+
+	int rebuildSearchIndex();
 }
@@ -1,5 +1,6 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.UserCredentials;
 import com.example.demo.model.User;
 import java.util.List;
 /**
@@ -22,4 +23,8 @@ public interface UserService {
     
     User getUserByEmail(String email);
 
+    UserCredentials getCredentialsByEmail(String email);
+
+    boolean upgradePasswordHash(String email, String currentHash, String newHash);
+
 }
@@ -1,6 +1,7 @@
 package com.example.demo.service.impl;
 
 import com.example.demo.model.User;
+import com.example.demo.security.LoginAttemptThrottle;
 import com.example.demo.service.AuthService;
 import com.example.demo.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,13 +20,17 @@ public class AuthServiceImpl implements AuthService {
 	
 	@Autowired
 	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private LoginAttemptThrottle loginAttemptThrottle;
 	
 	/**
      * 使用電子郵件與密碼進行登入
      *
-     * 1. 根據電子郵件查詢使用者
-     * 2. 使用 PasswordEncoder 比對輸入密碼與資料庫密碼
-     * 3. 若比對成功回傳 User 物件，否則回傳 null
+     * 1. 帳號已達登入失敗上限時直接回傳 null，不比對密碼
+     * 2. 根據電子郵件查詢使用者
+     * 3. 使用 PasswordEncoder 比對輸入密碼與資料庫密碼
+     * 4. 若比對成功回傳 User 物件（雜湊已過時則重新編碼寫回），否則累計失敗次數並回傳 null
      *
      * @param email 使用者電子郵件
      * @param Password 使用者輸入密碼（明文）
@@ -33,10 +38,18 @@ public class AuthServiceImpl implements AuthService {
      */
 	@Override
 	public User login(String email, String Password) {
+		if (loginAttemptThrottle.isBlocked(email, null)) {
+			return null; // 失敗次數過多，暫時拒絕
+		}
 		User user = userService.getUserByEmail(email);
 		if (user != null && passwordEncoder.matches(Password, user.getPassword())) {
+			loginAttemptThrottle.recordSuccess(email);
+			if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+				userService.upgradePasswordHash(email, user.getPassword(), passwordEncoder.encode(Password));
+			}
 			return user; // 密碼正確，登入成功
 		}
+		loginAttemptThrottle.recordFailure(email, null);
 		return null; // 登入失敗
 	}
 }
@@ -10,6 +10,8 @@ import org.springframework.transaction.annotation.Transactional;
 import com.example.demo.dao.CartDAO;
 import com.example.demo.dao.CustomerDAO;
 import com.example.demo.dao.ProductDAO;
+import com.example.demo.dto.CartSummary;
+import com.example.demo.inventory.HotSkuStockCounter;
 import com.example.demo.model.Cart;
 import com.example.demo.model.CartItem;
 import com.example.demo.model.Customer;
@@ -20,7 +22,9 @@ import com.example.demo.service.CartService;
  * CartService 的實作類別
  *
  * 此類別負責處理購物車相關的業務邏輯： - 新增商品至購物車 - 計算購物車總金額 - 移除購物車商品 - 更新商品數量 - 清空購物車 - 根據顧客 ID
- * - 取得購物車
+ * - 取得購物車 - 取得購物車頁面摘要
+ *
+ * 購物車總金額隨明細異動維護在購物車資料上，查詢總金額時不需載入明細。
  */
 @Service
 @Transactional
@@ -34,10 +38,13 @@ public class CartServiceImpl implements CartService {
 	@Autowired
 	private CustomerDAO customerDAO;
 
+	@Autowired
+	private HotSkuStockCounter hotSkuStockCounter;
+
 	/**
 	 * 將商品加入購物車
 	 *
-	 * 若購物車不存在，會自動建立。 若商品已存在，則累加數量並更新小計。
+	 * 若購物車不存在，會自動建立。 若商品已存在，則累加數量並更新小計及總金額。
 	 *
 	 * @param customerId 顧客 ID
 	 * @param productId  商品 ID
@@ -45,7 +52,7 @@ public class CartServiceImpl implements CartService {
 	 */
 	@Override
 	public void addToCart(Long customerId, Long productId, int quantity) {
-		Cart cart = cartDAO.findByCustomerId(customerId).orElseGet(() -> createCartForCustomer(customerId));
+		Cart cart = cartDAO.findByCustomerIdWithItems(customerId).orElseGet(() -> createCartForCustomer(customerId));
 
 		Product product = productDAO.findById(productId);
 		Optional<CartItem> existingItem = cart.getItems().stream().filter(i -> i.getProduct().getId().equals(productId))
@@ -64,23 +71,43 @@ public class CartServiceImpl implements CartService {
 			item.updateSubtotal();
 			cart.getItems().add(item);
 		}
+		cart.recalculateTotal();
 
 		cartDAO.save(cart);
 	}
 
 	/**
-	 * 計算購物車總金額
+	 * 取得購物車總金額
+	 *
+	 * 直接讀取購物車維護的總金額；尚未計算過總金額的舊購物車會在此補算並儲存。
 	 *
 	 * @param customerId 顧客 ID
-	 * @return 購物車總金額（BigDecimal）
+	 * @return 購物車總金額（BigDecimal）；沒有購物車時為 0
 	 */
 	@Override
 	public BigDecimal getCartTotal(Long customerId) {
-		Cart cart = cartDAO.findByCustomerId(customerId).orElseThrow();
-		return cart.getItems().stream()
-			    .map(CartItem::getSubtotal)
-			    .reduce(BigDecimal.ZERO, BigDecimal::add);
+		return cartDAO.findTotalByCustomerId(customerId).orElseGet(() -> cartDAO.findByCustomerIdWithItems(customerId)
+				.map(cart -> {
+					cart.recalculateTotal();
+					cartDAO.save(cart);
+					return cart.getTotal();
+				})
+				.orElse(BigDecimal.ZERO));
+	}
 
+	/**
+	 * 取得購物車頁面摘要
+	 *
+	 * 以單一查詢取得明細、商品名稱與庫存，並計算是否為空與總金額；
+	 * 顧客沒有購物車時回傳空摘要，不會建立購物車。
+	 *
+	 * @param customerId 顧客 ID
+	 * @return 購物車摘要
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public CartSummary getCartSummary(Long customerId) {
+		return new CartSummary(cartDAO.findLinesByCustomerId(customerId));
 	}
 
 	/**
@@ -91,8 +118,10 @@ public class CartServiceImpl implements CartService {
 	 */
 	@Override
 	public void removeItem(Long customerId, Long productId) {
-		Cart cart = cartDAO.findByCustomerId(customerId).orElseThrow(() -> new RuntimeException("購物車不存在"));
-		cartDAO.deleteByCartIdAndProductId(cart.getId(), productId);
+		Cart cart = cartDAO.findByCustomerIdWithItems(customerId).orElseThrow(() -> new RuntimeException("購物車不存在"));
+		cart.getItems().removeIf(item -> item.getProduct().getId().equals(productId));
+		cart.recalculateTotal();
+		cartDAO.save(cart);
 
 	}
 
@@ -105,13 +134,14 @@ public class CartServiceImpl implements CartService {
 	 */
 	@Override
 	public void updateQuantity(Long customerId, Long productId, int quantity) {
-		Cart cart = cartDAO.findByCustomerId(customerId).orElseThrow();
+		Cart cart = cartDAO.findByCustomerIdWithItems(customerId).orElseThrow();
 		for (CartItem item : cart.getItems()) {
 			if (item.getProduct().getId().equals(productId)) {
 				item.setQuantity(quantity);
 				item.updateSubtotal();
 			}
 		}
+		cart.recalculateTotal();
 		cartDAO.save(cart);
 	}
 
@@ -141,6 +171,7 @@ public class CartServiceImpl implements CartService {
 	public void clearCart(Long customerId) {
 		Cart cart = cartDAO.findByCustomerId(customerId).orElseThrow();
 		cart.getItems().clear();
+		cart.recalculateTotal();
 		cartDAO.save(cart);
 	}
 
@@ -175,10 +206,16 @@ public class CartServiceImpl implements CartService {
 	/**
 	 * 判斷商品庫存量是否足夠購買
 	 * 
+	 * 搶購商品在記憶體中判斷，不讀取商品資料列；其他商品依資料庫庫存判斷。
+	 * 
 	 * @return true或false
 	 */
 	@Override
+	@Transactional(readOnly = true)
 	public boolean checkStockBeforeAdd(Long productId, int quantity) {
+		if (hotSkuStockCounter.isHot(productId)) {
+			return hotSkuStockCounter.admits(productId, quantity);
+		}
 		Product product = productDAO.findById(productId);
 		if (product == null || quantity > product.getStock()) {
 			return false; // 超過庫存或商品不存在
@@ -1,12 +1,14 @@
 package com.example.demo.service.impl;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.demo.cache.CatalogCacheManager;
+import com.example.demo.cache.CategoryTreeCache;
 import com.example.demo.dao.CategoryDAO;
 import com.example.demo.model.Category;
 import com.example.demo.service.CategoryService;
@@ -28,6 +30,10 @@ import com.example.demo.service.CategoryService;
 public class CategoryServiceImpl implements CategoryService {
 	@Autowired
 	private CategoryDAO categoryDAO;
+	@Autowired
+	private CatalogCacheManager catalogCacheManager;
+	@Autowired
+	private CategoryTreeCache categoryTreeCache;
 	
 	/**
      * 取得所有分類。
@@ -35,6 +41,7 @@ public class CategoryServiceImpl implements CategoryService {
      * @return 所有分類的清單
      */
 	@Override
+	@Transactional(readOnly = true)
 	public List<Category> getAllCategories(){
 		return categoryDAO.findAll();
 	}
@@ -45,6 +52,7 @@ public class CategoryServiceImpl implements CategoryService {
      * @return 對應的 Category 物件；若不存在則回傳 null
      */
 	@Override
+	@Transactional(readOnly = true)
 	public Category getCategoryById(Long id) {
 		return categoryDAO.findById(id);
 	}
@@ -55,6 +63,7 @@ public class CategoryServiceImpl implements CategoryService {
      * @return 子分類清單；若無子分類則回傳空集合
      */
 	@Override
+	@Transactional(readOnly = true)
 	public List<Category> getSubCategories(Long parentId){
 		List<Category> children = categoryDAO.findByParentId(parentId);
         return children != null ? children : List.of();	
@@ -67,6 +76,7 @@ public class CategoryServiceImpl implements CategoryService {
 	@Override
 	public void saveCategory(Category category) {
 		categoryDAO.save(category);
+		catalogCacheManager.categoriesChanged();
 	}
 	/**
      * 根據分類 ID 刪除分類。
@@ -76,64 +86,53 @@ public class CategoryServiceImpl implements CategoryService {
 	@Override
 	public void deleteCategory(Long id) {
 		categoryDAO.delete(id);
+		catalogCacheManager.categoriesChanged();
 	}
 	/**
      * 取得三層分類（大分類 → 中分類 → 小分類）結構。
      *
-     * 此方法會先查詢所有大分類（parentId 為 null），
-     * 再遞迴查出中分類與小分類，建立階層樹狀結構。
+     * 由分類樹快照提供，快照有效時不查詢資料庫。
+     * 回傳的分類物件與清單由所有請求共用，不可修改。
      *
      * @return 三層分類的清單（包含巢狀子分類）
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Category> getThreeLevelCategories() {
-        // Step 1：查所有大分類（parent = null）
-        List<Category> topCategories = categoryDAO.findByParentId(null);
-
-        for (Category top : topCategories) {
-            // Step 2：查中分類
-            List<Category> middleCategories = categoryDAO.findByParentId(top.getId());
-            top.setChildren(middleCategories);
-
-            for (Category mid : middleCategories) {
-                // Step 3：查小分類
-                List<Category> smallCategories = categoryDAO.findByParentId(mid.getId());
-                mid.setChildren(smallCategories);
-            }
-        }
-        return topCategories;
+        return categoryTreeCache.getTree().getThreeLevelCategories();
     }
     /**
      * 取得指定分類及其所有子分類的 ID 清單（包含自己）。
      *
+     * 子孫分類 ID 在建立分類樹快照時已預先計算。
+     *
      * @param categoryId 目標分類的 ID
-     * @return 該分類及其所有子孫分類 ID 的集合
+     * @return 該分類及其所有子孫分類 ID 的集合（不可修改）
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Long> getAllChildCategoryIds(Long categoryId) {
-        List<Long> result = new ArrayList<>();
-        result.add(categoryId); // 包含自己
-        fetchChildren(categoryId, result);
-        return result;
-    }
-    /**
-     * 遞迴取得子分類的 ID，並加入結果清單。
-     *
-     * @param parentId 父分類 ID
-     * @param result   存放結果的清單
-     */
-    private void fetchChildren(Long parentId, List<Long> result) {
-        List<Category> children = categoryDAO.findByParentId(parentId);
-        for (Category child : children) {
-            result.add(child.getId());
-            fetchChildren(child.getId(), result);
-        }
+        return categoryTreeCache.getTree().getDescendantIds(categoryId);
     }
     /**
      * 取得所有最底層分類
      */
     @Override
+    @Transactional(readOnly = true)
     public List<Category> getAllLeafCategories() {
         return categoryDAO.findAllLeafCategories();
     }
+
+    /**
+     * 取得目前分類樹的版本，分類異動後遞增。
+     *
+     * 可作為分類相關輸出（例如分類選單片段）快取的鍵值；只讀取記憶體中的版本號，不開啟交易。
+     *
+     * @return 分類樹版本
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long getCategoryTreeVersion() {
+        return categoryTreeCache.getVersion();
+    }
 }
@@ -2,27 +2,52 @@ package com.example.demo.service.impl;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import com.example.demo.model.User;
+import com.example.demo.dto.UserCredentials;
 import com.example.demo.security.CustomUserDetails;
+import com.example.demo.security.UserDetailsCache;
 import com.example.demo.service.UserService;
+/**
+ * Spring Security 表單登入使用的使用者查詢
+ *
+ * <p>以投影查詢只取得驗證所需的欄位（{@link UserCredentials}），並透過
+ * {@link UserDetailsCache} 以信箱快取查詢結果。</p>
+ *
+ * <p>同時實作 {@link UserDetailsPasswordService}：登入成功且
+ * {@code PasswordEncoder.upgradeEncoding} 判斷雜湊已過時時，
+ * Spring Security 以目前設定重新編碼密碼並呼叫 {@link #updatePassword} 寫回資料庫。</p>
+ */
 @Service
 @Transactional
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 	@Autowired
     private UserService userService;
+
+	@Autowired
+	private UserDetailsCache userDetailsCache;
 	
+	/** 快取命中時不需要開啟交易（取得資料庫連線），查詢由 UserService 自行開啟唯讀交易 */
 	@Override
+	@Transactional(propagation = Propagation.SUPPORTS)
 	public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-	    User user = userService.getUserByEmail(email);
+	    UserCredentials user = userDetailsCache.get(email, userService::getCredentialsByEmail);
 	    if (user == null) {
 	        throw new UsernameNotFoundException("找不到使用者: " + email);
 	    }
 	    return new CustomUserDetails(user);
 	}
 
+	@Override
+	public UserDetails updatePassword(UserDetails user, String newPassword) {
+		if (!userService.upgradePasswordHash(user.getUsername(), user.getPassword(), newPassword)) {
+			return user; // 密碼已在此期間被修改，保留新密碼
+		}
+		return new CustomUserDetails(((CustomUserDetails) user).getUser().withPasswordHash(newPassword));
+	}
 }
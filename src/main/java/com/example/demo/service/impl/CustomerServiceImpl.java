@@ -2,9 +2,14 @@ package com.example.demo.service.impl;
 
 import com.example.demo.dao.CustomerDAO;
 import com.example.demo.dao.UserDAO;
+import com.example.demo.dto.CustomerIdentity;
 import com.example.demo.model.Customer;
 import com.example.demo.model.User;
+import com.example.demo.security.CustomerIdentityCache;
+import com.example.demo.security.UserDetailsCache;
 import com.example.demo.service.CustomerService;
+import com.example.demo.util.TransactionCallbacks;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -29,6 +34,12 @@ public class CustomerServiceImpl implements CustomerService {
 	@Autowired
 	private PasswordEncoder passwordEncoder;
 
+	@Autowired
+	private CustomerIdentityCache customerIdentityCache;
+
+	@Autowired
+	private UserDetailsCache userDetailsCache;
+
 	/**
 	 * 註冊新顧客
 	 *
@@ -73,9 +84,25 @@ public class CustomerServiceImpl implements CustomerService {
 	 * @param userId 取得使用者的 ID
 	 * @return 對應的 {@link Customer} 物件；若找不到則回傳 {@code null}
 	 */
+	@Transactional(readOnly = true)
 	public Customer getCustomerByUserId(Long userId) {
 		return customerDAO.findByUserId(userId);
 	}
+
+	/**
+	 * 根據使用者 ID 取得顧客識別資料（顧客 ID 與姓名）
+	 *
+	 * <p>只查詢識別所需欄位；Web 層由 {@link CustomerIdentityCache} 快取結果，
+	 * 顧客資料修改時於交易提交後清除。</p>
+	 *
+	 * @param userId 取得使用者的 ID
+	 * @return 對應的 {@link CustomerIdentity}；若找不到則回傳 {@code null}
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public CustomerIdentity getCustomerIdentity(Long userId) {
+		return customerDAO.findIdentityByUserId(userId);
+	}
 	
 	/**
 	 * 修改使用者密碼
@@ -95,6 +122,8 @@ public class CustomerServiceImpl implements CustomerService {
 			String encodedPassword = passwordEncoder.encode(newPassword);
 			existingUser.setPassword(encodedPassword);
 			userDAO.save(existingUser);
+			String email = existingUser.getEmail();
+			TransactionCallbacks.afterCommit(() -> userDetailsCache.invalidate(email));
 		}
 	}
 	
@@ -114,6 +143,7 @@ public class CustomerServiceImpl implements CustomerService {
 		existingCustomer.setPhone(updatedCustomer.getPhone());
 		existingCustomer.setAddress(updatedCustomer.getAddress());
 		customerDAO.save(existingCustomer);
+		TransactionCallbacks.afterCommit(() -> customerIdentityCache.invalidate(id));
 	}
 
 	/**
@@ -124,6 +154,7 @@ public class CustomerServiceImpl implements CustomerService {
 	 * @return	true或false
 	 */
 	@Override
+	@Transactional(readOnly = true)
 	public boolean checkPassword(Long id, String oldPassword) {
 		User existingUser = userDAO.findById(id);
 		if (existingUser == null)
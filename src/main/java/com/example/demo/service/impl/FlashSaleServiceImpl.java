@@ -0,0 +1,82 @@
+package com.example.demo.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.dao.FlashSaleDAO;
+import com.example.demo.dao.ProductDAO;
+import com.example.demo.dto.FlashSaleStatus;
+import com.example.demo.inventory.HotSkuStockCounter;
+import com.example.demo.model.FlashSale;
+import com.example.demo.service.FlashSaleService;
+
+/**
+ * FlashSaleService 的實作類別
+ *
+ * 啟用與關閉交由 {@link HotSkuStockCounter} 在各自獨立的交易中更新搶購設定與商品庫存，
+ * 因此這兩個方法不開啟外層交易（避免同時佔用兩條連線）。
+ */
+@Service
+public class FlashSaleServiceImpl implements FlashSaleService {
+
+	@Autowired
+	private FlashSaleDAO flashSaleDAO;
+
+	@Autowired
+	private ProductDAO productDAO;
+
+	@Autowired
+	private HotSkuStockCounter hotSkuStockCounter;
+
+	/**
+	 * 查詢所有啟用中的搶購商品與記憶體統計。
+	 *
+	 * @return 搶購商品狀態，依商品 ID 排序
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public List<FlashSaleStatus> getActiveFlashSales() {
+		List<FlashSaleStatus> result = new ArrayList<>();
+		for (FlashSale sale : flashSaleDAO.findActive()) {
+			result.add(new FlashSaleStatus(sale, productDAO.findById(sale.getProductId()),
+					hotSkuStockCounter.getStats(sale.getProductId()).orElse(null)));
+		}
+		return result;
+	}
+
+	/**
+	 * 啟用商品的搶購模式。
+	 *
+	 * @param productId 商品 ID
+	 * @throws RuntimeException 商品不存在或已是搶購模式時拋出
+	 */
+	@Override
+	public void startFlashSale(Long productId) {
+		if (productDAO.findById(productId) == null) {
+			throw new RuntimeException("商品不存在：" + productId);
+		}
+		if (!hotSkuStockCounter.enable(productId)) {
+			throw new RuntimeException("商品 " + productId + " 已是搶購模式");
+		}
+	}
+
+	/**
+	 * 關閉商品的搶購模式，記憶體中剩餘的庫存歸還資料庫。
+	 *
+	 * @param productId 商品 ID
+	 * @return 歸還的數量
+	 * @throws RuntimeException 商品不是搶購模式時拋出
+	 */
+	@Override
+	public int stopFlashSale(Long productId) {
+		int returned = hotSkuStockCounter.disable(productId);
+		if (returned < 0) {
+			throw new RuntimeException("商品 " + productId + " 不是搶購模式");
+		}
+		return returned;
+	}
+}
@@ -0,0 +1,124 @@
+package com.example.demo.service.impl;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.cache.CatalogCacheManager;
+import com.example.demo.dao.OrderDAO;
+import com.example.demo.dao.ProductDAO;
+import com.example.demo.inventory.HotSkuStockCounter;
+import com.example.demo.model.Product;
+import com.example.demo.service.InventoryService;
+import com.example.demo.util.TransactionCallbacks;
+
+/**
+ * InventoryService 的實作類別
+ *
+ * 所有庫存異動都以資料庫端的原子更新完成，不先讀出再寫回： - 預留：一般商品以條件式 UPDATE 批次扣減；熱門商品由
+ * {@link HotSkuStockCounter} 從記憶體扣減，不鎖定資料列 - 確認：訂單狀態由待付款改為付款完畢 - 釋放：訂單狀態由待付款改為訂單取消，
+ * 成功後以 {@code stock = stock + ?} 歸還庫存
+ */
+@Service
+@Transactional
+public class InventoryServiceImpl implements InventoryService {
+
+	private static final Logger logger = LoggerFactory.getLogger(InventoryServiceImpl.class);
+
+	private static final String STATUS_PENDING = "待付款";
+	private static final String STATUS_PAID = "付款完畢";
+	private static final String STATUS_CANCELLED = "訂單取消";
+
+	@Autowired
+	private ProductDAO productDAO;
+
+	@Autowired
+	private OrderDAO orderDAO;
+
+	@Autowired
+	private HotSkuStockCounter hotSkuStockCounter;
+
+	@Autowired
+	private CatalogCacheManager catalogCacheManager;
+
+	/**
+	 * 預留多項商品的庫存，任一商品不足則拋出例外，整筆交易回滾。
+	 *
+	 * 熱門商品從記憶體扣減的數量不受資料庫交易保護，交易回滾後會放回記憶體。
+	 *
+	 * @param quantities 商品 ID → 數量
+	 * @throws RuntimeException 任一商品庫存不足時拋出，訊息包含商品名稱
+	 */
+	@Override
+	public void reserve(Map<Long, Integer> quantities) {
+		Map<Long, Integer> database = new LinkedHashMap<>();
+		Map<Long, Boolean> reserved = new TreeMap<>();
+		for (Map.Entry<Long, Integer> entry : new TreeMap<>(quantities).entrySet()) {
+			Long productId = entry.getKey();
+			int quantity = entry.getValue();
+			switch (hotSkuStockCounter.take(productId, quantity)) {
+			case TAKEN:
+				TransactionCallbacks.afterRollback(() -> hotSkuStockCounter.giveBack(productId, quantity));
+				reserved.put(productId, true);
+				break;
+			case INSUFFICIENT:
+				reserved.put(productId, false);
+				break;
+			default:
+				database.put(productId, quantity);
+			}
+		}
+		if (!database.isEmpty()) {
+			reserved.putAll(productDAO.reduceStockBatch(database));
+			catalogCacheManager.productsChanged(database.keySet());
+		}
+
+		List<Long> insufficient = reserved.entrySet().stream().filter(entry -> !entry.getValue())
+				.map(Map.Entry::getKey).collect(Collectors.toList());
+		if (!insufficient.isEmpty()) {
+			String names = productDAO.findByIds(insufficient).stream().map(Product::getName)
+					.collect(Collectors.joining("、"));
+			// 拋出例外後整筆交易回滾，已扣減的庫存一併還原
+			throw new RuntimeException("庫存不足：" + names);
+		}
+	}
+
+	/**
+	 * 確認預留（訂單付款）。
+	 *
+	 * @param orderId 訂單 ID
+	 * @return {@code true} 已確認；{@code false} 訂單不是待付款狀態（已付款、已取消或不存在）
+	 */
+	@Override
+	public boolean commit(Long orderId) {
+		return orderDAO.updateStatus(orderId, STATUS_PENDING, STATUS_PAID);
+	}
+
+	/**
+	 * 釋放預留（取消訂單），將訂單中的商品數量歸還庫存。
+	 *
+	 * 狀態變更成功才歸還，重複或同時取消同一筆訂單只會歸還一次。
+	 *
+	 * @param orderId 訂單 ID
+	 * @return {@code true} 已釋放；{@code false} 訂單不是待付款狀態
+	 */
+	@Override
+	public boolean release(Long orderId) {
+		if (!orderDAO.updateStatus(orderId, STATUS_PENDING, STATUS_CANCELLED)) {
+			return false;
+		}
+		Map<Long, Integer> quantities = orderDAO.findProductQuantities(orderId);
+		productDAO.addStockBatch(quantities);
+		catalogCacheManager.productsChanged(quantities.keySet());
+		logger.debug("訂單 {} 已釋放庫存：{}", orderId, quantities);
+		return true;
+	}
+}
@@ -1,8 +1,14 @@
 package com.example.demo.service.impl;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -13,18 +19,24 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.example.demo.dao.CartDAO;
 import com.example.demo.dao.OrderDAO;
-import com.example.demo.dao.ProductDAO;
+import com.example.demo.dao.OrderSummaryDAO;
+import com.example.demo.dto.OrderCursor;
+import com.example.demo.dto.OrderPage;
+import com.example.demo.journal.OrderEvent;
+import com.example.demo.journal.OrderEventJournal;
 import com.example.demo.model.Cart;
 import com.example.demo.model.CartItem;
 import com.example.demo.model.Order;
 import com.example.demo.model.OrderItem;
+import com.example.demo.model.OrderSummary;
 import com.example.demo.model.Product;
+import com.example.demo.service.InventoryService;
 import com.example.demo.service.OrderService;
 
 /**
  * OrderService 的實作類別
  *
- * 此類別主要負責處理訂單的業務邏輯： - 從購物車建立訂單 - 查詢、儲存訂單 - 根據顧客 ID 查詢訂單
+ * 此類別主要負責處理訂單的業務邏輯： - 從購物車建立訂單 - 查詢、儲存訂單 - 根據顧客 ID 查詢訂單 - 分頁查詢訂單摘要（建立、付款、取消時同步維護）
  */
 @Service
 @Transactional
@@ -35,17 +47,23 @@ public class OrderServiceImpl implements OrderService {
 	@Autowired
 	private OrderDAO orderDAO;
 
+	@Autowired
+	private OrderSummaryDAO orderSummaryDAO;
+
 	@Autowired
 	private CartDAO cartDAO;
 
 	@Autowired
-	private ProductDAO productDAO;
+	private OrderEventJournal orderEventJournal;
+
+	@Autowired
+	private InventoryService inventoryService;
 
 	/**
 	 * 根據顧客 ID 建立新訂單。
 	 *
-	 * 此方法會： 1. 讀取顧客的購物車。 2. 檢查購物車是否為空。 3. 判斷商品庫存量是否足夠並加入購物車。 4. 計算總金額並儲存訂單。 5.
-	 * 清空購物車。
+	 * 此方法會： 1. 以一次查詢讀取顧客的購物車、明細與商品。 2. 檢查購物車是否為空。 3. 透過 {@link InventoryService} 預留所有選取商品的庫存，
+	 * 任一商品庫存不足則整筆訂單失敗。 4. 計算總金額並儲存訂單。 5. 清空購物車中已下單的商品。
 	 *
 	 * @param customerId 顧客ID
 	 * @return 建立完成的訂單物件
@@ -54,39 +72,40 @@ public class OrderServiceImpl implements OrderService {
 	@Override
 	public Order createOrder(Long customerId, List<Long> selectedProductIds) {
 
-		Optional<Cart> optionalCart = cartDAO.findByCustomerId(customerId);
+		Optional<Cart> optionalCart = cartDAO.findByCustomerIdWithItems(customerId);
 		Cart cart = optionalCart.orElse(null); // 若找不到則為 null
 
 		if (cart == null || cart.getItems().isEmpty()) {
 			logger.warn("顧客 ID {} 的購物車為空，無法建立訂單。", customerId);
 			throw new RuntimeException("購物車為空");
 		}
+		Set<Long> selected = new HashSet<>(selectedProductIds);
 		List<CartItem> selectedItems = cart.getItems().stream()
-				.filter(item -> selectedProductIds.contains(item.getProduct().getId())).collect(Collectors.toList());
+				.filter(item -> selected.contains(item.getProduct().getId())).collect(Collectors.toList());
 		if (selectedItems.isEmpty()) {
 			logger.warn("[Order Log] 顧客ID {} 未選擇商品建立訂單。", customerId);
 			throw new RuntimeException("未選擇任何商品建立訂單");
 		}
+
+		// 同一商品若有多筆明細則合併數量，一次預留
+		Map<Long, Integer> quantities = new LinkedHashMap<>();
+		for (CartItem cartItem : selectedItems) {
+			quantities.merge(cartItem.getProduct().getId(), cartItem.getQuantity(), Integer::sum);
+		}
+		try {
+			inventoryService.reserve(quantities);
+		} catch (RuntimeException e) {
+			logger.warn("[Order Log] 顧客ID {} 嘗試下單，{}", customerId, e.getMessage());
+			throw e;
+		}
+
 		Order order = new Order();
 		order.setCustomer(cart.getCustomer());
 		order.setStatus("待付款");
 		BigDecimal total = BigDecimal.ZERO;
 
 		for (CartItem cartItem : selectedItems) {
-			Product product = productDAO.findById(cartItem.getProduct().getId());
-			if (product == null){
-	            logger.error("[Order Log] 顧客ID {} 嘗試下單，但商品ID {} 不存在。", customerId, cartItem.getProduct().getId());
-				throw new RuntimeException("商品不存在");
-			}
-			boolean success = productDAO.reduceStock(cartItem.getProduct().getId(), cartItem.getQuantity());
-			if (!success) {
-	            logger.warn("[Order Log] 顧客ID {} 嘗試下單，商品 {} 庫存不足。", customerId, product.getName());
-				throw new RuntimeException("庫存不足");
-			}
-
-			product.setStock(product.getStock() - cartItem.getQuantity());
-			productDAO.save(product);
-
+			Product product = cartItem.getProduct();
 			OrderItem orderItem = new OrderItem();
 			orderItem.setOrder(order);
 			orderItem.setProduct(product);
@@ -99,10 +118,13 @@ public class OrderServiceImpl implements OrderService {
 
 		order.setTotalAmount(total);
 		orderDAO.save(order);
+		orderSummaryDAO.save(OrderSummary.of(order));
 
-		cart.getItems().removeIf(item -> selectedProductIds.contains(item.getProduct().getId()));
+		cart.getItems().removeIf(item -> selected.contains(item.getProduct().getId()));
+		cart.recalculateTotal();
 		cartDAO.save(cart);
-		logger.info("[Order Log] 顧客ID {} 成功建立訂單ID {}，商品數量 {}，總價 {}",
+		orderEventJournal.record(OrderEvent.Type.CREATED, order);
+		logger.debug("[Order Log] 顧客ID {} 成功建立訂單ID {}，商品數量 {}，總價 {}",
 	            customerId,
 	            order.getId(),
 	            order.getItems().size(),
@@ -124,17 +146,17 @@ public class OrderServiceImpl implements OrderService {
 	/**
 	 * 根據訂單 ID 查詢訂單。
 	 *
-	 * 若有 Lazy Loading（延遲載入）， 會在此強制載入 orderItems 以避免 LazyInitializationException。
+	 * 以同一個查詢載入訂單明細與商品，交易結束後使用明細也不會 LazyInitializationException。
 	 *
 	 * @param id 訂單 ID
 	 * @return Order 物件，若查無則回傳 null
 	 */
 	@Override
+	@Transactional(readOnly = true)
 	public Order getOrderById(Long id) {
-		Order order = orderDAO.findById(id);
+		Order order = orderDAO.findByIdWithItems(id);
 		if (order != null) {
-			order.getItems().size(); // 強制載入關聯項目
-			logger.info("成功查詢訂單，ID：{}", id);
+			logger.debug("成功查詢訂單，ID：{}", id);
 		} else {
 			logger.warn("查無訂單，ID：{}", id);
 		}
@@ -147,9 +169,10 @@ public class OrderServiceImpl implements OrderService {
 	 * @return 所有訂單列表
 	 */
 	@Override
+	@Transactional(readOnly = true)
 	public List<Order> getAllOrders() {
 		List<Order> orders = orderDAO.findAll();
-		logger.info("已查詢所有訂單，共 {} 筆。", orders.size());
+		logger.debug("已查詢所有訂單，共 {} 筆。", orders.size());
 		return orders;
 	}
 
@@ -162,33 +185,74 @@ public class OrderServiceImpl implements OrderService {
 	 * @return 該顧客的訂單列表
 	 */
 	@Override
+	@Transactional(readOnly = true)
 	public List<Order> getOrderByCustomerId(Long customerId) {
 		List<Order> orders = orderDAO.findByCustomerId(customerId);
 		if (orders == null || orders.isEmpty()) {
-			logger.info("顧客 ID {} 尚無訂單紀錄。", customerId);
+			logger.debug("顧客 ID {} 尚無訂單紀錄。", customerId);
 			return List.of();
 		}
-		logger.info("查詢到顧客 ID {} 的訂單，共 {} 筆。", customerId, orders.size());
+		logger.debug("查詢到顧客 ID {} 的訂單，共 {} 筆。", customerId, orders.size());
 		return orders;
 	}
 
+	/**
+	 * 以游標分頁查詢顧客的訂單摘要（由新到舊），只讀取 {@code order_summary}，不載入訂單明細。
+	 *
+	 * @param customerId 顧客 ID
+	 * @param cursor     上一頁回傳的游標字串；空值或無法解析時為第一頁
+	 * @param pageSize   每頁訂單數
+	 * @return 本頁訂單與前後頁游標
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public OrderPage getOrderHistory(Long customerId, String cursor, int pageSize) {
+		OrderCursor current = OrderCursor.decode(cursor);
+		// 多取一筆判斷是否還有下一頁
+		List<OrderSummary> rows = orderSummaryDAO.findPageByCustomerId(customerId, current, pageSize + 1);
+		boolean hasMore = rows.size() > pageSize;
+		List<OrderSummary> orders = new ArrayList<>(hasMore ? rows.subList(0, pageSize) : rows);
+
+		String previous = null;
+		String next = null;
+		if (current != null && current.isBackward()) {
+			// 往上一頁查詢時結果為反向順序，轉回顯示順序
+			Collections.reverse(orders);
+			if (hasMore) {
+				previous = OrderCursor.before(orders.get(0)).encode();
+			}
+			if (!orders.isEmpty()) {
+				next = OrderCursor.after(orders.get(orders.size() - 1)).encode();
+			}
+		} else {
+			if (current != null && !orders.isEmpty()) {
+				previous = OrderCursor.before(orders.get(0)).encode();
+			}
+			if (hasMore) {
+				next = OrderCursor.after(orders.get(orders.size() - 1)).encode();
+			}
+		}
+		return new OrderPage(orders, previous, next);
+	}
+
 	/**
 	 * 取消訂單
 	 * 
+	 * 只有待付款的訂單可以取消，庫存以原子遞增歸還，同時取消同一筆訂單只會歸還一次。
+	 * 
 	 * @param orderId 訂單ID
+	 * @throws RuntimeException 訂單不是待付款狀態時拋出
 	 */
 	@Override
 	public void cancelOrder(Long orderId) {
-		Order order = getOrderById(orderId);
-		for(OrderItem item : order.getItems()) {
-			Product product = item.getProduct();
-			int newStock = product.getStock() + item.getQuantity();
-			product.setStock(newStock);
-			productDAO.save(product);
+		if (!inventoryService.release(orderId)) {
+			logger.warn("[Order Log] 訂單ID {} 不是待付款狀態，無法取消。", orderId);
+			throw new RuntimeException("訂單已付款或已取消，無法取消");
 		}
-		order.setStatus("訂單取消");
-		orderDAO.save(order);
-		logger.info("[Order Log] 顧客ID {} 訂單ID {} 已取消，總價 {}",
+		orderSummaryDAO.syncStatus(orderId);
+		Order order = getOrderById(orderId);
+		orderEventJournal.record(OrderEvent.Type.CANCELLED, order);
+		logger.debug("[Order Log] 顧客ID {} 訂單ID {} 已取消，總價 {}",
 	            order.getCustomer().getId(),
 	            order.getId(),
 	            order.getTotalAmount());
@@ -197,14 +261,21 @@ public class OrderServiceImpl implements OrderService {
 	/**
 	 * 訂單付款
 	 * 
+	 * 只有待付款的訂單可以付款，已取消的訂單不會被改為付款完畢。
+	 * 
 	 * @param orderId 訂單ID
+	 * @throws RuntimeException 訂單不是待付款狀態時拋出
 	 */
 	@Override
 	public void payOrder(Long orderId) {
+		if (!inventoryService.commit(orderId)) {
+			logger.warn("[Order Log] 訂單ID {} 不是待付款狀態，無法付款。", orderId);
+			throw new RuntimeException("訂單已付款或已取消，無法付款");
+		}
+		orderSummaryDAO.syncStatus(orderId);
 		Order order = getOrderById(orderId);
-		order.setStatus("付款完畢");
-		orderDAO.save(order); 
-		logger.info("[Order Log] 顧客ID {} 訂單ID {} 已付款，總價 {}",
+		orderEventJournal.record(OrderEvent.Type.PAID, order);
+		logger.debug("[Order Log] 顧客ID {} 訂單ID {} 已付款，總價 {}",
 	            order.getCustomer().getId(),
 	            order.getId(),
 	            order.getTotalAmount());
@@ -1,18 +1,25 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.cache.CatalogCacheManager;
+import com.example.demo.cache.ProductCountCache;
 import com.example.demo.dao.ProductDAO;
+import com.example.demo.dto.ProductCursor;
+import com.example.demo.dto.ProductPage;
+import com.example.demo.dto.ProductSummary;
+import com.example.demo.image.ProductImageStore;
 import com.example.demo.model.Product;
+import com.example.demo.search.ProductSearchIndex;
 import com.example.demo.service.CategoryService;
 import com.example.demo.service.ProductService;
+import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
-import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.UUID;
 
 /**
  * ProductService 的實作類別
@@ -25,6 +32,8 @@ import java.util.UUID;
  *  - 新增商品 
  *  - 刪除商品 
  *  - 分頁關鍵字查詢及分類取得商品清單
+ *  - 游標分頁查詢商品清單（有關鍵字時使用搜尋索引）
+ *  - 重建搜尋索引
  */
 @Service
 @Transactional
@@ -34,13 +43,25 @@ public class ProductServiceImpl implements ProductService {
 	private ProductDAO productDAO;
 	@Autowired
 	private CategoryService categoryService;
-	private static final String UPLOAD_DIR = "/home/yiou/shop_uploads/images/products/";
+	@Autowired
+	private CatalogCacheManager catalogCacheManager;
+	@Autowired
+	private ProductCountCache productCountCache;
+	@Autowired
+	private ProductSearchIndex productSearchIndex;
+	@Autowired
+	private SessionFactory sessionFactory;
+	@Autowired
+	private ProductImageStore productImageStore;
+	/** 重建搜尋索引時每批讀取的商品數 */
+	private static final int REBUILD_BATCH_SIZE = 500;
 	/**
 	 * 取得所有商品清單
 	 *
 	 * @return List<Product> 所有商品的列表
 	 */
 	@Override
+	@Transactional(readOnly = true)
 	public List<Product> getAllProducts() {
 		return productDAO.findAll();
 	}
@@ -52,6 +73,7 @@ public class ProductServiceImpl implements ProductService {
 	 * @return Product 物件，若找不到則回傳 null
 	 */
 	@Override
+	@Transactional(readOnly = true)
 	public Product getProductById(Long id) {
 		return productDAO.findById(id);
 	}
@@ -64,6 +86,8 @@ public class ProductServiceImpl implements ProductService {
 	@Override
 	public void saveProduct(Product product) {
 		productDAO.save(product);
+		catalogCacheManager.productChanged(product.getId());
+		productSearchIndex.productSaved(product);
 	}
 
 	/**
@@ -74,6 +98,8 @@ public class ProductServiceImpl implements ProductService {
 	@Override
 	public void deleteProduct(Long id) {
 		productDAO.delete(id);
+		catalogCacheManager.productChanged(id);
+		productSearchIndex.productDeleted(id);
 	}
 	
 	/**
@@ -83,10 +109,11 @@ public class ProductServiceImpl implements ProductService {
 	 * @param categoryId 商品分類 ID，可為 null，若指定則包含子分類商品
 	 * @param page       分頁頁碼，從 1 開始
 	 * @param pageSize   每頁顯示的商品數量
-	 * @return 查詢到的商品列表
+	 * @return 查詢到的商品列表（列表欄位投影）
 	 */
 	@Override
-	public List<Product> searchProductsByNameAndCategoryWithPage(String keyword, Long categoryId, int page, int pageSize) {
+	@Transactional(readOnly = true)
+	public List<ProductSummary> searchProductsByNameAndCategoryWithPage(String keyword, Long categoryId, int page, int pageSize) {
 	    List<Long> categoryIds = null;
 	    if (categoryId != null) {
 	        categoryIds = categoryService.getAllChildCategoryIds(categoryId);
@@ -97,44 +124,164 @@ public class ProductServiceImpl implements ProductService {
 	/**
 	 * 根據關鍵字與分類統計符合條件的商品數量。
 	 *
+	 * 結果會快取，換頁時不重新計算；商品或分類異動時清除。
+	 *
 	 * @param keyword    搜尋關鍵字，可為商品名稱或部分名稱
 	 * @param categoryId 商品分類 ID，可為 null，若指定則包含子分類商品
 	 * @return 符合條件的商品總數
 	 */
 	@Override
+	@Transactional(readOnly = true)
 	public int countProductsByNameAndCategory(String keyword, Long categoryId) {
+	    return productCountCache.get(keyword, categoryId, () -> {
+	        List<Long> categoryIds = null;
+	        if (categoryId != null) {
+	            categoryIds = categoryService.getAllChildCategoryIds(categoryId);
+	        }
+	        if (productSearchIndex.canSearch(keyword)) {
+	            return productSearchIndex.count(keyword, categoryIds);
+	        }
+	        return productDAO.countProductsByNameAndCategory(keyword, categoryIds);
+	    });
+	}
+
+	/**
+	 * 以游標分頁查詢商品。
+	 *
+	 * 多取一筆判斷是否還有下一頁（往上一頁時則判斷是否還有上一頁），
+	 * 並依本頁第一筆與最後一筆商品產生前後頁游標。
+	 *
+	 * 有關鍵字且搜尋索引可用時，以索引比對商品名稱與描述：
+	 * 依相關度排序時直接取索引排名；依價格或上架順序排序時也在索引內排序並以游標定位，
+	 * 再依索引回傳的 ID 讀取本頁商品。
+	 *
+	 * @param keyword    搜尋關鍵字，可為 null
+	 * @param categoryId 商品分類 ID，可為 null，若指定則包含子分類商品
+	 * @param sort       排序方式；相關度排序在無法使用索引時改為依上架順序
+	 * @param cursor     上一次查詢回傳的游標；為 null 或與排序方式不符時從第一頁開始
+	 * @param pageSize   每頁顯示的商品數量
+	 * @return 本頁商品、前後頁游標與符合條件的商品總數
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public ProductPage searchProductsByCursor(String keyword, Long categoryId, ProductCursor.Sort sort,
+			String cursor, int pageSize) {
+	    boolean useIndex = productSearchIndex.canSearch(keyword);
+	    if (sort == ProductCursor.Sort.RELEVANCE && !useIndex) {
+	        sort = ProductCursor.Sort.ID;
+	    }
+	    ProductCursor current = ProductCursor.decode(cursor);
+	    if (current != null && current.getSort() != sort) {
+	        current = null;
+	    }
 	    List<Long> categoryIds = null;
 	    if (categoryId != null) {
 	        categoryIds = categoryService.getAllChildCategoryIds(categoryId);
 	    }
-	    return productDAO.countProductsByNameAndCategory(keyword, categoryIds);
+
+	    if (sort == ProductCursor.Sort.RELEVANCE) {
+	        int offset = current != null ? current.getOffset() : 0;
+	        ProductSearchIndex.SearchResult result = productSearchIndex.search(keyword, categoryIds, offset, pageSize);
+	        List<ProductSummary> items = productDAO.findSummariesByIds(result.getProductIds());
+	        String previous = offset > 0 ? ProductCursor.atOffset(Math.max(0, offset - pageSize)).encode() : null;
+	        String next = offset + pageSize < result.getTotalHits()
+	                ? ProductCursor.atOffset(offset + pageSize).encode() : null;
+	        return new ProductPage(items, previous, next, result.getTotalHits(), sort);
+	    }
+
+	    List<ProductSummary> items;
+	    boolean hasMore;
+	    int total;
+	    if (useIndex) {
+	        ProductSearchIndex.SearchResult result = productSearchIndex.searchByCursor(keyword, categoryIds, sort,
+	                current, pageSize + 1);
+	        List<Long> ids = result.getProductIds();
+	        hasMore = ids.size() > pageSize;
+	        items = new ArrayList<>(productDAO.findSummariesByIds(hasMore ? ids.subList(0, pageSize) : ids));
+	        total = result.getTotalHits();
+	    } else {
+	        List<ProductSummary> rows = productDAO.searchSummariesByCursor(keyword, categoryIds, sort, current,
+	                pageSize + 1);
+	        hasMore = rows.size() > pageSize;
+	        items = new ArrayList<>(hasMore ? rows.subList(0, pageSize) : rows);
+	        total = countProductsByNameAndCategory(keyword, categoryId);
+	    }
+
+	    String previous = null;
+	    String next = null;
+	    if (current != null && current.isBackward()) {
+	        // 往上一頁查詢時結果為反向順序，轉回顯示順序
+	        Collections.reverse(items);
+	        if (hasMore && !items.isEmpty()) {
+	            previous = ProductCursor.before(items.get(0), sort).encode();
+	        }
+	        if (!items.isEmpty()) {
+	            next = ProductCursor.after(items.get(items.size() - 1), sort).encode();
+	        }
+	    } else {
+	        if (current != null && !items.isEmpty()) {
+	            previous = ProductCursor.before(items.get(0), sort).encode();
+	        }
+	        if (hasMore && !items.isEmpty()) {
+	            next = ProductCursor.after(items.get(items.size() - 1), sort).encode();
+	        }
+	    }
+	    return new ProductPage(items, previous, next, total, sort);
 	}
+
 	/**
 	 * 新增商品與上傳圖片
+	 *
+	 * 圖片以內容雜湊為檔名儲存，縮圖於交易提交後在背景產生（見 {@link ProductImageStore}）。
 	 * 
 	 * @param product 新增商品物件
 	 * @param imageFile 新增圖片檔案
 	 */
 	@Override
     public void addProduct(Product product, MultipartFile imageFile) {
+        String imageUrl = null;
         if (imageFile != null && !imageFile.isEmpty()) {
-            try {
-                // 產生唯一檔名
-                String fileName = UUID.randomUUID() + "_" + imageFile.getOriginalFilename();
-                File dest = new File(UPLOAD_DIR + fileName);
-
-                // 確保資料夾存在
-                dest.getParentFile().mkdirs();
-                imageFile.transferTo(dest);
-
-                // 設定圖片路徑（相對於靜態資源映射）
-                product.setImageUrl("/uploads/" + fileName);
-
-            } catch (IOException e) {
-                throw new RuntimeException("圖片上傳失敗", e);
-            }
+            imageUrl = productImageStore.store(imageFile);
+            product.setImageUrl(imageUrl);
+            // 相同圖片先前已上傳過時縮圖已存在
+            product.setImageVariants(productImageStore.hasVariants(imageUrl));
         }
 
         productDAO.save(product);
+        catalogCacheManager.productChanged(product.getId());
+        productSearchIndex.productSaved(product);
+        if (imageUrl != null && !product.isImageVariants()) {
+            productImageStore.generateVariantsAfterCommit(imageUrl);
+        }
     }
+
+	/**
+	 * 以資料庫中的全部商品重建搜尋索引。
+	 *
+	 * 依商品 ID 分批讀取，每批寫入索引後清出 Session，避免一次載入全部商品。
+	 *
+	 * @return 索引的商品數
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public int rebuildSearchIndex() {
+		ProductSearchIndex.Rebuild rebuild = productSearchIndex.beginRebuild();
+		try {
+			ProductCursor cursor = null;
+			List<Product> batch;
+			do {
+				batch = productDAO.searchProductsByCursor(null, null, ProductCursor.Sort.ID, cursor,
+						REBUILD_BATCH_SIZE);
+				rebuild.addAll(batch);
+				if (!batch.isEmpty()) {
+					cursor = ProductCursor.after(batch.get(batch.size() - 1), ProductCursor.Sort.ID);
+				}
+				sessionFactory.getCurrentSession().clear();
+			} while (batch.size() == REBUILD_BATCH_SIZE);
+			return rebuild.commit();
+		} catch (RuntimeException e) {
+			rebuild.abort();
+			throw e;
+		}
+	}
 }
@@ -1,8 +1,11 @@
 package com.example.demo.service.impl;
 
 import com.example.demo.dao.UserDAO;
+import com.example.demo.dto.UserCredentials;
 import com.example.demo.model.User;
+import com.example.demo.security.UserDetailsCache;
 import com.example.demo.service.UserService;
+import com.example.demo.util.TransactionCallbacks;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -22,6 +25,8 @@ import java.util.List;
  * - 更新使用者資料（含密碼修改時重新加密）
  * - 刪除使用者
  * - 依 Email 查詢使用者
+ * - 依 Email 查詢登入驗證所需的欄位（供 Spring Security 使用）
+ * - 登入成功時升級舊的密碼雜湊
  */
 @Service
 @Transactional
@@ -32,12 +37,15 @@ public class UserServiceImpl implements UserService {
 	private UserDAO userDAO;
 	@Autowired
 	private PasswordEncoder passwordEncoder; // 用於密碼加密的工具類別
+	@Autowired
+	private UserDetailsCache userDetailsCache;
 	/**
 	 * 取得所有使用者清單
 	 *
 	 * @return List<User> 所有使用者的列表
 	 */
 	@Override
+	@Transactional(readOnly = true)
 	public List<User> getAllUsers() {
 		return userDAO.findAll();
 	}
@@ -48,6 +56,7 @@ public class UserServiceImpl implements UserService {
 	 * @return User 物件，如果找不到則回傳 null
 	 */
 	@Override
+	@Transactional(readOnly = true)
 	public User getUserById(Long id) {
 		return userDAO.findById(id);
 	}
@@ -70,6 +79,7 @@ public class UserServiceImpl implements UserService {
 	 * 更新現有使用者的資料
 	 * 
 	 * 若新資料中包含密碼欄位，會重新加密後再更新。
+	 * 交易提交後清除新舊信箱的登入資料快取。
 	 *
 	 * @param id 使用者 ID
 	 * @param updatedUser 更新後的使用者資料
@@ -78,6 +88,7 @@ public class UserServiceImpl implements UserService {
 	public void updateUser(Long id, User updatedUser) {
 		User existingUser = userDAO.findById(id);
 		if (existingUser != null) {
+			String oldEmail = existingUser.getEmail();
 			existingUser.setEmail(updatedUser.getEmail());
 			// 若密碼有更新則重新加密
 			if (updatedUser.getPassword() != null && !updatedUser.getPassword().isEmpty()) {
@@ -86,16 +97,25 @@ public class UserServiceImpl implements UserService {
 			}
 			// 儲存更新後的資料	
 			userDAO.save(existingUser);
+			TransactionCallbacks.afterCommit(() -> {
+				userDetailsCache.invalidate(oldEmail);
+				userDetailsCache.invalidate(updatedUser.getEmail());
+			});
 		}
 	}
 	/**
-	 * 根據使用者 ID 刪除該使用者
+	 * 根據使用者 ID 刪除該使用者，交易提交後清除其登入資料快取
 	 *
 	 * @param id 使用者 ID
 	 */
 	@Override
 	public void deleteUser(Long id) {
+		User existingUser = userDAO.findById(id);
 		userDAO.delete(id);
+		if (existingUser != null) {
+			String email = existingUser.getEmail();
+			TransactionCallbacks.afterCommit(() -> userDetailsCache.invalidate(email));
+		}
 	}
 	/**
 	 * 根據 Email 查詢使用者
@@ -104,7 +124,35 @@ public class UserServiceImpl implements UserService {
 	 * @return User 物件，如果不存在則回傳 null
 	 */
 	@Override
+	@Transactional(readOnly = true)
 	public User getUserByEmail(String email) {
 		return userDAO.findByEmail(email);
 	}
+	/**
+	 * 根據 Email 查詢登入驗證所需的欄位，不載入使用者實體與顧客資料
+	 *
+	 * @param email 使用者的電子郵件地址
+	 * @return 登入資料，如果不存在則回傳 null
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public UserCredentials getCredentialsByEmail(String email) {
+		return userDAO.findCredentialsByEmail(email);
+	}
+	/**
+	 * 登入成功後將過時的密碼雜湊（舊演算法或強度不足）換成以目前設定編碼的雜湊。
+	 *
+	 * @param email 使用者的電子郵件地址
+	 * @param currentHash 比對成功的雜湊
+	 * @param newHash 重新編碼後的雜湊
+	 * @return 是否已更新；密碼已在此期間被修改時不更新
+	 */
+	@Override
+	public boolean upgradePasswordHash(String email, String currentHash, String newHash) {
+		if (userDAO.updatePasswordHash(email, currentHash, newHash) == 0) {
+			return false;
+		}
+		TransactionCallbacks.afterCommit(() -> userDetailsCache.invalidate(email));
+		return true;
+	}
 }
@@ -0,0 +1,54 @@
+package com.example.demo.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * TransactionCallbacks 交易回呼工具
+ *
+ * <p>快取清除、搜尋索引更新等副作用必須在資料真正提交後才執行，
+ * 否則其他執行緒可能在提交前讀回舊資料，或交易回滾後留下不存在的資料。</p>
+ */
+public final class TransactionCallbacks {
+
+	private TransactionCallbacks() {
+	}
+
+	/**
+	 * 若目前有交易，延後到提交成功後才執行；否則立即執行。
+	 *
+	 * @param action 要執行的動作；交易回滾時不執行
+	 */
+	public static void afterCommit(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
+		}
+	}
+
+	/**
+	 * 若目前有交易，於交易回滾後執行；沒有交易時不執行（沒有可回滾的變更）。
+	 *
+	 * <p>用於補償不受資料庫交易保護的變更，例如記憶體中已扣減的庫存。</p>
+	 *
+	 * @param action 要執行的動作
+	 */
+	public static void afterRollback(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					if (status == STATUS_ROLLED_BACK) {
+						action.run();
+					}
+				}
+			});
+		}
+	}
+}
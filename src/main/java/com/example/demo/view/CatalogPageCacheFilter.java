@@ -0,0 +1,207 @@
+package com.example.demo.view;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.support.SessionFlashMapManager;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.example.demo.cache.CatalogCacheManager;
+import com.example.demo.config.ReadOnlyRoutingDataSource;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * CatalogPageCacheFilter 未登入訪客的商品頁面快取
+ *
+ * <p>未登入的 {@code GET /products} 與 {@code GET /products/{id}} 依（網址與查詢參數、語系 Cookie）
+ * 快取渲染後的 HTML，並以商品目錄版本產生強 ETag 與 Last-Modified：</p>
+ * <ul>
+ *   <li>瀏覽器或爬蟲帶著相同 ETag（或未晚於最後異動時間的 If-Modified-Since）時直接回應 304</li>
+ *   <li>其他請求若快取中有目前版本的頁面，直接輸出，不經過 Controller 與模板</li>
+ * </ul>
+ *
+ * <p>商品列表以目錄版本為準；商品頁顯示庫存，另加上庫存版本（見 {@link CatalogCacheManager}）。
+ * 版本改變後舊頁面不再使用，由容量上限淘汰。</p>
+ *
+ * <p>要快取的頁面在 {@link ReadOnlyRoutingDataSource#primaryReads()} 範圍內渲染，啟用唯讀副本時仍讀主庫。</p>
+ *
+ * <p>已登入使用者的頁面包含個人資料，不快取；帶有 flash 訊息或回應設定了 Cookie 的請求也不快取。
+ * 以 {@code DelegatingFilterProxy} 註冊在 Spring Security 之後，才能判斷登入狀態。</p>
+ */
+@Component
+public class CatalogPageCacheFilter extends OncePerRequestFilter {
+
+	/** 商品列表與商品頁 */
+	private static final Pattern CATALOG_PATH = Pattern.compile("/products(/\\d+)?/?");
+
+	private static final String FLASH_MAPS = SessionFlashMapManager.class.getName() + ".FLASH_MAPS";
+
+	@Autowired
+	private CatalogCacheManager catalogCacheManager;
+
+	private final boolean enabled;
+	private final Cache<String, CachedPage> pages;
+
+	@Autowired
+	public CatalogPageCacheFilter(Environment env) {
+		this.enabled = env.getProperty("catalog.pageCache.enabled", Boolean.class, true);
+		long maxBytes = env.getProperty("catalog.pageCache.maxMb", Long.class, 32L) * 1024 * 1024;
+		this.pages = Caffeine.newBuilder()
+				.maximumWeight(maxBytes)
+				.weigher((String key, CachedPage page) -> page.body.length + key.length())
+				.build();
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !enabled || !"GET".equals(request.getMethod())
+				|| !CATALOG_PATH.matcher(request.getRequestURI().substring(request.getContextPath().length())).matches();
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		if (!isAnonymous() || hasFlashAttributes(request)) {
+			chain.doFilter(request, response);
+			return;
+		}
+
+		boolean detail = !request.getRequestURI().endsWith("/products")
+				&& !request.getRequestURI().endsWith("/products/");
+		long version = catalogCacheManager.getCatalogVersion();
+		long lastModified = catalogCacheManager.getCatalogChangedAt();
+		if (detail) {
+			version = version * 31 + catalogCacheManager.getStockVersion();
+			lastModified = Math.max(lastModified, catalogCacheManager.getStockChangedAt());
+		}
+		String key = pageKey(request);
+		String etag = "\"" + Long.toHexString(version) + "-" + Integer.toHexString(key.hashCode()) + "\"";
+		// HTTP 日期只到秒
+		lastModified = lastModified / 1000 * 1000;
+
+		if (isNotModified(request, etag, lastModified)) {
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			writeValidators(response, etag, lastModified);
+			return;
+		}
+
+		CachedPage page = pages.getIfPresent(key + "|" + etag);
+		if (page != null) {
+			writeValidators(response, etag, lastModified);
+			response.setContentType(page.contentType);
+			response.setContentLength(page.body.length);
+			response.getOutputStream().write(page.body);
+			return;
+		}
+
+		ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+		writeValidators(wrapper, etag, lastModified);
+		// 頁面以渲染前讀到的版本保存，資料需讀主庫，不可使用尚未複寫的副本
+		try (ReadOnlyRoutingDataSource.PrimaryReads primary = ReadOnlyRoutingDataSource.primaryReads()) {
+			chain.doFilter(request, wrapper);
+		}
+		if (wrapper.getStatus() == HttpServletResponse.SC_OK && wrapper.getContentType() != null
+				&& wrapper.getContentType().startsWith("text/html")
+				&& wrapper.getHeaders(HttpHeaders.SET_COOKIE).isEmpty()) {
+			pages.put(key + "|" + etag, new CachedPage(wrapper.getContentAsByteArray(), wrapper.getContentType()));
+		}
+		wrapper.copyBodyToResponse();
+	}
+
+	private static boolean isAnonymous() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		return authentication == null || authentication instanceof AnonymousAuthenticationToken
+				|| !authentication.isAuthenticated();
+	}
+
+	private static boolean hasFlashAttributes(HttpServletRequest request) {
+		HttpSession session = request.getSession(false);
+		if (session == null) {
+			return false;
+		}
+		Object flashMaps = session.getAttribute(FLASH_MAPS);
+		return flashMaps instanceof Collection && !((Collection<?>) flashMaps).isEmpty();
+	}
+
+	/**
+	 * 快取鍵：路徑、排序後的查詢參數與語系 Cookie。
+	 */
+	private static String pageKey(HttpServletRequest request) {
+		StringBuilder key = new StringBuilder(request.getRequestURI()).append('?');
+		Map<String, String[]> sorted = new TreeMap<>(request.getParameterMap());
+		for (Map.Entry<String, String[]> entry : sorted.entrySet()) {
+			key.append(entry.getKey()).append('=').append(Arrays.toString(entry.getValue())).append('&');
+		}
+		key.append("|lang=");
+		Cookie[] cookies = request.getCookies();
+		if (cookies != null) {
+			for (Cookie cookie : cookies) {
+				if ("lang".equals(cookie.getName())) {
+					key.append(cookie.getValue());
+				}
+			}
+		}
+		return key.toString();
+	}
+
+	private static boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+		String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+		if (ifNoneMatch != null) {
+			for (String candidate : ifNoneMatch.split(",")) {
+				candidate = candidate.trim();
+				if (candidate.startsWith("W/")) {
+					candidate = candidate.substring(2);
+				}
+				if (candidate.equals(etag) || candidate.equals("*")) {
+					return true;
+				}
+			}
+			return false;
+		}
+		long ifModifiedSince;
+		try {
+			ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+		return ifModifiedSince >= 0 && lastModified <= ifModifiedSince;
+	}
+
+	private static void writeValidators(HttpServletResponse response, String etag, long lastModified) {
+		response.setHeader(HttpHeaders.ETAG, etag);
+		response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+		// 瀏覽器可保存頁面，但每次使用前都要重新驗證
+		response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+		response.setHeader(HttpHeaders.VARY, HttpHeaders.COOKIE);
+	}
+
+	private static final class CachedPage {
+		final byte[] body;
+		final String contentType;
+
+		CachedPage(byte[] body, String contentType) {
+			this.body = body;
+			this.contentType = contentType;
+		}
+	}
+}
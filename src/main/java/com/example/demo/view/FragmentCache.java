@@ -0,0 +1,67 @@
+package com.example.demo.view;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * FragmentCache 模板片段輸出快取
+ *
+ * <p>將很少變動、但每次請求都要重新產生的頁面片段（例如商品列表的分類選單）
+ * 渲染成 HTML 字串後快取，頁面再以 {@code th:utext} 插入。</p>
+ *
+ * <p>鍵值由呼叫端提供，需包含所有會影響輸出的資料版本（例如分類樹版本與選取的分類），
+ * 資料異動後版本改變即自然改用新的項目，舊項目由容量上限淘汰。
+ * 渲染用的資料不可舊於鍵值中的版本（例如讀到尚未複寫的副本），否則舊輸出會保存在新版本下；
+ * 分類選單使用的分類樹快照一律讀主庫。</p>
+ *
+ * <p>片段以不含請求資訊的 {@link Context} 渲染，不能使用 {@code @{...}} 連結等需要請求的語法。</p>
+ */
+@Component
+public class FragmentCache {
+
+	@Autowired
+	private SpringTemplateEngine templateEngine;
+
+	private final Cache<String, String> fragments;
+
+	@Autowired
+	public FragmentCache(Environment env) {
+		this.fragments = Caffeine.newBuilder()
+				.maximumSize(env.getProperty("template.fragmentCache.maxSize", Long.class, 500L))
+				.build();
+	}
+
+	/**
+	 * 取得片段的 HTML；沒有快取時以 variables 提供的變數渲染並存入。
+	 *
+	 * @param template  模板名稱（例如 {@code fragments/category-options}）
+	 * @param fragment  模板中的 {@code th:fragment} 名稱
+	 * @param key       影響輸出的資料版本與參數
+	 * @param variables 渲染時使用的變數，只在沒有快取時呼叫
+	 * @return 渲染後的 HTML
+	 */
+	public String render(String template, String fragment, String key, Supplier<Map<String, Object>> variables) {
+		return fragments.get(template + "::" + fragment + "|" + key, k -> {
+			Context context = new Context(LocaleContextHolder.getLocale(), variables.get());
+			return templateEngine.process(template, Set.of(fragment), context);
+		});
+	}
+
+	/**
+	 * 清除所有快取的片段（模板檔案變更時）。
+	 */
+	public void invalidateAll() {
+		fragments.invalidateAll();
+	}
+}
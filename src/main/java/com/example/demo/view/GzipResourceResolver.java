@@ -0,0 +1,141 @@
+package com.example.demo.view;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.HttpResource;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+/**
+ * GzipResourceResolver 文字類靜態檔案的 gzip 壓縮
+ *
+ * <p>瀏覽器接受 gzip 且檔案是 CSS、JS 等文字格式時，回傳壓縮後的內容。
+ * 放在 {@code CachingResourceResolver} 之後，壓縮結果隨解析結果依 Accept-Encoding 分開快取，
+ * 每個檔案只壓縮一次。</p>
+ *
+ * <p>部署時若已在檔案旁放了 {@code .br} / {@code .gz}，由後面的
+ * {@code EncodedResourceResolver} 直接提供，這裡不再壓縮。圖片本身已壓縮，不處理。</p>
+ */
+public class GzipResourceResolver extends AbstractResourceResolver {
+
+	private static final Set<String> COMPRESSIBLE = Set.of("css", "js", "svg", "json", "txt", "html", "xml", "map");
+
+	/** 太小的檔案壓縮後省不了多少，反而多一次解壓 */
+	private static final int MIN_BYTES = 1024;
+
+	@Override
+	protected Resource resolveResourceInternal(HttpServletRequest request, String requestPath,
+			List<? extends Resource> locations, ResourceResolverChain chain) {
+		Resource resource = chain.resolveResource(request, requestPath, locations);
+		if (resource == null || request == null || !acceptsGzip(request)
+				|| !COMPRESSIBLE.contains(StringUtils.getFilenameExtension(resource.getFilename()))) {
+			return resource;
+		}
+		if (resource instanceof HttpResource
+				&& ((HttpResource) resource).getResponseHeaders().containsKey(HttpHeaders.CONTENT_ENCODING)) {
+			return resource;
+		}
+		try {
+			byte[] content;
+			try (InputStream in = resource.getInputStream()) {
+				content = StreamUtils.copyToByteArray(in);
+			}
+			if (content.length < MIN_BYTES) {
+				return resource;
+			}
+			ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 3);
+			try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+				gzip.write(content);
+			}
+			return new GzippedResource(resource, out.toByteArray());
+		} catch (IOException e) {
+			logger.warn("壓縮靜態檔案失敗：" + resource, e);
+			return resource;
+		}
+	}
+
+	@Override
+	protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations,
+			ResourceResolverChain chain) {
+		return chain.resolveUrlPath(resourceUrlPath, locations);
+	}
+
+	private static boolean acceptsGzip(HttpServletRequest request) {
+		String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+		return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+	}
+
+	/**
+	 * 壓縮後的內容；檔名、修改時間與原本的回應標頭（例如版本 ETag）沿用原檔案。
+	 */
+	static final class GzippedResource extends AbstractResource implements HttpResource {
+
+		private final Resource original;
+		private final byte[] gzipped;
+
+		GzippedResource(Resource original, byte[] gzipped) {
+			this.original = original;
+			this.gzipped = gzipped;
+		}
+
+		@Override
+		public InputStream getInputStream() {
+			return new ByteArrayInputStream(gzipped);
+		}
+
+		@Override
+		public boolean exists() {
+			return true;
+		}
+
+		@Override
+		public long contentLength() {
+			return gzipped.length;
+		}
+
+		@Override
+		public long lastModified() throws IOException {
+			return original.lastModified();
+		}
+
+		@Override
+		public URL getURL() throws IOException {
+			return original.getURL();
+		}
+
+		@Override
+		public String getFilename() {
+			return original.getFilename();
+		}
+
+		@Override
+		public String getDescription() {
+			return "gzip of " + original.getDescription();
+		}
+
+		@Override
+		public HttpHeaders getResponseHeaders() {
+			HttpHeaders headers = new HttpHeaders();
+			if (original instanceof HttpResource) {
+				headers.putAll(((HttpResource) original).getResponseHeaders());
+			}
+			headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+			headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+			return headers;
+		}
+	}
+}
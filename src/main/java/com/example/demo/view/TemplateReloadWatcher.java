@@ -0,0 +1,105 @@
+package com.example.demo.view;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import javax.servlet.ServletContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+
+/**
+ * TemplateReloadWatcher 開發時的模板重新載入
+ *
+ * <p>{@code template.watch.enabled=true} 時監看部署目錄中的 {@code /WEB-INF/views}，
+ * 任何檔案變更都會清除 Thymeleaf 的模板快取與 {@link FragmentCache}，
+ * 開發時可以保留模板快取，修改後不需重新啟動即可看到結果。</p>
+ *
+ * <p>以 war 檔直接執行（沒有展開的目錄）時無法監看，只記錄警告。</p>
+ */
+@Component
+public class TemplateReloadWatcher implements InitializingBean, DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(TemplateReloadWatcher.class);
+
+	private static final String VIEWS = "/WEB-INF/views";
+
+	@Autowired
+	private Environment env;
+
+	@Autowired
+	private ServletContext servletContext;
+
+	@Autowired
+	private SpringTemplateEngine templateEngine;
+
+	@Autowired
+	private FragmentCache fragmentCache;
+
+	private WatchService watchService;
+
+	@Override
+	public void afterPropertiesSet() throws IOException {
+		if (!env.getProperty("template.watch.enabled", Boolean.class, false)) {
+			return;
+		}
+		String realPath = servletContext.getRealPath(VIEWS);
+		if (realPath == null || !Files.isDirectory(Paths.get(realPath))) {
+			logger.warn("找不到模板目錄 {}，無法監看模板變更", VIEWS);
+			return;
+		}
+		Path root = Paths.get(realPath);
+		watchService = FileSystems.getDefault().newWatchService();
+		Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+				dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+						StandardWatchEventKinds.ENTRY_DELETE);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		Thread thread = new Thread(this::watch, "template-reload-watcher");
+		thread.setDaemon(true);
+		thread.start();
+		logger.info("已開始監看模板目錄：{}", root);
+	}
+
+	private void watch() {
+		try {
+			while (true) {
+				WatchKey key = watchService.take();
+				// 同一次存檔常產生多個事件，合併為一次清除
+				key.pollEvents();
+				key.reset();
+				templateEngine.clearTemplateCache();
+				fragmentCache.invalidateAll();
+				logger.debug("模板已變更，已清除模板快取");
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			// 關閉
+		}
+	}
+
+	@Override
+	public void destroy() throws IOException {
+		if (watchService != null) {
+			watchService.close();
+		}
+	}
+}
@@ -8,15 +8,18 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.ContextHierarchy;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.web.WebAppConfiguration;
 
+import com.example.demo.config.AppConfig;
 import com.example.demo.config.WebMvcConfig;
 import com.example.demo.model.Cart;
 import com.example.demo.service.CartService;
 
 @RunWith(SpringJUnit4ClassRunner.class)
-@ContextConfiguration(classes = { WebMvcConfig.class })
+@ContextHierarchy({ @ContextConfiguration(classes = AppConfig.class),
+		@ContextConfiguration(classes = WebMvcConfig.class) })
 @WebAppConfiguration
 public class CartServiceTest {
 
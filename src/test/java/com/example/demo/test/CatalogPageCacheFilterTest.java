@@ -0,0 +1,141 @@
+package com.example.demo.test;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.demo.cache.CatalogCacheManager;
+import com.example.demo.cache.ProductCountCache;
+import com.example.demo.config.ReadOnlyRoutingDataSource;
+import com.example.demo.view.CatalogPageCacheFilter;
+
+public class CatalogPageCacheFilterTest {
+
+    private CatalogPageCacheFilter filter;
+    private CatalogCacheManager catalogCacheManager;
+    private final AtomicInteger renders = new AtomicInteger();
+    private final AtomicInteger primaryRenders = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        MockEnvironment env = new MockEnvironment();
+        catalogCacheManager = new CatalogCacheManager();
+        // 清除快取時不需要真的 Hibernate 快取
+        SessionFactory sessionFactory = (SessionFactory) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { SessionFactory.class }, (p, method, args) -> method.getName().equals("getCache")
+                        ? Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Cache.class },
+                                (c, m, a) -> null)
+                        : null);
+        ReflectionTestUtils.setField(catalogCacheManager, "sessionFactory", sessionFactory);
+        ReflectionTestUtils.setField(catalogCacheManager, "productCountCache", new ProductCountCache(env));
+
+        filter = new CatalogPageCacheFilter(env);
+        ReflectionTestUtils.setField(filter, "catalogCacheManager", catalogCacheManager);
+    }
+
+    @After
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockHttpServletResponse get(String uri, String ifNoneMatch) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) throws IOException {
+                renders.incrementAndGet();
+                if (ReadOnlyRoutingDataSource.isPrimaryReads()) {
+                    primaryRenders.incrementAndGet();
+                }
+                res.setContentType("text/html;charset=UTF-8");
+                res.getOutputStream().write(("page " + renders.get()).getBytes(StandardCharsets.UTF_8));
+            }
+        });
+        return response;
+    }
+
+    @Test
+    public void testSecondRequestIsServedFromCache() throws Exception {
+        MockHttpServletResponse first = get("/products", null);
+        MockHttpServletResponse second = get("/products", null);
+        assertEquals(1, renders.get());
+        assertEquals("page 1", second.getContentAsString());
+        assertEquals(first.getHeader("ETag"), second.getHeader("ETag"));
+        assertEquals("no-cache", second.getHeader("Cache-Control"));
+    }
+
+    @Test
+    public void testMatchingEtagAnswersNotModified() throws Exception {
+        String etag = get("/products/5", null).getHeader("ETag");
+        MockHttpServletResponse response = get("/products/5", etag);
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    public void testCatalogChangeInvalidatesPages() throws Exception {
+        String etag = get("/products", null).getHeader("ETag");
+        catalogCacheManager.productChanged(5L);
+        MockHttpServletResponse response = get("/products", etag);
+        assertEquals(200, response.getStatus());
+        assertNotEquals(etag, response.getHeader("ETag"));
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    public void testStockChangeOnlyAffectsDetailPages() throws Exception {
+        String listEtag = get("/products", null).getHeader("ETag");
+        String detailEtag = get("/products/5", null).getHeader("ETag");
+        catalogCacheManager.productsChanged(List.of(5L));
+        assertEquals(304, get("/products", listEtag).getStatus());
+        assertEquals(200, get("/products/5", detailEtag).getStatus());
+    }
+
+    @Test
+    public void testAuthenticatedUsersAreNotCached() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("user", null, List.of()));
+        MockHttpServletResponse first = get("/products", null);
+        get("/products", null);
+        assertEquals(2, renders.get());
+        assertNull(first.getHeader("ETag"));
+    }
+
+    @Test
+    public void testCachedPagesAreRenderedFromPrimary() throws Exception {
+        catalogCacheManager.productChanged(5L);
+        get("/products", null);
+        assertEquals("要快取的頁面需在主庫讀取範圍內渲染", 1, primaryRenders.get());
+        assertFalse(ReadOnlyRoutingDataSource.isPrimaryReads());
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("user", null, List.of()));
+        get("/products", null);
+        assertEquals("不快取的頁面照常使用副本", 1, primaryRenders.get());
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.demo.test;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.example.demo.cache.CategoryTree;
+import com.example.demo.model.Category;
+
+public class CategoryTreeTest {
+
+	private List<Category> categories;
+
+	@Before
+	public void setUp() {
+		// 1 → 2 → 4 → 6（第四層）
+		//   → 3
+		// 5
+		categories = new ArrayList<>();
+		Category c1 = category(1L, null);
+		Category c2 = category(2L, c1);
+		Category c3 = category(3L, c1);
+		Category c4 = category(4L, c2);
+		Category c5 = category(5L, null);
+		Category c6 = category(6L, c4);
+		categories.addAll(Arrays.asList(c6, c4, c3, c2, c1, c5));
+	}
+
+	private static Category category(Long id, Category parent) {
+		Category c = new Category();
+		c.setId(id);
+		c.setName("分類" + id);
+		c.setParent(parent);
+		return c;
+	}
+
+	@Test
+	public void testDescendantIds() {
+		CategoryTree tree = new CategoryTree(categories, 1L);
+		assertEquals(Arrays.asList(1L, 2L, 4L, 6L, 3L), tree.getDescendantIds(1L));
+		assertEquals(Arrays.asList(4L, 6L), tree.getDescendantIds(4L));
+		assertEquals(Arrays.asList(5L), tree.getDescendantIds(5L));
+		// 不存在的分類只回傳自己
+		assertEquals(Arrays.asList(99L), tree.getDescendantIds(99L));
+	}
+
+	@Test
+	public void testChildIds() {
+		CategoryTree tree = new CategoryTree(categories, 1L);
+		assertArrayEquals(new long[] { 2L, 3L }, tree.getChildIds(1L));
+		assertArrayEquals(new long[0], tree.getChildIds(6L));
+	}
+
+	@Test
+	public void testThreeLevelCategories() {
+		CategoryTree tree = new CategoryTree(categories, 1L);
+		List<Category> top = tree.getThreeLevelCategories();
+		assertEquals(2, top.size());
+		Category c1 = top.get(0);
+		assertEquals(Long.valueOf(1L), c1.getId());
+		assertEquals(2, c1.getChildren().size());
+		Category c4 = c1.getChildren().get(0).getChildren().get(0);
+		assertEquals(Long.valueOf(4L), c4.getId());
+		// 只保留三層
+		assertTrue(c4.getChildren().isEmpty());
+		// 快照內的物件與傳入的實體不同
+		assertNotSame(categories.get(4), c1);
+	}
+
+	@Test
+	public void testCycleIsIgnored() {
+		Category a = category(10L, null);
+		Category b = category(11L, a);
+		a.setParent(b);
+		categories.add(a);
+		categories.add(b);
+		CategoryTree tree = new CategoryTree(categories, 2L);
+		assertEquals(Arrays.asList(10L), tree.getDescendantIds(10L));
+		assertEquals(2, tree.getThreeLevelCategories().size());
+	}
+}
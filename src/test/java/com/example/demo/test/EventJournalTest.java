@@ -0,0 +1,185 @@
+package com.example.demo.test;
+
+import static org.junit.Assert.*;
+
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.example.demo.journal.EventJournal;
+import com.example.demo.journal.JournalReader;
+import com.example.demo.journal.OrderEvent;
+
+public class EventJournalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static OrderEvent event(long orderId, OrderEvent.Type type) {
+        return new OrderEvent(0L, type, 1700000000000L + orderId, orderId, 7L, new BigDecimal("123.45"), 2);
+    }
+
+    @Test
+    public void testAppendAndReplay() throws Exception {
+        Path dir = folder.newFolder().toPath();
+        try (EventJournal journal = EventJournal.open(dir, 1024 * 1024, 64)) {
+            List<CompletableFuture<Long>> futures = new ArrayList<>();
+            for (long i = 1; i <= 100; i++) {
+                futures.add(journal.append(event(i, OrderEvent.Type.CREATED)));
+            }
+            assertEquals(Long.valueOf(100L), futures.get(99).get());
+            assertEquals(100L, journal.getLastSequence());
+        }
+
+        try (JournalReader reader = new JournalReader(dir, 1L)) {
+            List<OrderEvent> events = reader.poll(1000);
+            assertEquals(100, events.size());
+            OrderEvent first = events.get(0);
+            assertEquals(1L, first.getSequence());
+            assertEquals(1L, first.getOrderId());
+            assertEquals(OrderEvent.Type.CREATED, first.getType());
+            assertEquals(new BigDecimal("123.45"), first.getTotalAmount());
+            assertEquals(2, first.getItemCount());
+            assertEquals(101L, reader.getNextSequence());
+        }
+    }
+
+    @Test
+    public void testReopenContinuesSequence() throws Exception {
+        Path dir = folder.newFolder().toPath();
+        try (EventJournal journal = EventJournal.open(dir, 1024 * 1024, 64)) {
+            journal.append(event(1L, OrderEvent.Type.CREATED)).get();
+            journal.append(event(1L, OrderEvent.Type.PAID)).get();
+        }
+        try (EventJournal journal = EventJournal.open(dir, 1024 * 1024, 64)) {
+            assertEquals(2L, journal.getLastSequence());
+            assertEquals(Long.valueOf(3L), journal.append(event(1L, OrderEvent.Type.CANCELLED)).get());
+        }
+        try (JournalReader reader = new JournalReader(dir, 2L)) {
+            List<OrderEvent> events = reader.poll(10);
+            assertEquals(2, events.size());
+            assertEquals(OrderEvent.Type.PAID, events.get(0).getType());
+            assertEquals(OrderEvent.Type.CANCELLED, events.get(1).getType());
+        }
+    }
+
+    @Test
+    public void testTornRecordIsTruncatedOnReopen() throws Exception {
+        Path dir = folder.newFolder().toPath();
+        try (EventJournal journal = EventJournal.open(dir, 1024 * 1024, 64)) {
+            journal.append(event(1L, OrderEvent.Type.CREATED)).get();
+            journal.append(event(2L, OrderEvent.Type.CREATED)).get();
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(dir)) {
+            segment = files.filter(p -> p.toString().endsWith(".journal")).findFirst().get();
+        }
+        // 破壞第二筆記錄的內容，模擬寫到一半當機
+        int recordSize = 8 + OrderEvent.ENCODED_SIZE;
+        try (RandomAccessFile raf = new RandomAccessFile(segment.toFile(), "rw")) {
+            raf.seek(16 + recordSize + 20);
+            raf.writeLong(-1L);
+        }
+        try (EventJournal journal = EventJournal.open(dir, 1024 * 1024, 64)) {
+            assertEquals(1L, journal.getLastSequence());
+            assertEquals(Long.valueOf(2L), journal.append(event(3L, OrderEvent.Type.CREATED)).get());
+        }
+        try (JournalReader reader = new JournalReader(dir, 1L)) {
+            List<Long> orderIds = reader.poll(10).stream().map(OrderEvent::getOrderId).collect(Collectors.toList());
+            assertEquals(List.of(1L, 3L), orderIds);
+        }
+    }
+
+    @Test
+    public void testFailedBatchIsNotPublished() throws Exception {
+        Path dir = folder.newFolder().toPath();
+        // 金額超出 long 範圍，編碼到一半失敗
+        OrderEvent broken = new OrderEvent(0L, OrderEvent.Type.CREATED, 1700000000000L, 99L, 7L,
+                new BigDecimal("123456789012345678901234.56"), 1);
+        List<Long> written = new ArrayList<>();
+        try (EventJournal journal = EventJournal.open(dir, 1024 * 1024, 64)) {
+            List<CompletableFuture<Long>> futures = new ArrayList<>();
+            for (long i = 1; i <= 10; i++) {
+                futures.add(journal.append(i == 5 ? broken : event(i, OrderEvent.Type.CREATED)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    assertEquals(Long.valueOf(written.size() + 1L), futures.get(i).get());
+                    written.add(i + 1L);
+                } catch (ExecutionException e) {
+                    // 與失敗的事件同一批、尚未寫入磁碟的事件一併回報失敗
+                }
+            }
+            assertFalse(written.contains(5L));
+            assertEquals(written.size(), journal.getLastSequence());
+
+            // 下一批從失敗的位置接續，序號不跳號
+            assertEquals(Long.valueOf(written.size() + 1L), journal.append(event(11L, OrderEvent.Type.CREATED)).get());
+            written.add(11L);
+        }
+        try (JournalReader reader = new JournalReader(dir, 1L)) {
+            List<Long> orderIds = reader.poll(100).stream().map(OrderEvent::getOrderId).collect(Collectors.toList());
+            assertEquals(written, orderIds);
+        }
+    }
+
+    @Test
+    public void testSegmentRollover() throws Exception {
+        Path dir = folder.newFolder().toPath();
+        // 每個區段只放得下 10 筆記錄
+        int segmentSize = 16 + 10 * (8 + OrderEvent.ENCODED_SIZE);
+        try (EventJournal journal = EventJournal.open(dir, segmentSize, 64)) {
+            CompletableFuture<Long> last = null;
+            for (long i = 1; i <= 35; i++) {
+                last = journal.append(event(i, OrderEvent.Type.CREATED));
+            }
+            assertEquals(Long.valueOf(35L), last.get());
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(4, files.filter(p -> p.toString().endsWith(".journal")).count());
+        }
+        try (JournalReader reader = new JournalReader(dir, 15L)) {
+            List<OrderEvent> events = new ArrayList<>();
+            assertEquals(21L, reader.replay(events::add));
+            assertEquals(15L, events.get(0).getSequence());
+            assertEquals(35L, events.get(20).getSequence());
+        }
+    }
+
+    @Test
+    public void testTailFollowsWriter() throws Exception {
+        Path dir = folder.newFolder().toPath();
+        try (EventJournal journal = EventJournal.open(dir, 16 + 10 * (8 + OrderEvent.ENCODED_SIZE), 64);
+                JournalReader reader = journal.openReader(1L)) {
+            assertTrue(reader.poll(10).isEmpty());
+
+            Thread producer = new Thread(() -> {
+                for (long i = 1; i <= 50; i++) {
+                    journal.append(event(i, OrderEvent.Type.CREATED));
+                }
+            });
+            producer.start();
+
+            List<OrderEvent> received = new ArrayList<>();
+            while (received.size() < 50) {
+                assertTrue("等待事件逾時", journal.awaitSequence(reader.getNextSequence(), 5000));
+                received.addAll(reader.poll(100));
+            }
+            producer.join();
+            for (int i = 0; i < received.size(); i++) {
+                assertEquals(i + 1L, received.get(i).getSequence());
+            }
+        }
+    }
+}
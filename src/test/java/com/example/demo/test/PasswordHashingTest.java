@@ -0,0 +1,130 @@
+package com.example.demo.test;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.demo.security.BoundedPasswordEncoder;
+import com.example.demo.security.LoginAttemptThrottle;
+import com.example.demo.security.PasswordEncoderFactory;
+import com.example.demo.security.PasswordHashingExecutor;
+import com.example.demo.security.PasswordHashingRejectedException;
+
+public class PasswordHashingTest {
+
+    private static PasswordHashingExecutor executor;
+    private static LoginAttemptThrottle throttle;
+
+    @BeforeClass
+    public static void setUp() {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("security.hashing.threads", "1")
+                .withProperty("security.hashing.queueCapacity", "1")
+                .withProperty("security.login.maxFailuresPerAccount", "3")
+                .withProperty("security.login.maxFailuresPerIp", "5");
+        executor = new PasswordHashingExecutor();
+        ReflectionTestUtils.setField(executor, "env", env);
+        executor.afterPropertiesSet();
+        throttle = new LoginAttemptThrottle();
+        ReflectionTestUtils.setField(throttle, "env", env);
+        throttle.afterPropertiesSet();
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        executor.destroy();
+    }
+
+    @Test
+    public void testEncoderRunsOnHashingPool() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), executor);
+        String hash = encoder.encode("secret");
+        assertTrue(encoder.matches("secret", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertTrue(executor.getHashTime().getCount() >= 3);
+    }
+
+    @Test
+    public void testDelegatingEncoderUpgradesLegacyHashes() {
+        PasswordEncoder encoder = PasswordEncoderFactory.create(new MockEnvironment()
+                .withProperty("security.password.targetMs", "1")
+                .withProperty("security.password.minStrength", "5")
+                .withProperty("security.password.maxStrength", "6"));
+
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+        assertTrue(encoder.matches("secret", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+
+        String weak = "{bcrypt}" + legacy;
+        assertTrue(encoder.matches("secret", weak));
+        assertTrue(encoder.upgradeEncoding(weak));
+
+        String current = encoder.encode("secret");
+        assertTrue(current.startsWith("{bcrypt}$2a$0"));
+        assertTrue(encoder.matches("secret", current));
+        assertFalse(encoder.upgradeEncoding(current));
+    }
+
+    @Test
+    public void testFullQueueIsRejectedImmediately() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            // 一個佔住唯一的執行緒，一個佔住唯一的佇列位置
+            callers.submit(() -> executor.execute(() -> {
+                running.countDown();
+                return release.await(10, TimeUnit.SECONDS);
+            }));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            callers.submit(() -> executor.execute(() -> true));
+            while (executor.getQueueDepth() == 0) {
+                Thread.sleep(5);
+            }
+            long rejected = executor.getRejectedCount();
+            try {
+                executor.execute(() -> true);
+                fail("佇列已滿時應拒絕");
+            } catch (PasswordHashingRejectedException expected) {
+                assertEquals(rejected + 1, executor.getRejectedCount());
+            }
+        } finally {
+            release.countDown();
+            callers.shutdown();
+            callers.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testAccountIsBlockedAfterRepeatedFailures() {
+        for (int i = 0; i < 3; i++) {
+            assertFalse(throttle.isBlocked("Alice@Example.com", "10.0.0.1"));
+            throttle.recordFailure("Alice@Example.com", "10.0.0.1");
+        }
+        assertTrue(throttle.isBlocked("alice@example.com", "10.0.0.2"));
+        assertFalse(throttle.isBlocked("bob@example.com", "10.0.0.1"));
+
+        throttle.recordSuccess("alice@example.com");
+        assertFalse(throttle.isBlocked("alice@example.com", "10.0.0.2"));
+    }
+
+    @Test
+    public void testIpIsBlockedAcrossAccounts() {
+        for (int i = 0; i < 5; i++) {
+            throttle.recordFailure("user" + i + "@example.com", "10.0.0.9");
+        }
+        assertTrue(throttle.isBlocked("someone@example.com", "10.0.0.9"));
+        assertFalse(throttle.isBlocked("someone@example.com", "10.0.0.10"));
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.demo.test;
+
+import static org.junit.Assert.*;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.cache.CategoryTreeCache;
+import com.example.demo.config.ReadOnlyRoutingDataSource;
+import com.example.demo.dao.CategoryDAO;
+
+/**
+ * 以兩個模擬資料庫驗證唯讀交易只使用副本、其餘交易只使用主庫，
+ * 以及依版本號快取的讀取不使用副本。
+ */
+public class ReadOnlyRoutingDataSourceTest {
+
+    private CountingDataSource primary;
+    private CountingDataSource replica;
+    private ReadOnlyRoutingDataSource dataSource;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @Before
+    public void setUp() {
+        primary = new CountingDataSource();
+        replica = new CountingDataSource();
+        dataSource = new ReadOnlyRoutingDataSource(primary.proxy, replica.proxy);
+        // 建立時會向主庫取一次連線以讀取預設的 autoCommit 與隔離等級
+        primary.connections.set(0);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    public void testReadOnlyTransactionUsesReplica() {
+        readOnly.executeWithoutResult(status -> query());
+        assertEquals(1, replica.connections.get());
+        assertEquals("唯讀交易不應取得主庫連線", 0, primary.connections.get());
+    }
+
+    @Test
+    public void testReadWriteTransactionUsesPrimary() {
+        readWrite.executeWithoutResult(status -> query());
+        assertEquals(1, primary.connections.get());
+        assertEquals(0, replica.connections.get());
+    }
+
+    @Test
+    public void testReadOnlyCallInsideReadWriteTransactionStaysOnPrimary() {
+        readWrite.executeWithoutResult(status -> {
+            query();
+            readOnly.executeWithoutResult(inner -> query());
+        });
+        assertEquals(1, primary.connections.get());
+        assertEquals(0, replica.connections.get());
+    }
+
+    @Test
+    public void testTransactionWithoutStatementsTakesNoConnection() {
+        readOnly.executeWithoutResult(status -> DataSourceUtils.getConnection(dataSource));
+        assertEquals(0, primary.connections.get());
+        assertEquals(0, replica.connections.get());
+    }
+
+    @Test
+    public void testPrimaryReadsScopeRoutesReadOnlyTransactionToPrimary() {
+        try (ReadOnlyRoutingDataSource.PrimaryReads primaryReads = ReadOnlyRoutingDataSource.primaryReads()) {
+            readOnly.executeWithoutResult(status -> query());
+        }
+        assertEquals(1, primary.connections.get());
+        assertEquals(0, replica.connections.get());
+
+        readOnly.executeWithoutResult(status -> query());
+        assertEquals("範圍結束後恢復使用副本", 1, replica.connections.get());
+    }
+
+    @Test
+    public void testCategoryTreeRebuildReadsPrimary() {
+        CategoryTreeCache cache = new CategoryTreeCache();
+        AtomicInteger rebuilds = new AtomicInteger();
+        CategoryDAO categoryDAO = (CategoryDAO) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { CategoryDAO.class }, (p, method, args) -> {
+                    assertEquals("findAll", method.getName());
+                    rebuilds.incrementAndGet();
+                    query();
+                    return List.of();
+                });
+        ReflectionTestUtils.setField(cache, "categoryDAO", categoryDAO);
+        ReflectionTestUtils.setField(cache, "transactionManager", readOnly.getTransactionManager());
+
+        readOnly.executeWithoutResult(status -> cache.getTree());
+        primary.connections.set(0);
+        cache.invalidate();
+        // 和 CategoryService 一樣在唯讀交易中取得分類樹，且交易已先連到副本
+        readOnly.executeWithoutResult(status -> {
+            query();
+            assertEquals(cache.getVersion(), cache.getTree().getVersion());
+        });
+        assertEquals(2, rebuilds.get());
+        assertEquals("版本遞增後的重建應讀主庫", 1, primary.connections.get());
+        assertEquals("副本只有外層交易自己的查詢", 1, replica.connections.get());
+    }
+
+    /** 在目前交易的連線上執行一次查詢 */
+    private void query() {
+        try {
+            DataSourceUtils.getConnection(dataSource).prepareStatement("SELECT 1");
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 記錄取得連線次數的模擬資料來源；連線的方法皆回傳預設值。
+     */
+    private static class CountingDataSource {
+        final AtomicInteger connections = new AtomicInteger();
+        final DataSource proxy = (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { DataSource.class }, (p, method, args) -> {
+                    if (method.getName().equals("getConnection")) {
+                        connections.incrementAndGet();
+                        return connection();
+                    }
+                    return defaultValue(method.getReturnType());
+                });
+
+        private Connection connection() {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] { Connection.class }, (p, method, args) -> {
+                        if (method.getName().equals("getAutoCommit")) {
+                            return true;
+                        }
+                        if (method.getName().equals("getTransactionIsolation")) {
+                            return Connection.TRANSACTION_REPEATABLE_READ;
+                        }
+                        return defaultValue(method.getReturnType());
+                    });
+        }
+
+        private static Object defaultValue(Class<?> type) {
+            if (type == boolean.class) {
+                return false;
+            }
+            if (type == int.class) {
+                return 0;
+            }
+            if (type == long.class) {
+                return 0L;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.demo.test;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.CacheControl;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.resource.CachingResourceResolver;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import com.example.demo.view.GzipResourceResolver;
+import com.example.demo.view.StaticResourceHandler;
+
+public class StaticResourceHandlerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private StaticResourceHandler handler;
+    private String css;
+
+    @Before
+    public void setUp() throws Exception {
+        File dir = folder.newFolder("resources");
+        css = "body { color: #333; }\n".repeat(100);
+        Files.writeString(new File(dir, "site.css").toPath(), css);
+        Files.write(new File(dir, "photo.png").toPath(), new byte[200 * 1024]);
+
+        handler = new StaticResourceHandler();
+        handler.setServletContext(new MockServletContext());
+        handler.setLocations(List.of(new FileSystemResource(dir.getPath() + "/")));
+        handler.setCacheControl(CacheControl.noCache());
+        handler.setVersionedCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic());
+        handler.setResourceResolvers(List.of(
+                new CachingResourceResolver(new ConcurrentMapCache("test")),
+                new GzipResourceResolver(),
+                new EncodedResourceResolver(),
+                new VersionResourceResolver().addContentVersionStrategy("/**"),
+                new PathResourceResolver()));
+        handler.afterPropertiesSet();
+    }
+
+    private MockHttpServletResponse get(String path, boolean gzip, boolean sendfile) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/resources/" + path);
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, path);
+        if (gzip) {
+            request.addHeader("Accept-Encoding", "gzip, deflate, br");
+        }
+        if (sendfile) {
+            request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        handler.handleRequest(request, response);
+        return response;
+    }
+
+    @Test
+    public void testVersionedUrlIsCachedLongAndGzipped() throws Exception {
+        ResourceUrlProvider urlProvider = new ResourceUrlProvider();
+        urlProvider.setHandlerMap(Map.of("/resources/**", handler));
+        String url = urlProvider.getForLookupPath("/resources/site.css");
+        assertTrue(url, url.matches("/resources/site-[0-9a-f]{32}\\.css"));
+
+        MockHttpServletResponse response = get(url.substring("/resources/".length()), true, false);
+        assertEquals(200, response.getStatus());
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("max-age=31536000, public", response.getHeader("Cache-Control"));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertEquals(css, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testUnversionedUrlIsRevalidated() throws Exception {
+        MockHttpServletResponse response = get("site.css", false, false);
+        assertEquals("no-cache", response.getHeader("Cache-Control"));
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals(css, response.getContentAsString());
+    }
+
+    @Test
+    public void testLargeFileUsesSendfile() throws Exception {
+        MockHttpServletResponse response = get("photo.png", false, true);
+        assertEquals(200, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(200 * 1024, response.getContentLengthLong());
+        assertEquals("image/png", response.getContentType());
+    }
+}
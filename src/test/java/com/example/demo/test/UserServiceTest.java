@@ -7,14 +7,17 @@ import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.ContextHierarchy;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.web.WebAppConfiguration;
+import com.example.demo.config.AppConfig;
 import com.example.demo.config.WebMvcConfig;
 import com.example.demo.model.User;
 import com.example.demo.service.UserService;
 
 @RunWith(SpringJUnit4ClassRunner.class)
-@ContextConfiguration(classes = { WebMvcConfig.class })
+@ContextHierarchy({ @ContextConfiguration(classes = AppConfig.class),
+		@ContextConfiguration(classes = WebMvcConfig.class) })
 @WebAppConfiguration
 public class UserServiceTest {
 